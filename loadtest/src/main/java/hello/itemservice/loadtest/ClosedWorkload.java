@@ -0,0 +1,85 @@
+package hello.itemservice.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * closed 모델 - concurrency 개의 스레드가 요청, 응답, thinkTime 대기를 반복한다.
+ *
+ * 응답이 느려지면 그동안 보내지 못한 요청이 기록에서 빠진다.
+ * 그래서 expectedIntervalNanos(보통 워밍업 중 요청 한 번의 주기)로 빠진 샘플을 채운다.
+ */
+public class ClosedWorkload implements Workload {
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final ItemIds ids;
+    private final WorkloadMix mix;
+    private final int concurrency;
+    private final Duration thinkTime;
+    private final long expectedIntervalNanos;
+
+    public ClosedWorkload(HttpClient client, String baseUrl, ItemIds ids, WorkloadMix mix,
+                          int concurrency, Duration thinkTime, long expectedIntervalNanos) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.ids = ids;
+        this.mix = mix;
+        this.concurrency = concurrency;
+        this.thinkTime = thinkTime;
+        this.expectedIntervalNanos = expectedIntervalNanos;
+    }
+
+    @Override
+    public void run(Duration duration, LatencyRecorder recorder) throws InterruptedException {
+        long end = System.nanoTime() + duration.toNanos();
+
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(() -> loop(end, recorder), "loadtest-closed-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    private void loop(long end, LatencyRecorder recorder) {
+        while (System.nanoTime() < end) {
+            Endpoint endpoint = mix.next();
+
+            long start = System.nanoTime();
+            boolean success = send(endpoint);
+            long completed = System.nanoTime();
+            recorder.recordWithExpectedInterval(endpoint, completed - start, expectedIntervalNanos, success);
+
+            if (!thinkTime.isZero()) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(thinkTime.toNanos());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean send(Endpoint endpoint) {
+        try {
+            HttpResponse<Void> response = client.send(endpoint.request(baseUrl, ids), HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() < 400;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package hello.itemservice.loadtest;
+
+import hello.itemservice.datagen.ItemDataGenerator;
+import hello.itemservice.repository.memory.DurableMemoryItemRepository;
+import hello.itemservice.repository.memory.FsyncPolicy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * memory-durable 저장소의 재시작 복구 시간
+ *
+ * 두 가지 상태에서 잰다.
+ * - snapshot+log : rows 개를 스냅샷으로 남기고, tail 개를 로그에 덧붙인 상태 (주기적으로 compaction 하는 운영 상태)
+ * - log only     : rows 개가 모두 로그에만 있는 상태 (compaction 전에 재시작한 최악의 경우)
+ *
+ * --rows=5000000 --tail=500000 --seed=42
+ * --runs=5          상태마다 복구 반복 횟수 (첫 번째는 페이지 캐시가 데워지기 전)
+ * --dir=build/recovery-benchmark
+ *
+ * ./gradlew :loadtest:durableRecoveryBenchmark --args='--rows=5000000'
+ */
+public class DurableRecoveryBenchmark {
+
+    private static final Duration NEVER = Duration.ofDays(365);
+
+    public static void main(String[] args) {
+        Map<String, String> options = parse(args);
+        int rows = Integer.parseInt(options.getOrDefault("rows", "5000000"));
+        int tail = Integer.parseInt(options.getOrDefault("tail", "500000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        Path directory = Paths.get(options.getOrDefault("dir", "build/recovery-benchmark"));
+
+        ItemDataGenerator generator = new ItemDataGenerator(seed);
+        System.out.printf("%-13s %10s %12s %12s %s%n", "state", "items", "snapshot MB", "log MB", "recovery ms (runs)");
+
+        Path compacted = directory.resolve("compacted");
+        prepare(compacted, generator, rows, tail, true);
+        measure("snapshot+log", compacted, rows + tail, runs);
+
+        Path logOnly = directory.resolve("log-only");
+        prepare(logOnly, generator, rows, 0, false);
+        measure("log only", logOnly, rows, runs);
+    }
+
+    private static void prepare(Path directory, ItemDataGenerator generator, int rows, int tail, boolean compact) {
+        delete(directory);
+        DurableMemoryItemRepository repository = open(directory);
+        for (int i = 0; i < rows; i++) {
+            repository.save(generator.generate(i));
+        }
+        if (compact) {
+            repository.compact();
+        }
+        for (int i = rows; i < rows + tail; i++) {
+            repository.save(generator.generate(i));
+        }
+        repository.close();
+    }
+
+    private static void measure(String state, Path directory, int expected, int runs) {
+        long[] millis = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            long start = System.nanoTime();
+            DurableMemoryItemRepository recovered = open(directory);
+            millis[run] = (System.nanoTime() - start) / 1_000_000;
+
+            if (recovered.size() != expected) {
+                throw new IllegalStateException("recovered " + recovered.size() + " items, expected " + expected);
+            }
+            recovered.close();
+            System.gc();
+        }
+
+        System.out.printf("%-13s %10d %12.1f %12.1f %s%n", state, expected,
+                megabytes(directory.resolve("items.snapshot")), megabytes(directory.resolve("items.log")),
+                Arrays.toString(millis));
+    }
+
+    // fsync 는 복구 시간과 관계없으므로 모아서 한다. 스냅샷은 직접 호출할 때만 만든다.
+    private static DurableMemoryItemRepository open(Path directory) {
+        return new DurableMemoryItemRepository(directory, FsyncPolicy.INTERVAL, 1000,
+                Duration.ofSeconds(1), NEVER, Long.MAX_VALUE);
+    }
+
+    private static double megabytes(Path file) {
+        try {
+            return Files.exists(file) ? Files.size(file) / (1024.0 * 1024.0) : 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void delete(Path directory) {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("expected --name=value: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,74 @@
+package hello.itemservice.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * 부하를 줄 ItemController 엔드포인트
+ *
+ * - LIST   : GET  /items (상품명 앞부분 검색, 최대 20개)
+ * - DETAIL : GET  /items/{itemId}
+ * - ADD    : POST /items/add
+ * - EDIT   : POST /items/{itemId}/edit
+ *
+ * 등록, 수정은 redirect(302) 응답까지만 측정한다. (redirect 를 따라가지 않는다)
+ */
+public enum Endpoint {
+
+    LIST {
+        @Override
+        HttpRequest request(String baseUrl, ItemIds ids) {
+            String prefix = "item" + ThreadLocalRandom.current().nextInt(1, 10);
+            return get(baseUrl + "/items?itemName=" + prefix + "&matchMode=PREFIX&limit=20");
+        }
+    },
+    DETAIL {
+        @Override
+        HttpRequest request(String baseUrl, ItemIds ids) {
+            return get(baseUrl + "/items/" + ids.random());
+        }
+    },
+    ADD {
+        @Override
+        HttpRequest request(String baseUrl, ItemIds ids) {
+            return post(baseUrl + "/items/add", randomItemForm("lt"));
+        }
+    },
+    EDIT {
+        @Override
+        HttpRequest request(String baseUrl, ItemIds ids) {
+            return post(baseUrl + "/items/" + ids.random() + "/edit", randomItemForm("item"));
+        }
+    };
+
+    abstract HttpRequest request(String baseUrl, ItemIds ids);
+
+    static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    static HttpRequest post(String url, Map<String, String> form) {
+        String body = form.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    // item_name 은 varchar(10)
+    static Map<String, String> randomItemForm(String prefix) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Map.of(
+                "itemName", prefix + random.nextInt(100_000),
+                "price", String.valueOf(random.nextInt(1, 100) * 1000),
+                "quantity", String.valueOf(random.nextInt(0, 100)));
+    }
+}
@@ -0,0 +1,27 @@
+package hello.itemservice.loadtest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 미리 등록해 둔 상품 id (상세 조회, 수정 대상)
+ */
+public class ItemIds {
+
+    private final long[] ids;
+
+    public ItemIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("no seeded items");
+        }
+        this.ids = ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    public long random() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    public int size() {
+        return ids.length;
+    }
+}
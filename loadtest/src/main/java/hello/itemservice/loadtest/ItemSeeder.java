@@ -0,0 +1,73 @@
+package hello.itemservice.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 측정 전에 상품을 등록한다. (POST /items/add)
+ * 등록 후 redirect 주소(/items/{itemId})에서 id 를 꺼내 상세 조회, 수정 대상으로 사용한다.
+ */
+public class ItemSeeder {
+
+    private static final Pattern ITEM_ID = Pattern.compile("/items/(\\d+)");
+
+    private final HttpClient client;
+    private final String baseUrl;
+
+    public ItemSeeder(HttpClient client, String baseUrl) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+    }
+
+    public ItemIds seed(int count, int concurrency) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, concurrency));
+        try {
+            List<CompletableFuture<Long>> futures = new ArrayList<>(count);
+            for (int i = 1; i <= count; i++) {
+                int n = i;
+                futures.add(CompletableFuture.supplyAsync(() -> add(n), executor));
+            }
+            return new ItemIds(futures.stream()
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.toList()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // 상품명은 item1, item2 ... (목록 조회가 앞부분으로 검색한다)
+    private long add(int n) {
+        Map<String, String> form = Map.of(
+                "itemName", "item" + n,
+                "price", String.valueOf((n % 100 + 1) * 1000),
+                "quantity", String.valueOf(n % 50));
+
+        try {
+            HttpResponse<Void> response = client.send(Endpoint.post(baseUrl + "/items/add", form),
+                    HttpResponse.BodyHandlers.discarding());
+            String location = response.headers().firstValue("Location")
+                    .orElseThrow(() -> new IllegalStateException("no redirect, status=" + response.statusCode()));
+
+            Matcher matcher = ITEM_ID.matcher(location);
+            if (!matcher.find()) {
+                throw new IllegalStateException("unexpected redirect: " + location);
+            }
+            return Long.parseLong(matcher.group(1));
+        } catch (IOException e) {
+            throw new IllegalStateException("seed failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("seed interrupted", e);
+        }
+    }
+}
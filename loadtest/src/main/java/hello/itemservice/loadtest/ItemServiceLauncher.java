@@ -0,0 +1,42 @@
+package hello.itemservice.loadtest;
+
+import hello.itemservice.ItemServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 측정할 엔진으로 애플리케이션을 띄운다. (loadtest 프로필, 임베디드 H2, 임의 포트)
+ *
+ * 엔진마다 H2 메모리 DB 를 따로 사용하므로 이전 엔진의 데이터가 남지 않는다.
+ * 단, memory 엔진의 저장소는 static 이라 같은 JVM 에서 두 번 측정하면 데이터가 이어진다.
+ */
+public class ItemServiceLauncher implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+
+    public ItemServiceLauncher(String engine, List<String> appArgs) {
+        List<String> args = new ArrayList<>();
+        args.add("--spring.profiles.active=loadtest");
+        args.add("--item.repository.engine=" + engine);
+        args.add("--server.port=0");
+        args.add("--spring.datasource.url=jdbc:h2:mem:loadtest-" + engine);
+        args.addAll(appArgs);
+
+        this.context = new SpringApplicationBuilder(ItemServiceApplication.class)
+                .run(args.toArray(new String[0]));
+    }
+
+    public String baseUrl() {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        return "http://localhost:" + port;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
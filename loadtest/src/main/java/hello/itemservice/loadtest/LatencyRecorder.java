@@ -0,0 +1,121 @@
+package hello.itemservice.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 엔드포인트별 지연 시간 기록 (마이크로초, HdrHistogram)
+ *
+ * - corrected : coordinated omission 을 보정한 지연 시간. 이 값으로 백분위수를 보고한다.
+ * - raw       : 요청을 실제로 보낸 시점부터 응답까지 (서비스 시간)
+ *
+ * 서버가 멈추면 부하 생성기도 요청을 덜 보내서 느린 구간의 샘플이 빠진다. (coordinated omission)
+ * open 모델은 요청을 보내기로 한 시각부터 재므로 raw 와 corrected 가 다르다.
+ * closed 모델은 HdrHistogram 의 expected interval 보정으로 빠진 샘플을 채운다.
+ */
+public class LatencyRecorder {
+
+    private final Map<Endpoint, EndpointRecorder> recorders = new EnumMap<>(Endpoint.class);
+
+    public LatencyRecorder() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new EndpointRecorder());
+        }
+    }
+
+    /**
+     * open 모델 - intendedNanos 는 요청을 보내기로 한 시각
+     */
+    public void recordFromIntended(Endpoint endpoint, long intendedNanos, long sentNanos, long completedNanos, boolean success) {
+        EndpointRecorder recorder = recorders.get(endpoint);
+        recorder.corrected.recordValue(toMicros(completedNanos - intendedNanos));
+        recorder.raw.recordValue(toMicros(completedNanos - sentNanos));
+        recorder.count(success);
+    }
+
+    /**
+     * closed 모델 - expectedIntervalNanos 보다 긴 응답은 그동안 보내지 못한 요청의 샘플을 채워 넣는다.
+     * expectedIntervalNanos 가 0 이면 보정하지 않는다. (워밍업)
+     */
+    public void recordWithExpectedInterval(Endpoint endpoint, long latencyNanos, long expectedIntervalNanos, boolean success) {
+        EndpointRecorder recorder = recorders.get(endpoint);
+        long latency = toMicros(latencyNanos);
+        long expectedInterval = toMicros(expectedIntervalNanos);
+        if (expectedInterval > 0) {
+            recorder.corrected.recordValueWithExpectedInterval(latency, expectedInterval);
+        } else {
+            recorder.corrected.recordValue(latency);
+        }
+        recorder.raw.recordValue(latency);
+        recorder.count(success);
+    }
+
+    /**
+     * 지금까지 기록한 값을 꺼내고 초기화한다.
+     */
+    public Map<Endpoint, EndpointResult> drain() {
+        Map<Endpoint, EndpointResult> results = new EnumMap<>(Endpoint.class);
+        recorders.forEach((endpoint, recorder) -> results.put(endpoint, recorder.drain()));
+        return results;
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    private static class EndpointRecorder {
+
+        private final Recorder corrected = new Recorder(3);
+        private final Recorder raw = new Recorder(3);
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        void count(boolean success) {
+            requests.increment();
+            if (!success) {
+                errors.increment();
+            }
+        }
+
+        EndpointResult drain() {
+            return new EndpointResult(corrected.getIntervalHistogram(), raw.getIntervalHistogram(),
+                    requests.sumThenReset(), errors.sumThenReset());
+        }
+    }
+
+    public static class EndpointResult {
+
+        private final Histogram corrected;
+        private final Histogram raw;
+        private final long requests;
+        private final long errors;
+
+        EndpointResult(Histogram corrected, Histogram raw, long requests, long errors) {
+            this.corrected = corrected;
+            this.raw = raw;
+            this.requests = requests;
+            this.errors = errors;
+        }
+
+        public Histogram getCorrected() {
+            return corrected;
+        }
+
+        public Histogram getRaw() {
+            return raw;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package hello.itemservice.loadtest;
+
+import hello.itemservice.loadtest.LatencyRecorder.EndpointResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ItemController HTTP 부하 테스트
+ *
+ * 엔진마다 애플리케이션을 띄우고(임베디드 H2), 상품을 등록한 뒤 워밍업, 측정 순서로 실행한다.
+ * ./gradlew :loadtest:run --args="--engines=memory,jdbc-v3,mybatis,jpa,v2 --model=open --rate=1000"
+ *
+ * 부하 생성기와 애플리케이션이 같은 JVM 에서 실행되므로 CPU 를 나눠 쓴다.
+ * 절대값보다 엔진 사이의 비교에 사용하고, 정확한 값은 --target 으로 따로 띄운 애플리케이션을 측정한다.
+ */
+@Slf4j
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        LoadTestReport report = new LoadTestReport(System.out, options.getOutputDir());
+
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()), runnable -> {
+            Thread thread = new Thread(runnable, "loadtest-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(httpExecutor)
+                .build();
+
+        try {
+            if (options.getTarget() != null) {
+                run("external", options.getTarget(), client, options, report);
+                return;
+            }
+
+            for (String engine : options.getEngines()) {
+                try (ItemServiceLauncher launcher = new ItemServiceLauncher(engine, options.getAppArgs())) {
+                    run(engine, launcher.baseUrl(), client, options, report);
+                }
+            }
+        } finally {
+            httpExecutor.shutdownNow();
+        }
+    }
+
+    private static void run(String engine, String baseUrl, HttpClient client, LoadTestOptions options, LoadTestReport report)
+            throws InterruptedException {
+        log.info("engine={}, baseUrl={}, {}", engine, baseUrl, options.describe());
+
+        ItemIds ids = new ItemSeeder(client, baseUrl).seed(options.getItems(), options.getConcurrency());
+        log.info("seeded items={}", ids.size());
+
+        Workload workload = workload(client, baseUrl, ids, options, 0);
+
+        // 워밍업 (JIT, 커넥션 풀, 캐시) - 결과는 버린다.
+        LatencyRecorder recorder = new LatencyRecorder();
+        workload.run(options.getWarmup(), recorder);
+        Map<Endpoint, EndpointResult> warmup = recorder.drain();
+
+        if (!options.isOpenModel()) {
+            // closed 모델은 워밍업 중 요청 한 번의 주기(응답 시간 중앙값 + think time)를 기준으로 보정한다.
+            long expectedIntervalNanos = medianMicros(warmup) * 1000 + options.getThinkTime().toNanos();
+            workload = workload(client, baseUrl, ids, options, expectedIntervalNanos);
+            log.info("closed model expected interval={}us", expectedIntervalNanos / 1000);
+        }
+
+        long start = System.nanoTime();
+        workload.run(options.getDuration(), recorder);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        report.print(engine, options.describe(), elapsed, recorder.drain());
+    }
+
+    private static Workload workload(HttpClient client, String baseUrl, ItemIds ids, LoadTestOptions options, long expectedIntervalNanos) {
+        if (options.isOpenModel()) {
+            return new OpenWorkload(client, baseUrl, ids, options.getMix(), options.getRate(), options.getMaxInFlight());
+        }
+        return new ClosedWorkload(client, baseUrl, ids, options.getMix(),
+                options.getConcurrency(), options.getThinkTime(), expectedIntervalNanos);
+    }
+
+    private static long medianMicros(Map<Endpoint, EndpointResult> results) {
+        return results.values().stream()
+                .map(EndpointResult::getRaw)
+                .reduce((left, right) -> {
+                    left.add(right);
+                    return left;
+                })
+                .map(histogram -> histogram.getValueAtPercentile(50))
+                .orElse(0L);
+    }
+}
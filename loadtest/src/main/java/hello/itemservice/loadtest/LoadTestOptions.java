@@ -0,0 +1,104 @@
+package hello.itemservice.loadtest;
+
+import lombok.Getter;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 실행 옵션 (--name=value)
+ *
+ * --engines=v2,jdbc-v3       엔진마다 애플리케이션을 띄워서 차례로 측정한다. (기본값 v2)
+ * --target=http://host:8080  이미 떠 있는 애플리케이션을 측정한다. (engines 는 무시)
+ * --model=closed|open        부하 모델 (기본값 closed)
+ * --concurrency=32           closed - 가상 사용자 수
+ * --think-time=0ms           closed - 응답을 받고 다음 요청까지 대기
+ * --rate=500                 open - 초당 요청 수
+ * --max-in-flight=512        open - 동시에 처리 중인 요청 수 제한
+ * --warmup=10s --duration=30s
+ * --items=1000               측정 전에 등록할 상품 수
+ * --mix=list:60,detail:30,add:5,edit:5
+ * --output-dir=build/loadtest  엔드포인트별 백분위수 분포(.hgrm)를 저장한다.
+ * --app.name=value           띄우는 애플리케이션에 --name=value 로 전달한다. ex) --app.item.single-flight.enabled=true
+ */
+@Getter
+public class LoadTestOptions {
+
+    private static final String APP_PREFIX = "app.";
+
+    private final List<String> engines;
+    private final String target;
+    private final String model;
+    private final int concurrency;
+    private final Duration thinkTime;
+    private final double rate;
+    private final int maxInFlight;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int items;
+    private final WorkloadMix mix;
+    private final Path outputDir;
+    private final List<String> appArgs;
+
+    private LoadTestOptions(Map<String, String> options, List<String> appArgs) {
+        this.engines = Arrays.stream(options.getOrDefault("engines", "v2").split(","))
+                .map(String::trim)
+                .filter(engine -> !engine.isEmpty())
+                .collect(Collectors.toList());
+        this.target = options.get("target");
+        this.model = options.getOrDefault("model", "closed");
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "32"));
+        this.thinkTime = DurationStyle.detectAndParse(options.getOrDefault("think-time", "0ms"));
+        this.rate = Double.parseDouble(options.getOrDefault("rate", "500"));
+        this.maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "512"));
+        this.warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s"));
+        this.duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "30s"));
+        this.items = Integer.parseInt(options.getOrDefault("items", "1000"));
+        this.mix = WorkloadMix.parse(options.getOrDefault("mix", "list:60,detail:30,add:5,edit:5"));
+        this.outputDir = Path.of(options.getOrDefault("output-dir", "build/loadtest"));
+        this.appArgs = appArgs;
+
+        if (!model.equals("closed") && !model.equals("open")) {
+            throw new IllegalArgumentException("model must be closed or open: " + model);
+        }
+    }
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        List<String> appArgs = new ArrayList<>();
+
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("expected --name=value: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+
+            if (name.startsWith(APP_PREFIX)) {
+                appArgs.add("--" + name.substring(APP_PREFIX.length()) + "=" + value);
+            } else {
+                options.put(name, value);
+            }
+        }
+        return new LoadTestOptions(options, appArgs);
+    }
+
+    public boolean isOpenModel() {
+        return model.equals("open");
+    }
+
+    public String describe() {
+        String load = isOpenModel()
+                ? "rate=" + rate + "/s, maxInFlight=" + maxInFlight
+                : "concurrency=" + concurrency + ", thinkTime=" + thinkTime.toMillis() + "ms";
+        return "model=" + model + ", " + load + ", warmup=" + warmup.toSeconds() + "s, duration=" + duration.toSeconds()
+                + "s, items=" + items + ", mix=" + mix;
+    }
+}
@@ -0,0 +1,94 @@
+package hello.itemservice.loadtest;
+
+import hello.itemservice.loadtest.LatencyRecorder.EndpointResult;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 엔진별, 엔드포인트별 처리량과 지연 시간 백분위수 (밀리초)
+ *
+ * p50, p99, p999, max 는 coordinated omission 을 보정한 값이고, raw p99 는 보정하지 않은 값이다.
+ * 둘의 차이가 크면 서버가 멈춘 구간이 있었다는 뜻이다.
+ */
+public class LoadTestReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final String ROW = "%-8s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %11.2f%n";
+
+    private final PrintStream out;
+    private final Path outputDir;
+
+    public LoadTestReport(PrintStream out, Path outputDir) {
+        this.out = out;
+        this.outputDir = outputDir;
+    }
+
+    public void print(String engine, String description, Duration elapsed, Map<Endpoint, EndpointResult> results) {
+        double seconds = elapsed.toNanos() / 1e9;
+
+        out.println();
+        out.printf("engine=%s, %s%n", engine, description);
+        out.printf("%-8s %10s %8s %10s %9s %9s %9s %9s %11s%n",
+                "endpoint", "requests", "errors", "req/s", "p50", "p99", "p999", "max", "raw p99");
+
+        Histogram totalCorrected = null;
+        Histogram totalRaw = null;
+        long totalRequests = 0;
+        long totalErrors = 0;
+
+        for (Map.Entry<Endpoint, EndpointResult> entry : results.entrySet()) {
+            EndpointResult result = entry.getValue();
+            if (result.getRequests() == 0) {
+                continue;
+            }
+            row(entry.getKey().name(), result.getRequests(), result.getErrors(), seconds, result.getCorrected(), result.getRaw());
+            save(engine, entry.getKey().name(), result.getCorrected());
+
+            if (totalCorrected == null) {
+                totalCorrected = result.getCorrected().copy();
+                totalRaw = result.getRaw().copy();
+            } else {
+                totalCorrected.add(result.getCorrected());
+                totalRaw.add(result.getRaw());
+            }
+            totalRequests += result.getRequests();
+            totalErrors += result.getErrors();
+        }
+
+        if (totalCorrected != null) {
+            row("TOTAL", totalRequests, totalErrors, seconds, totalCorrected, totalRaw);
+        }
+    }
+
+    private void row(String name, long requests, long errors, double seconds, Histogram corrected, Histogram raw) {
+        out.printf(ROW, name, requests, errors, requests / seconds,
+                millis(corrected.getValueAtPercentile(50)),
+                millis(corrected.getValueAtPercentile(99)),
+                millis(corrected.getValueAtPercentile(99.9)),
+                millis(corrected.getMaxValue()),
+                millis(raw.getValueAtPercentile(99)));
+    }
+
+    // HdrHistogram 백분위수 분포 파일 (HistogramLogAnalyzer, hdrhistogram.github.io/HdrHistogram/plotFiles.html 에서 그래프로 볼 수 있다)
+    private void save(String engine, String endpoint, Histogram histogram) {
+        try {
+            Files.createDirectories(outputDir);
+            Path file = outputDir.resolve(engine + "-" + endpoint.toLowerCase() + ".hgrm");
+            try (PrintStream stream = new PrintStream(Files.newOutputStream(file))) {
+                histogram.outputPercentileDistribution(stream, MICROS_PER_MILLI);
+            }
+        } catch (IOException e) {
+            out.printf("failed to write histogram, engine=%s, endpoint=%s: %s%n", engine, endpoint, e.getMessage());
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / MICROS_PER_MILLI;
+    }
+}
@@ -0,0 +1,73 @@
+package hello.itemservice.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * open 모델 - 요청을 rate(초당) 간격으로 정해진 시각에 보낸다.
+ *
+ * 지연 시간은 실제로 보낸 시각이 아니라 보내기로 한 시각부터 잰다. (coordinated omission 보정)
+ * 동시에 처리 중인 요청은 maxInFlight 개로 제한한다. 제한에 걸려 늦게 보낸 요청도 보내기로 한 시각부터 재므로
+ * 대기한 시간이 지연 시간에 포함된다.
+ */
+public class OpenWorkload implements Workload {
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final ItemIds ids;
+    private final WorkloadMix mix;
+    private final double rate;
+    private final int maxInFlight;
+
+    public OpenWorkload(HttpClient client, String baseUrl, ItemIds ids, WorkloadMix mix, double rate, int maxInFlight) {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate must be positive: " + rate);
+        }
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.ids = ids;
+        this.mix = mix;
+        this.rate = rate;
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public void run(Duration duration, LatencyRecorder recorder) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended >= end) {
+                break;
+            }
+
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+
+            Endpoint endpoint = mix.next();
+            inFlight.acquire();
+            long sent = System.nanoTime();
+            client.sendAsync(endpoint.request(baseUrl, ids), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        boolean success = e == null && response.statusCode() < 400;
+                        recorder.recordFromIntended(endpoint, intended, sent, System.nanoTime(), success);
+                        inFlight.release();
+                    });
+        }
+
+        // 보낸 요청이 모두 끝날 때까지 기다린다.
+        if (!inFlight.tryAcquire(maxInFlight, 1, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("requests did not complete in time");
+        }
+    }
+}
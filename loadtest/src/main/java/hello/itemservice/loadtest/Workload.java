@@ -0,0 +1,14 @@
+package hello.itemservice.loadtest;
+
+import java.time.Duration;
+
+/**
+ * 부하 모델
+ *
+ * - closed : 고정된 수의 가상 사용자가 응답을 받은 다음 요청을 보낸다. (서버가 느려지면 부하도 줄어든다)
+ * - open   : 응답과 상관없이 정해진 속도(rate)로 요청이 도착한다. (서버가 느려지면 요청이 쌓인다)
+ */
+public interface Workload {
+
+    void run(Duration duration, LatencyRecorder recorder) throws InterruptedException;
+}
@@ -9,3 +9,13 @@ create table item
     quantity  integer,
     primary key (id)
 );
+
+-- 검색용 인덱스
+-- 목록 조회는 id, item_name, price, quantity 만 읽는다. 보조 인덱스에는 기본 키(id)가 함께 저장되므로
+-- 나머지 컬럼을 인덱스 뒤쪽에 붙여두면 테이블을 읽지 않고 인덱스만으로 결과를 만들 수 있다. (covering index)
+-- 상품명 검색 (ItemMatchMode EXACT, PREFIX 는 이 인덱스를 범위 검색으로 사용한다)
+create index idx_item_name on item (item_name, price, quantity);
+-- 가격 범위 검색 (minPrice, maxPrice)
+create index idx_item_price on item (price, quantity, item_name);
+-- 재고 수량 검색 (minQuantity)
+create index idx_item_quantity on item (quantity, price, item_name);
@@ -1,8 +1,11 @@
 package hello.itemservice;
 
-import hello.itemservice.config.V2Config;
+import hello.itemservice.config.*;
 import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemRepositoryDecoratingPostProcessor;
+import hello.itemservice.repository.ItemRepositoryDecorator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
@@ -10,16 +13,33 @@ import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Profile;
 
 
+/**
+ * 사용할 리포지토리 구현은 item.repository.engine 속성으로 선택한다. (기본값 v2)
+ * memory, memory-columnar, memory-durable, sharded, jdbc-v1, jdbc-v2, jdbc-v3, mybatis, jpa, spring-data-jpa, querydsl, v2
+ *
+ * 설정 클래스는 모두 import 하지만 @ConditionalOnProperty 로 선택한 엔진의 설정만 등록된다.
+ * 사용하지 않는 자동 구성은 ItemRepositoryEngineEnvironmentPostProcessor 가 제외한다.
+ *
+ * item.events.enabled=true 이면 상품 변경 이벤트를 링 버퍼로 발행한다. (ItemEventConfig)
+ * item.single-flight.enabled=true 이면 동시에 들어온 같은 조회를 하나로 합친다. (SingleFlightConfig)
+ * item.batching.enabled=true 이면 findById 를 모아서 in 쿼리로 조회한다. (BatchingConfig)
+ * item.db-stats.enabled=true 이면 요청별 DB 작업을 Server-Timing 헤더로 남긴다. (DbStatsConfig)
+ * item.limiter.enabled=true 이면 조회, 변경의 동시 실행 수를 제한하고 넘치는 요청은 503 으로 거절한다. (ConcurrencyLimitConfig)
+ * item.deadline.enabled=true 이면 요청 마감 시각을 SQL statement timeout 으로 전달한다. (DeadlineConfig)
+ * item.warmup.enabled=true 이면 시작할 때 워밍업을 마친 뒤에 readiness 가 ACCEPTING_TRAFFIC 이 된다. (WarmupConfig)
+ * datagen 프로필이면 시작할 때 seed 로 대량의 상품 데이터를 만든다. (DataGenConfig)
+ * item.resource-usage.enabled=true 이면 엔드포인트별, 엔진 메서드별 메모리 할당량과 CPU 시간을 누적한다. (ResourceUsageConfig)
+ * item.jfr.enabled=true 이면 ItemRepository, ItemService 호출을 JFR 이벤트로 남긴다. (JfrConfig)
+ * item.suggest.enabled=true 이면 메모리 색인으로 상품명 자동 완성을 제공한다. item.events.enabled=true 필요 (SuggestConfig)
+ */
 @Slf4j
-//@Import(MemoryConfig.class)
-//@Import(JdbcTemplateV1Config.class)
-//@Import(JdbcTemplateV2Config.class)
-//@Import(JdbcTemplateV3Config.class)
-//@Import(MyBatisConfig.class)
-//@Import(JpaConfig.class)
-//@Import(SpringDataJpaConfig.class)
-//@Import(QuerydslConfig.class)
-@Import(V2Config.class)
+@Import({MemoryConfig.class, ColumnarMemoryConfig.class, DurableMemoryConfig.class,
+		JdbcTemplateV1Config.class, JdbcTemplateV2Config.class, JdbcTemplateV3Config.class,
+		ShardingConfig.class, MyBatisConfig.class, JpaConfig.class, SpringDataJpaConfig.class, QuerydslConfig.class, V2Config.class,
+		ItemEventConfig.class, SingleFlightConfig.class, BatchingConfig.class,
+		DbStatsConfig.class, ConcurrencyLimitConfig.class, DeadlineConfig.class,
+		WarmupConfig.class, DataGenConfig.class, ResourceUsageConfig.class, JfrConfig.class,
+		SuggestConfig.class})
 @SpringBootApplication(scanBasePackages = "hello.itemservice.web")
 public class ItemServiceApplication {
 
@@ -27,6 +47,13 @@ public class ItemServiceApplication {
 		SpringApplication.run(ItemServiceApplication.class, args);
 	}
 
+	// JfrConfig 가 등록한 ItemRepositoryDecorator 로 ItemRepository 를 감싼다.
+	// BeanPostProcessor 는 다른 빈보다 먼저 만들어지므로 static 으로 등록한다. (데코레이터는 감쌀 때 가져온다)
+	@Bean
+	public static ItemRepositoryDecoratingPostProcessor itemRepositoryDecoratingPostProcessor(ObjectProvider<ItemRepositoryDecorator> decorators) {
+		return new ItemRepositoryDecoratingPostProcessor(decorators);
+	}
+
 	@Bean
 	@Profile("local")
 	public TestDataInit testDataInit(ItemRepository itemRepository) {
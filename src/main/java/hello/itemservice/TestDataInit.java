@@ -6,6 +6,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -15,7 +17,9 @@ public class TestDataInit {
 
     /**
      * 확인용 초기 데이터 추가
+     * 같은 이벤트로 상품을 읽는 리스너(ItemNameIndexLoader)보다 먼저 넣는다.
      */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
     @EventListener(ApplicationReadyEvent.class)
     public void initData() {
         log.info("test data init");
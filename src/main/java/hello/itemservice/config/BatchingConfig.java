@@ -0,0 +1,80 @@
+package hello.itemservice.config;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.service.BatchingItemService;
+import hello.itemservice.service.ItemService;
+import hello.itemservice.service.ItemServiceDecoratingPostProcessor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * findById 를 짧은 시간 동안 모아서 in 쿼리 한 번으로 조회한다. (item.batching.enabled=true 일 때만)
+ *
+ * single-flight 와 함께 사용하면 같은 id 는 먼저 하나로 합쳐진 다음 묶음에 들어간다.
+ * JPA 엔진(EntityManagerFactory 가 있을 때)에서는 2차 캐시에 있는 id 는 묶지 않고 findById 로 바로 조회한다.
+ * (in 쿼리는 2차 캐시를 읽지 않으므로 캐시에 없는 id 만 묶는다)
+ */
+@ConditionalOnProperty(name = "item.batching.enabled", havingValue = "true")
+@Configuration
+public class BatchingConfig {
+
+    // BeanPostProcessor 는 다른 빈보다 먼저 만들어지므로 static 으로 등록한다.
+    // 이 시점에는 @Value 필드가 주입되지 않으므로 Environment 에서 직접 읽는다.
+    @Bean
+    public static ItemServiceDecoratingPostProcessor batchingPostProcessor(Environment environment,
+                                                                           ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        Duration window = environment.getProperty("item.batching.window", Duration.class, Duration.ofMillis(2));
+        int maxBatchSize = environment.getProperty("item.batching.max-batch-size", Integer.class, 100);
+        int loaders = environment.getProperty("item.batching.loaders", Integer.class, 4);
+
+        return new BatchingPostProcessor(itemService -> new BatchingItemService(itemService, window, maxBatchSize, loaders,
+                entityCacheProbe(entityManagerFactory.getIfAvailable())));
+    }
+
+    /**
+     * 감싼 뒤에는 바깥 데코레이터가 ItemService 빈이 되므로 컨테이너가 BatchingItemService 의 close 를 호출하지 않는다.
+     * 컨텍스트가 닫힐 때 직접 닫는다. (모으는 스레드, 조회 스레드 종료)
+     */
+    static class BatchingPostProcessor extends ItemServiceDecoratingPostProcessor implements DisposableBean {
+
+        private final List<BatchingItemService> services;
+
+        BatchingPostProcessor(Function<ItemService, BatchingItemService> factory) {
+            this(factory, new CopyOnWriteArrayList<>());
+        }
+
+        private BatchingPostProcessor(Function<ItemService, BatchingItemService> factory, List<BatchingItemService> services) {
+            super(BATCHING_ORDER, itemService -> {
+                BatchingItemService service = factory.apply(itemService);
+                services.add(service);
+                return service;
+            });
+            this.services = services;
+        }
+
+        @Override
+        public void destroy() {
+            services.forEach(BatchingItemService::close);
+        }
+    }
+
+    private static Predicate<Long> entityCacheProbe(EntityManagerFactory entityManagerFactory) {
+        if (entityManagerFactory == null) {
+            return id -> false;
+        }
+        Cache cache = entityManagerFactory.getCache();
+        return id -> cache.contains(Item.class, id);
+    }
+}
@@ -0,0 +1,42 @@
+package hello.itemservice.config;
+
+import hello.itemservice.limit.AdaptiveConcurrencyLimiter;
+import hello.itemservice.service.ConcurrencyLimitedItemService;
+import hello.itemservice.service.ItemServiceDecoratingPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * 조회(read), 변경(write) 동시 실행 수 제한 (item.limiter.enabled=true 일 때만)
+ *
+ * 제한을 넘는 요청은 기다리지 않고 503 으로 응답한다. (web.ConcurrencyLimitExceptionHandler)
+ * 트랜잭션 프록시 바로 바깥에 위치하므로 실제 DB 작업 시간으로 제한을 조절한다.
+ */
+@ConditionalOnProperty(name = "item.limiter.enabled", havingValue = "true")
+@Configuration
+public class ConcurrencyLimitConfig {
+
+    // BeanPostProcessor 는 다른 빈보다 먼저 만들어지므로 static 으로 등록한다.
+    // 이 시점에는 @Value 필드가 주입되지 않으므로 Environment 에서 직접 읽는다.
+    @Bean
+    public static ItemServiceDecoratingPostProcessor concurrencyLimitPostProcessor(Environment environment) {
+        return new ItemServiceDecoratingPostProcessor(ItemServiceDecoratingPostProcessor.CONCURRENCY_LIMIT_ORDER,
+                itemService -> new ConcurrencyLimitedItemService(itemService,
+                        limiter(environment, "read", Duration.ofMillis(50)),
+                        limiter(environment, "write", Duration.ofMillis(100))));
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(Environment environment, String name, Duration defaultLatencyThreshold) {
+        String prefix = "item.limiter." + name + ".";
+        return new AdaptiveConcurrencyLimiter(name,
+                environment.getProperty(prefix + "initial-limit", Integer.class, 20),
+                environment.getProperty(prefix + "min-limit", Integer.class, 4),
+                environment.getProperty(prefix + "max-limit", Integer.class, 200),
+                environment.getProperty(prefix + "latency-threshold", Duration.class, defaultLatencyThreshold),
+                environment.getProperty("item.limiter.backoff-ratio", Double.class, 0.9));
+    }
+}
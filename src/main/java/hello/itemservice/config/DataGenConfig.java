@@ -0,0 +1,55 @@
+package hello.itemservice.config;
+
+import hello.itemservice.datagen.ItemDataGenerationRunner;
+import hello.itemservice.datagen.ItemDataGenerator;
+import hello.itemservice.datagen.ItemDataLoader;
+import hello.itemservice.repository.ItemRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 대량 상품 데이터 생성 (datagen 프로필)
+ *
+ * 애플리케이션과 함께 띄우기
+ *   --spring.profiles.active=local,datagen --item.datagen.count=1000000
+ * 데이터만 만들고 종료 (CLI)
+ *   ./gradlew bootRun --args='--spring.profiles.active=datagen --spring.main.web-application-type=none --item.datagen.exit=true'
+ */
+@Profile("datagen")
+@Configuration
+public class DataGenConfig {
+
+    @Value("${item.datagen.count:1000000}")
+    private long count;
+
+    // 같은 seed 면 같은 상품들이 만들어진다.
+    @Value("${item.datagen.seed:42}")
+    private long seed;
+
+    @Value("${item.datagen.batch-size:1000}")
+    private int batchSize;
+
+    // 0 이면 CPU 수
+    @Value("${item.datagen.parallelism:0}")
+    private int parallelism;
+
+    @Value("${item.datagen.exit:false}")
+    private boolean exit;
+
+    @Bean
+    public ItemDataGenerationRunner itemDataGenerationRunner(ApplicationContext context, ItemRepository itemRepository,
+                                                             ObjectProvider<PlatformTransactionManager> transactionManager) {
+        PlatformTransactionManager manager = transactionManager.getIfUnique();
+        TransactionTemplate transactionTemplate = manager == null ? null : new TransactionTemplate(manager);
+        ItemDataLoader loader = new ItemDataLoader(itemRepository, new ItemDataGenerator(seed), transactionTemplate);
+
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ItemDataGenerationRunner(context, loader, count, batchSize, threads, exit);
+    }
+}
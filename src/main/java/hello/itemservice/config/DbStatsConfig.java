@@ -0,0 +1,49 @@
+package hello.itemservice.config;
+
+import hello.itemservice.monitoring.DbStatsFilter;
+import hello.itemservice.monitoring.EntityLoadCountingInterceptor;
+import hello.itemservice.monitoring.StatsDataSourcePostProcessor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 요청별 DB 작업 집계 (item.db-stats.enabled=true 일 때만)
+ *
+ * SQL 실행 수, DB 시간, 읽은 행 수, JPA 엔티티 로딩 수를 Server-Timing 헤더와 접근 로그 필드(%{itemservice.db}r)로 남긴다.
+ * 샤드 DataSource 는 빈이 아니므로 집계되지 않는다.
+ */
+@ConditionalOnProperty(name = "item.db-stats.enabled", havingValue = "true")
+@Configuration
+public class DbStatsConfig {
+
+    // 요청 하나의 SQL 실행 수가 이 값을 넘으면 경고 로그 (0 이면 사용 안함)
+    @Value("${item.db-stats.statement-budget:0}")
+    private int statementBudget;
+
+    // BeanPostProcessor 는 다른 빈보다 먼저 만들어지므로 static 으로 등록한다.
+    @Bean
+    public static StatsDataSourcePostProcessor statsDataSourcePostProcessor() {
+        return new StatsDataSourcePostProcessor();
+    }
+
+    // JPA 엔진에서만 사용된다. (HibernateJpaAutoConfiguration 이 읽는다)
+    @Bean
+    public HibernatePropertiesCustomizer entityLoadCountingCustomizer() {
+        EntityLoadCountingInterceptor interceptor = new EntityLoadCountingInterceptor();
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.INTERCEPTOR, interceptor);
+    }
+
+    @Bean
+    public FilterRegistrationBean<DbStatsFilter> dbStatsFilter() {
+        FilterRegistrationBean<DbStatsFilter> registration = new FilterRegistrationBean<>(new DbStatsFilter(statementBudget));
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,57 @@
+package hello.itemservice.config;
+
+import hello.itemservice.deadline.DeadlineDataSourcePostProcessor;
+import hello.itemservice.deadline.DeadlineInterceptor;
+import hello.itemservice.service.DeadlineItemService;
+import hello.itemservice.service.ItemServiceDecoratingPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 요청 마감 시각을 SQL statement timeout 까지 전달한다. (item.deadline.enabled=true 일 때만)
+ *
+ * 마감은 ItemController 메서드별 설정(item.deadline.timeouts.메서드이름)과 X-Request-Timeout 헤더 중 짧은 쪽이다.
+ * 마감이 지난 요청은 504 로 응답한다. (web.DeadlineExceptionHandler)
+ * 다른 스레드에서 실행되는 쿼리(샤드 scatter, findById 묶음 조회)에는 전달되지 않는다.
+ */
+@ConditionalOnProperty(name = "item.deadline.enabled", havingValue = "true")
+@Configuration
+public class DeadlineConfig implements WebMvcConfigurer {
+
+    private final Environment environment;
+
+    public DeadlineConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        Map<String, Duration> timeouts = Binder.get(environment)
+                .bind("item.deadline.timeouts", Bindable.mapOf(String.class, Duration.class))
+                .orElse(Map.of());
+        Duration defaultTimeout = environment.getProperty("item.deadline.default-timeout", Duration.class);
+
+        registry.addInterceptor(new DeadlineInterceptor(timeouts, defaultTimeout))
+                .addPathPatterns("/items/**");
+    }
+
+    // BeanPostProcessor 는 다른 빈보다 먼저 만들어지므로 static 으로 등록한다.
+    @Bean
+    public static ItemServiceDecoratingPostProcessor deadlinePostProcessor() {
+        return new ItemServiceDecoratingPostProcessor(ItemServiceDecoratingPostProcessor.DEADLINE_ORDER, DeadlineItemService::new);
+    }
+
+    @Bean
+    public static DeadlineDataSourcePostProcessor deadlineDataSourcePostProcessor() {
+        return new DeadlineDataSourcePostProcessor();
+    }
+}
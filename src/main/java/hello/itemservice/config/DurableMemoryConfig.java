@@ -0,0 +1,49 @@
+package hello.itemservice.config;
+
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.memory.DurableMemoryItemRepository;
+import hello.itemservice.repository.memory.FsyncPolicy;
+import hello.itemservice.service.ItemService;
+import hello.itemservice.service.ItemServiceV1;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConditionalOnProperty(name = "item.repository.engine", havingValue = "memory-durable")
+@Configuration
+public class DurableMemoryConfig {
+
+    @Value("${item.durable.directory:./data/items}")
+    private Path directory;
+
+    @Value("${item.durable.fsync:batch}")
+    private FsyncPolicy fsyncPolicy;
+
+    @Value("${item.durable.fsync-batch-size:64}")
+    private int fsyncBatchSize;
+
+    @Value("${item.durable.fsync-interval:100ms}")
+    private Duration fsyncInterval;
+
+    @Value("${item.durable.snapshot-interval:1m}")
+    private Duration snapshotInterval;
+
+    @Value("${item.durable.compact-threshold-bytes:67108864}")
+    private long compactThresholdBytes;
+
+    @Bean
+    public ItemService itemService() {
+        return new ItemServiceV1(itemRepository());
+    }
+
+    @Bean(destroyMethod = "close")
+    public ItemRepository itemRepository() {
+        return new DurableMemoryItemRepository(directory, fsyncPolicy, fsyncBatchSize,
+                fsyncInterval, snapshotInterval, compactThresholdBytes);
+    }
+
+}
@@ -0,0 +1,50 @@
+package hello.itemservice.config;
+
+import hello.itemservice.event.EventPublishingItemService;
+import hello.itemservice.event.ItemChangeAuditSubscriber;
+import hello.itemservice.event.ItemChangeRingBuffer;
+import hello.itemservice.event.ItemChangeSubscriber;
+import hello.itemservice.service.ItemServiceDecoratingPostProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * 상품 변경 이벤트 (item.events.enabled=true 일 때만)
+ *
+ * ItemChangeSubscriber 빈은 모두 링 버퍼에 구독자로 등록된다.
+ */
+@ConditionalOnProperty(name = "item.events.enabled", havingValue = "true")
+@Configuration
+public class ItemEventConfig {
+
+    @Value("${item.events.buffer-size:1024}")
+    private int bufferSize;
+
+    @Value("${item.events.max-batch-size:256}")
+    private int maxBatchSize;
+
+    @Bean(destroyMethod = "close")
+    public ItemChangeRingBuffer itemChangeRingBuffer(Map<String, ItemChangeSubscriber> subscribers) {
+        ItemChangeRingBuffer ringBuffer = new ItemChangeRingBuffer(bufferSize, maxBatchSize);
+        subscribers.forEach(ringBuffer::subscribe);
+        ringBuffer.start();
+        return ringBuffer;
+    }
+
+    @Bean
+    public ItemChangeAuditSubscriber itemChangeAuditSubscriber() {
+        return new ItemChangeAuditSubscriber();
+    }
+
+    // BeanPostProcessor 는 다른 빈보다 먼저 만들어지므로 static 으로 등록한다.
+    @Bean
+    public static ItemServiceDecoratingPostProcessor itemChangePublishingPostProcessor(ObjectProvider<ItemChangeRingBuffer> ringBuffer) {
+        return new ItemServiceDecoratingPostProcessor(ItemServiceDecoratingPostProcessor.EVENT_PUBLISHING_ORDER,
+                itemService -> new EventPublishingItemService(itemService, ringBuffer.getObject()));
+    }
+}
@@ -0,0 +1,84 @@
+package hello.itemservice.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.*;
+
+/**
+ * item.repository.engine 값에 따라 사용하지 않는 자동 구성을 제외한다.
+ *
+ * 설정 클래스(MemoryConfig, JpaConfig ...)는 @ConditionalOnProperty 로 선택한 엔진 하나만 등록되지만,
+ * 스타터가 추가하는 자동 구성(DataSource, Hibernate EntityManagerFactory, MyBatis 매퍼 스캔 ...)은 그대로 뜬다.
+ * 그래서 엔진에 맞춰 spring.autoconfigure.exclude 에 필요 없는 자동 구성을 추가한다.
+ *
+ * - memory 계열        : DataSource, JPA, MyBatis 모두 제외
+ * - sharded           : DataSource, JPA, MyBatis 모두 제외 (샤드 DataSource 는 ShardingConfig 가 직접 만든다)
+ * - jdbc-v1 ~ v3      : JPA, MyBatis 제외
+ * - mybatis           : JPA 제외
+ * - jpa, querydsl, spring-data-jpa, v2 : MyBatis 제외
+ *   (스프링 데이터 JPA 자동 구성은 남긴다. 생성자로 주입받는 공유 EntityManager 빈을 여기서 등록한다)
+ *
+ * 직접 설정한 spring.autoconfigure.exclude 값은 그대로 유지하고 뒤에 덧붙인다.
+ * META-INF/spring.factories 에 등록되어 있다.
+ */
+public class ItemRepositoryEngineEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    public static final String ENGINE_PROPERTY = "item.repository.engine";
+    public static final String DEFAULT_ENGINE = "v2";
+
+    private static final String EXCLUDE_PROPERTY = "spring.autoconfigure.exclude";
+
+    private static final List<String> JDBC = List.of(
+            "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+            "org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration",
+            "org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration",
+            "org.springframework.boot.autoconfigure.sql.init.SqlInitializationAutoConfiguration");
+
+    private static final List<String> JPA = List.of(
+            "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration");
+
+    private static final List<String> SPRING_DATA_JPA = List.of(
+            "org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration");
+
+    private static final List<String> MYBATIS = List.of(
+            "org.mybatis.spring.boot.autoconfigure.MybatisAutoConfiguration",
+            "org.mybatis.spring.boot.autoconfigure.MybatisLanguageDriverAutoConfiguration");
+
+    private static final Map<String, List<List<String>>> EXCLUDES = Map.ofEntries(
+            Map.entry("memory", List.of(JDBC, JPA, SPRING_DATA_JPA, MYBATIS)),
+            Map.entry("memory-columnar", List.of(JDBC, JPA, SPRING_DATA_JPA, MYBATIS)),
+            Map.entry("memory-durable", List.of(JDBC, JPA, SPRING_DATA_JPA, MYBATIS)),
+            Map.entry("sharded", List.of(JDBC, JPA, SPRING_DATA_JPA, MYBATIS)),
+            Map.entry("jdbc-v1", List.of(JPA, SPRING_DATA_JPA, MYBATIS)),
+            Map.entry("jdbc-v2", List.of(JPA, SPRING_DATA_JPA, MYBATIS)),
+            Map.entry("jdbc-v3", List.of(JPA, SPRING_DATA_JPA, MYBATIS)),
+            Map.entry("mybatis", List.of(JPA, SPRING_DATA_JPA)),
+            Map.entry("jpa", List.of(MYBATIS)),
+            Map.entry("querydsl", List.of(MYBATIS)),
+            Map.entry("spring-data-jpa", List.of(MYBATIS)),
+            Map.entry("v2", List.of(MYBATIS)));
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        String engine = environment.getProperty(ENGINE_PROPERTY, DEFAULT_ENGINE);
+
+        List<List<String>> groups = EXCLUDES.get(engine);
+        if (groups == null) {
+            throw new IllegalStateException("unknown " + ENGINE_PROPERTY + "=" + engine + ", expected one of " + new TreeSet<>(EXCLUDES.keySet()));
+        }
+
+        // 스프링 부트와 같은 방식(Binder)으로 읽는다. 콤마 목록의 공백을 지우고, 목록 형식(exclude[0]=...)도 읽는다.
+        Set<String> excludes = new LinkedHashSet<>(Binder.get(environment)
+                .bind(EXCLUDE_PROPERTY, Bindable.listOf(String.class))
+                .orElse(List.of()));
+        groups.forEach(excludes::addAll);
+
+        environment.getPropertySources().addFirst(new MapPropertySource("itemRepositoryEngine",
+                Map.of(EXCLUDE_PROPERTY, String.join(",", excludes))));
+    }
+}
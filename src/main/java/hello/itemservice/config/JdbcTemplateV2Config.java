@@ -5,11 +5,13 @@ import hello.itemservice.repository.jdbctemplate.JdbcTemplateItemRepositoryV2;
 import hello.itemservice.service.ItemService;
 import hello.itemservice.service.ItemServiceV1;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import javax.sql.DataSource;
 
+@ConditionalOnProperty(name = "item.repository.engine", havingValue = "jdbc-v2")
 @Configuration // 설정
 @RequiredArgsConstructor
 public class JdbcTemplateV2Config {
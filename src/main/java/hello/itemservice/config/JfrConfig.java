@@ -0,0 +1,32 @@
+package hello.itemservice.config;
+
+import hello.itemservice.jfr.JfrItemRepository;
+import hello.itemservice.jfr.JfrItemService;
+import hello.itemservice.repository.ItemRepositoryDecoratingPostProcessor;
+import hello.itemservice.repository.ItemRepositoryDecorator;
+import hello.itemservice.service.ItemServiceDecoratingPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ItemRepository, ItemService 호출을 JFR 이벤트로 남긴다. (item.jfr.enabled=true 일 때만)
+ * 녹화 설정은 jfr/itemservice.jfc
+ *   java -XX:StartFlightRecording:settings=default,settings=jfr/itemservice.jfc,filename=item.jfr -jar ...
+ */
+@ConditionalOnProperty(name = "item.jfr.enabled", havingValue = "true")
+@Configuration
+public class JfrConfig {
+
+    // 예외 변환 프록시 바깥에서 감싼다. (ItemRepositoryDecoratingPostProcessor)
+    @Bean
+    public ItemRepositoryDecorator jfrItemRepositoryDecorator() {
+        return new ItemRepositoryDecorator(ItemRepositoryDecoratingPostProcessor.JFR_ORDER, JfrItemRepository::new);
+    }
+
+    // BeanPostProcessor 는 다른 빈보다 먼저 만들어지므로 static 으로 등록한다.
+    @Bean
+    public static ItemServiceDecoratingPostProcessor jfrItemServicePostProcessor() {
+        return new ItemServiceDecoratingPostProcessor(ItemServiceDecoratingPostProcessor.JFR_ORDER, JfrItemService::new);
+    }
+}
@@ -4,12 +4,23 @@ import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.memory.MemoryItemRepository;
 import hello.itemservice.service.ItemService;
 import hello.itemservice.service.ItemServiceV1;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.ForkJoinPool;
+
+@ConditionalOnProperty(name = "item.repository.engine", havingValue = "memory")
 @Configuration
 public class MemoryConfig {
 
+    @Value("${item.memory.parallel-threshold:50000}")
+    private int parallelThreshold; // 이 개수 이상이면 findAll 을 병렬로 검색
+
+    @Value("${item.memory.parallelism:0}")
+    private int parallelism; // 0 이면 공용 ForkJoinPool 사용, 그 외에는 전용 풀 생성
+
     @Bean
     public ItemService itemService() {
         return new ItemServiceV1(itemRepository());
@@ -17,7 +28,8 @@ public class MemoryConfig {
 
     @Bean
     public ItemRepository itemRepository() {
-        return new MemoryItemRepository();
+        ForkJoinPool pool = parallelism > 0 ? new ForkJoinPool(parallelism) : ForkJoinPool.commonPool();
+        return new MemoryItemRepository(parallelThreshold, pool);
     }
 
 }
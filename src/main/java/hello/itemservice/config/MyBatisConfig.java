@@ -7,11 +7,13 @@ import hello.itemservice.repository.mybatis.MyBatisItemRepository;
 import hello.itemservice.service.ItemService;
 import hello.itemservice.service.ItemServiceV1;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import javax.sql.DataSource;
 
+@ConditionalOnProperty(name = "item.repository.engine", havingValue = "mybatis")
 @Configuration // 설정
 @RequiredArgsConstructor
 public class MyBatisConfig {
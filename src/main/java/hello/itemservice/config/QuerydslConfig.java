@@ -7,12 +7,14 @@ import hello.itemservice.repository.jpa.SpringDataJpaItemRepository;
 import hello.itemservice.service.ItemService;
 import hello.itemservice.service.ItemServiceV1;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import javax.persistence.EntityManager;
 
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "item.repository.engine", havingValue = "querydsl")
 @Configuration // 설정
 public class QuerydslConfig {
 
@@ -0,0 +1,53 @@
+package hello.itemservice.config;
+
+import hello.itemservice.monitoring.ResourceUsageInterceptor;
+import hello.itemservice.monitoring.ResourceUsageRegistry;
+import hello.itemservice.monitoring.ThreadResourceMeter;
+import hello.itemservice.service.ItemServiceDecoratingPostProcessor;
+import hello.itemservice.service.ResourceAccountingItemService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 엔드포인트별, 엔진 메서드별 메모리 할당량과 CPU 시간을 누적한다. (item.resource-usage.enabled=true 일 때만)
+ * ThreadMXBean 으로 엔진 메서드를 호출한 스레드의 값만 잰다.
+ * - findById 묶음 조회는 배치 스레드가 엔진의 findAllById 를 호출하므로 그 스레드에서 findAllById 로 집계된다.
+ * - 샤드 scatter 는 리포지토리 안에서 다른 스레드로 나뉘므로 그 스레드들의 비용은 집계되지 않는다.
+ *   (호출 스레드에서 실행되는 첫 번째 샤드만 포함된다)
+ *
+ * GET /monitoring/resource-usage 로 조회한다. (web.ResourceUsageController)
+ */
+@ConditionalOnProperty(name = "item.resource-usage.enabled", havingValue = "true")
+@Configuration
+public class ResourceUsageConfig implements WebMvcConfigurer {
+
+    private final ResourceUsageRegistry registry;
+
+    public ResourceUsageConfig(ResourceUsageRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptorRegistry) {
+        interceptorRegistry.addInterceptor(new ResourceUsageInterceptor(registry))
+                .addPathPatterns("/items/**");
+    }
+
+    // BeanPostProcessor 가 사용하므로 static 으로 등록한다.
+    @Bean
+    public static ResourceUsageRegistry resourceUsageRegistry() {
+        return new ResourceUsageRegistry(new ThreadResourceMeter());
+    }
+
+    @Bean
+    public static ItemServiceDecoratingPostProcessor resourceAccountingPostProcessor(ResourceUsageRegistry registry, Environment environment) {
+        String engine = environment.getProperty(ItemRepositoryEngineEnvironmentPostProcessor.ENGINE_PROPERTY,
+                ItemRepositoryEngineEnvironmentPostProcessor.DEFAULT_ENGINE);
+        return new ItemServiceDecoratingPostProcessor(ItemServiceDecoratingPostProcessor.RESOURCE_ACCOUNTING_ORDER,
+                target -> new ResourceAccountingItemService(target, registry, engine));
+    }
+}
@@ -0,0 +1,89 @@
+package hello.itemservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.shard.ShardedItemRepository;
+import hello.itemservice.service.ItemService;
+import hello.itemservice.service.ItemServiceV1;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * item.shard.urls 에 나열한 DB 들에 상품을 나눠 저장한다.
+ * 샤드 DataSource 는 여기서 직접 만들고 종료할 때 닫는다.
+ */
+@Slf4j
+@ConditionalOnProperty(name = "item.repository.engine", havingValue = "sharded")
+@Configuration
+public class ShardingConfig {
+
+    @Value("${item.shard.urls}")
+    private List<String> urls;
+
+    @Value("${item.shard.username:sa}")
+    private String username;
+
+    @Value("${item.shard.password:sa}")
+    private String password;
+
+    @Value("${item.shard.maximum-pool-size:10}")
+    private int maximumPoolSize;
+
+    // 비어있지 않으면 시작할 때 모든 샤드에 실행한다. (ex. classpath:schema.sql)
+    @Value("${item.shard.schema-location:}")
+    private String schemaLocation;
+
+    private final ResourceLoader resourceLoader;
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+
+    public ShardingConfig(ResourceLoader resourceLoader) {
+        this.resourceLoader = resourceLoader;
+    }
+
+    @Bean
+    public ItemService itemService() {
+        return new ItemServiceV1(itemRepository());
+    }
+
+    @Bean(destroyMethod = "close")
+    public ItemRepository itemRepository() {
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            shards.add(shardDataSource(i, urls.get(i)));
+        }
+        return new ShardedItemRepository(shards, maximumPoolSize); // 샤드마다 커넥션 수만큼 동시에 조회한다.
+    }
+
+    @PreDestroy
+    public void closeDataSources() {
+        dataSources.forEach(HikariDataSource::close);
+    }
+
+    private DataSource shardDataSource(int index, String url) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("item-shard-" + index);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSources.add(dataSource);
+
+        if (StringUtils.hasText(schemaLocation)) {
+            log.info("shard {} schema 초기화 {}", index, schemaLocation);
+            DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(resourceLoader.getResource(schemaLocation)), dataSource);
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,22 @@
+package hello.itemservice.config;
+
+import hello.itemservice.service.ItemServiceDecoratingPostProcessor;
+import hello.itemservice.service.SingleFlightItemService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 동시에 들어온 같은 조회를 하나로 합친다. (item.single-flight.enabled=true 일 때만)
+ */
+@ConditionalOnProperty(name = "item.single-flight.enabled", havingValue = "true")
+@Configuration
+public class SingleFlightConfig {
+
+    // BeanPostProcessor 는 다른 빈보다 먼저 만들어지므로 static 으로 등록한다.
+    @Bean
+    public static ItemServiceDecoratingPostProcessor singleFlightPostProcessor() {
+        return new ItemServiceDecoratingPostProcessor(ItemServiceDecoratingPostProcessor.SINGLE_FLIGHT_ORDER,
+                SingleFlightItemService::new);
+    }
+}
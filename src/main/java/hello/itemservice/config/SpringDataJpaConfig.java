@@ -6,10 +6,12 @@ import hello.itemservice.repository.jpa.SpringDataJpaItemRepository;
 import hello.itemservice.service.ItemService;
 import hello.itemservice.service.ItemServiceV1;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "item.repository.engine", havingValue = "spring-data-jpa")
 @Configuration // 설정
 public class SpringDataJpaConfig {
 
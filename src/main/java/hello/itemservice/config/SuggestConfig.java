@@ -0,0 +1,43 @@
+package hello.itemservice.config;
+
+import hello.itemservice.event.ItemChangeRingBuffer;
+import hello.itemservice.service.ItemService;
+import hello.itemservice.suggest.ItemNameIndex;
+import hello.itemservice.suggest.ItemNameIndexLoader;
+import hello.itemservice.suggest.ItemNameIndexSubscriber;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 상품명 자동 완성 (item.suggest.enabled=true 일 때만, GET /items/suggest)
+ *
+ * 시작이 끝나면(시작 데이터를 넣은 뒤) 모든 상품명을 읽어 메모리 색인(radix trie)을 만들고,
+ * 이후 저장, 수정은 상품 변경 이벤트로 반영한다. 그래서 item.events.enabled=true 가 필요하다.
+ */
+@ConditionalOnProperty(name = "item.suggest.enabled", havingValue = "true")
+@Configuration
+public class SuggestConfig {
+
+    @Bean
+    public ItemNameIndex itemNameIndex() {
+        return new ItemNameIndex();
+    }
+
+    @Bean
+    public ItemNameIndexSubscriber itemNameIndexSubscriber(ItemNameIndex itemNameIndex) {
+        return new ItemNameIndexSubscriber(itemNameIndex);
+    }
+
+    // 이벤트 구독이 시작된 다음에 읽는다. (읽는 동안의 변경은 이벤트로 들어온다)
+    // 이벤트가 없으면 읽은 뒤의 저장, 수정이 반영되지 않으므로 시작할 때 실패한다.
+    @Bean
+    public ItemNameIndexLoader itemNameIndexLoader(ItemNameIndex itemNameIndex, ItemService itemService,
+                                                   ObjectProvider<ItemChangeRingBuffer> ringBuffer) {
+        if (ringBuffer.getIfAvailable() == null) {
+            throw new IllegalStateException("item.suggest.enabled=true requires item.events.enabled=true");
+        }
+        return new ItemNameIndexLoader(itemNameIndex, itemService);
+    }
+}
@@ -10,12 +10,14 @@ import hello.itemservice.service.ItemService;
 import hello.itemservice.service.ItemServiceV1;
 import hello.itemservice.service.ItemServiceV2;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import javax.persistence.EntityManager;
 
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "item.repository.engine", havingValue = "v2", matchIfMissing = true)
 @Configuration // 설정
 public class V2Config {
 
@@ -0,0 +1,44 @@
+package hello.itemservice.config;
+
+import hello.itemservice.service.ItemService;
+import hello.itemservice.warmup.ItemServiceWarmup;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 시작할 때 커넥션 풀, 쿼리 계획, JIT, 2차 캐시를 미리 채운다. (item.warmup.enabled=true 일 때만)
+ * 워밍업이 끝나야 readiness 가 ACCEPTING_TRAFFIC 이 된다. (/readiness)
+ */
+@ConditionalOnProperty(name = "item.warmup.enabled", havingValue = "true")
+@Configuration
+public class WarmupConfig {
+
+    @Value("${item.warmup.iterations:50}")
+    private int iterations;
+
+    @Value("${item.warmup.hot-item-count:100}")
+    private int hotItemCount;
+
+    // 미리 읽을 상품 id (비어 있으면 id 순 앞쪽 hot-item-count 개)
+    @Value("${item.warmup.hot-ids:}")
+    private List<Long> hotIds;
+
+    @Value("${item.warmup.max-duration:60s}")
+    private Duration maxDuration;
+
+    @Bean
+    public ItemServiceWarmup itemServiceWarmup(ApplicationContext context, ItemService itemService,
+                                               ObjectProvider<DataSource> dataSources) {
+        return new ItemServiceWarmup(context, itemService, dataSources.orderedStream().collect(Collectors.toList()),
+                iterations, hotItemCount, hotIds, maxDuration);
+    }
+}
@@ -0,0 +1,48 @@
+package hello.itemservice.datagen;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+
+/**
+ * 시작할 때 상품 데이터를 만든다. (워밍업보다 먼저 실행)
+ * exit 이면 저장을 마치고 애플리케이션을 종료한다. (CLI 로 데이터만 만들 때)
+ */
+@Slf4j
+public class ItemDataGenerationRunner implements ApplicationRunner, Ordered {
+
+    private final ApplicationContext context;
+    private final ItemDataLoader loader;
+    private final long count;
+    private final int batchSize;
+    private final int parallelism;
+    private final boolean exit;
+
+    public ItemDataGenerationRunner(ApplicationContext context, ItemDataLoader loader,
+                                    long count, int batchSize, int parallelism, boolean exit) {
+        this.context = context;
+        this.loader = loader;
+        this.count = count;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.exit = exit;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        log.info("datagen start count={}, batchSize={}, parallelism={}", count, batchSize, parallelism);
+        loader.load(count, batchSize, parallelism);
+
+        if (exit) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
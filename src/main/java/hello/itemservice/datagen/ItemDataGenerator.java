@@ -0,0 +1,102 @@
+package hello.itemservice.datagen;
+
+import hello.itemservice.domain.Item;
+
+import java.util.SplittableRandom;
+
+/**
+ * seed 로 대량의 상품 데이터를 만든다.
+ *
+ * - n 번째 상품은 (seed, n) 만으로 정해진다. 여러 스레드가 나눠서 만들어도, 순서가 바뀌어도 같은 상품이 나온다.
+ * - 상품명은 한글, 영문 이름을 섞는다. 자주 쓰이는 단어가 더 많이 나오도록 앞쪽 단어에 치우치게 고른다.
+ *   item_name 이 varchar(10) 이므로 10 글자를 넘지 않는다.
+ * - 가격은 로그 정규 분포 (대부분 1~5만원, 가끔 수십만원), 100원 단위
+ * - 수량은 10% 품절(0), 나머지는 적은 수량이 많은 지수 분포
+ */
+public class ItemDataGenerator {
+
+    public static final int MAX_NAME_LENGTH = 10;
+
+    private static final String[] KOREAN_ADJECTIVES = {
+            "무선", "미니", "대용량", "초경량", "접이식", "프리미엄", "휴대용", "저소음", "고급", "친환경"
+    };
+    private static final String[] KOREAN_NOUNS = {
+            "키보드", "마우스", "텀블러", "이어폰", "가방", "충전기", "모니터", "의자", "책상", "조명",
+            "노트", "볼펜", "우산", "수건", "머그컵", "선풍기", "청소기", "스피커", "케이블", "거치대"
+    };
+    private static final String[] ENGLISH_NOUNS = {
+            "item", "book", "pen", "cup", "bag", "lamp", "desk", "chair", "mouse", "phone"
+    };
+
+    private static final double KOREAN_RATIO = 0.7;
+    private static final double MEDIAN_PRICE = 20000;
+    private static final double PRICE_SIGMA = 0.9;
+    private static final int MIN_PRICE = 100;
+    private static final int MAX_PRICE = 2_000_000;
+    private static final double SOLD_OUT_RATIO = 0.1;
+    private static final double MEAN_QUANTITY = 30;
+    private static final int MAX_QUANTITY = 9999;
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long seed;
+
+    public ItemDataGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public Item generate(long index) {
+        SplittableRandom random = new SplittableRandom(mix(seed ^ (index * GOLDEN_GAMMA)));
+        return new Item(name(random), price(random), quantity(random));
+    }
+
+    private static String name(SplittableRandom random) {
+        String name;
+        if (random.nextDouble() < KOREAN_RATIO) {
+            String noun = skewedPick(random, KOREAN_NOUNS);
+            name = random.nextBoolean() ? skewedPick(random, KOREAN_ADJECTIVES) + " " + noun : noun;
+        } else {
+            name = skewedPick(random, ENGLISH_NOUNS);
+        }
+
+        // 절반은 모델 번호를 붙인다. ex) 무선 키보드 12
+        if (random.nextBoolean()) {
+            name = name + " " + (random.nextInt(99) + 1);
+        }
+        return name.length() > MAX_NAME_LENGTH ? name.substring(0, MAX_NAME_LENGTH).trim() : name;
+    }
+
+    private static int price(SplittableRandom random) {
+        double price = MEDIAN_PRICE * Math.exp(PRICE_SIGMA * gaussian(random));
+        long rounded = Math.round(price / 100) * 100;
+        return (int) Math.max(MIN_PRICE, Math.min(MAX_PRICE, rounded));
+    }
+
+    private static int quantity(SplittableRandom random) {
+        if (random.nextDouble() < SOLD_OUT_RATIO) {
+            return 0;
+        }
+        double quantity = -Math.log(1 - random.nextDouble()) * MEAN_QUANTITY;
+        return (int) Math.min(MAX_QUANTITY, quantity + 1);
+    }
+
+    // 앞쪽 원소일수록 자주 나온다. (u^2 로 치우침)
+    private static String skewedPick(SplittableRandom random, String[] values) {
+        double u = random.nextDouble();
+        return values[(int) (u * u * values.length)];
+    }
+
+    // Box-Muller (SplittableRandom 에는 nextGaussian 이 없다)
+    private static double gaussian(SplittableRandom random) {
+        double u1 = 1 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+
+    // 이웃한 index 의 난수열이 겹치지 않도록 섞는다. (MurmurHash3 fmix64)
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
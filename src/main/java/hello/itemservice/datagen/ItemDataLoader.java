@@ -0,0 +1,91 @@
+package hello.itemservice.datagen;
+
+import hello.itemservice.repository.ItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 만든 상품을 여러 스레드에서 batchSize 개씩 저장한다. (ItemRepository.save 만 사용하므로 모든 엔진에서 동작)
+ *
+ * - 0 ~ count-1 번째 상품을 batchSize 구간으로 나누고, 스레드들이 구간을 하나씩 맡는다.
+ * - 트랜잭션 매니저가 있으면 구간마다 트랜잭션 하나로 저장한다. (상품마다 커밋하지 않는다)
+ * - 상품 내용은 seed 로 정해지지만, id 는 저장된 순서로 발급되므로 parallelism 이 1 일 때만 id 까지 같다.
+ */
+@Slf4j
+public class ItemDataLoader {
+
+    private final ItemRepository itemRepository;
+    private final ItemDataGenerator generator;
+    private final TransactionTemplate transactionTemplate; // null 이면 트랜잭션 없이 저장
+
+    public ItemDataLoader(ItemRepository itemRepository, ItemDataGenerator generator, TransactionTemplate transactionTemplate) {
+        this.itemRepository = itemRepository;
+        this.generator = generator;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * @return 걸린 시간
+     */
+    public Duration load(long count, int batchSize, int parallelism) throws InterruptedException {
+        long start = System.nanoTime();
+        AtomicLong saved = new AtomicLong();
+        long progressStep = Math.max(batchSize, count / 10); // 10% 마다 로그
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "item-datagen");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> batches = new ArrayList<>();
+            for (long from = 0; from < count; from += batchSize) {
+                long batchFrom = from;
+                long batchTo = Math.min(count, from + batchSize);
+                batches.add(executor.submit(() -> {
+                    saveBatch(batchFrom, batchTo);
+                    long total = saved.addAndGet(batchTo - batchFrom);
+                    if (total / progressStep != (total - (batchTo - batchFrom)) / progressStep) {
+                        log.info("datagen progress {}/{}", total, count);
+                    }
+                }));
+            }
+
+            for (Future<?> batch : batches) {
+                batch.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("datagen failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        log.info("datagen saved {} items in {}ms ({} items/s)", count, elapsed.toMillis(),
+                elapsed.isZero() ? count : count * 1000 / Math.max(1, elapsed.toMillis()));
+        return elapsed;
+    }
+
+    private void saveBatch(long from, long to) {
+        if (transactionTemplate == null) {
+            saveRange(from, to);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> saveRange(from, to));
+    }
+
+    private void saveRange(long from, long to) {
+        for (long index = from; index < to; index++) {
+            itemRepository.save(generator.generate(index));
+        }
+    }
+}
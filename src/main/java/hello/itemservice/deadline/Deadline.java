@@ -0,0 +1,70 @@
+package hello.itemservice.deadline;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청을 처리해야 하는 마감 시각
+ *
+ * 요청을 처리하는 스레드에 묶어둔다. (ThreadLocal)
+ * 마감이 지난 작업은 시작하지 않고, 실행 중인 SQL 은 남은 시간을 statement timeout 으로 사용한다.
+ */
+public class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+    private final Duration timeout;
+
+    private Deadline(long expiresAtNanos, Duration timeout) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.timeout = timeout;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos(), timeout);
+    }
+
+    public static void set(Deadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    // 마감이 없으면 null
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 현재 요청의 마감이 지났으면 DeadlineExceededException
+     */
+    public static void checkCurrent() {
+        Deadline deadline = current();
+        if (deadline != null && deadline.isExpired()) {
+            throw new DeadlineExceededException(deadline.timeout);
+        }
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    public long remainingNanos() {
+        return expiresAtNanos - System.nanoTime();
+    }
+
+    /**
+     * JDBC statement timeout 은 초 단위이므로 올림한다. (남은 시간이 1초 미만이면 1초)
+     */
+    public int remainingSeconds() {
+        long seconds = (remainingNanos() + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, seconds));
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+}
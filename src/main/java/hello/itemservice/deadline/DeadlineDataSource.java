@@ -0,0 +1,132 @@
+package hello.itemservice.deadline;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * SQL 을 실행하기 직전에 현재 요청의 남은 시간을 statement timeout 으로 설정하는 DataSource
+ *
+ * JdbcTemplate 의 queryTimeout, MyBatis 의 statement timeout, JPA 의 javax.persistence.query.timeout 힌트는
+ * 모두 결국 Statement.setQueryTimeout 을 호출한다. 여기서 실행 시점의 남은 시간으로 한 번에 적용한다.
+ * (이미 더 짧은 timeout 이 설정되어 있으면 그대로 둔다)
+ *
+ * - 커넥션을 얻기 전, 얻은 직후, SQL 을 실행하기 전에 마감이 지났으면 시작하지 않는다. (커넥션을 다른 요청에 양보)
+ *   풀에서 커넥션을 기다리는 시간 자체는 줄이지 못한다. (풀의 connectionTimeout 까지 기다릴 수 있다)
+ *   기다리는 동안 마감이 지났으면 얻은 커넥션을 바로 돌려준다.
+ * - 마감이 지나면 SQLTimeoutException 을 던진다. SQL 을 실행할 때면 QueryTimeoutException 으로 변환되지만,
+ *   커넥션을 얻을 때면 CannotGetJdbcConnectionException(DataSourceUtils), CannotCreateTransactionException(트랜잭션 매니저)
+ *   등에 감싸진다. DeadlineExceptionHandler 는 원인에 SQLTimeoutException 이 있는지로 504 를 판단한다.
+ * - 실행 중에 timeout 이 지나면 드라이버가 SQL 을 취소한다.
+ */
+public class DeadlineDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final Set<String> CREATE_STATEMENT = Set.of("createStatement", "prepareStatement", "prepareCall");
+    private static final Set<String> EXECUTE = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    public DeadlineDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        checkDeadline();
+        return connection(checkAfterAcquire(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        checkDeadline();
+        return connection(checkAfterAcquire(super.getConnection(username, password)));
+    }
+
+    /**
+     * 감싼 DataSource(커넥션 풀)를 닫는다. 빈 종료 시 호출된다.
+     */
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable) {
+            ((AutoCloseable) getTargetDataSource()).close();
+        }
+    }
+
+    // 풀에서 기다리는 동안 마감이 지났으면 커넥션을 돌려주고 중단한다.
+    private static Connection checkAfterAcquire(Connection connection) throws SQLException {
+        try {
+            checkDeadline();
+            return connection;
+        } catch (SQLTimeoutException e) {
+            try {
+                connection.close();
+            } catch (SQLException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+            throw e;
+        }
+    }
+
+    private static Connection connection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(DeadlineDataSource.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (CREATE_STATEMENT.contains(method.getName())) {
+                        return statement((Statement) result);
+                    }
+                    return result;
+                });
+    }
+
+    private static Statement statement(Statement statement) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+
+        return (Statement) Proxy.newProxyInstance(DeadlineDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (EXECUTE.contains(method.getName())) {
+                        applyDeadline(statement);
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static void applyDeadline(Statement statement) throws SQLException {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return;
+        }
+
+        checkDeadline();
+        int remaining = deadline.remainingSeconds();
+        int current = statement.getQueryTimeout();
+        if (current == 0 || current > remaining) {
+            statement.setQueryTimeout(remaining);
+        }
+    }
+
+    private static void checkDeadline() throws SQLTimeoutException {
+        Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            throw new SQLTimeoutException("deadline exceeded, timeout=" + deadline.getTimeout().toMillis() + "ms");
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
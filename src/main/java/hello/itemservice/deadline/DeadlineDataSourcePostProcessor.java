@@ -0,0 +1,19 @@
+package hello.itemservice.deadline;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+
+/**
+ * DataSource 빈을 DeadlineDataSource 로 감싼다.
+ */
+public class DeadlineDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof DeadlineDataSource)) {
+            return new DeadlineDataSource((DataSource) bean);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,13 @@
+package hello.itemservice.deadline;
+
+import java.time.Duration;
+
+/**
+ * 요청 마감이 지나서 시작하지 않은 작업 (504 Gateway Timeout 으로 응답한다)
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(Duration timeout) {
+        super("deadline exceeded, timeout=" + timeout.toMillis() + "ms");
+    }
+}
@@ -0,0 +1,86 @@
+package hello.itemservice.deadline;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 요청의 마감 시각을 정한다.
+ *
+ * - 엔드포인트별 설정 : 컨트롤러 메서드 이름으로 찾는다. ex) item.deadline.timeouts.items=2s (ItemController.items)
+ *                      없으면 defaultTimeout
+ * - 요청 헤더        : X-Request-Timeout (밀리초) - 클라이언트가 기다릴 수 있는 시간
+ *
+ * 둘 다 있으면 짧은 쪽을 사용한다. 헤더 값이 0 이하면 이미 클라이언트가 포기한 요청이므로 처리하지 않는다.
+ */
+@Slf4j
+public class DeadlineInterceptor implements HandlerInterceptor {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    private final Map<String, Duration> timeouts;
+    private final Duration defaultTimeout;
+
+    public DeadlineInterceptor(Map<String, Duration> timeouts, Duration defaultTimeout) {
+        this.timeouts = timeouts;
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Duration timeout = shorter(configuredTimeout(handler), headerTimeout(request));
+        if (timeout == null) {
+            return true;
+        }
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new DeadlineExceededException(timeout);
+        }
+
+        Deadline.set(Deadline.after(timeout));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Deadline.clear();
+    }
+
+    private Duration configuredTimeout(Object handler) {
+        if (handler instanceof HandlerMethod) {
+            Duration timeout = timeouts.get(((HandlerMethod) handler).getMethod().getName());
+            if (timeout != null) {
+                return timeout;
+            }
+        }
+        return defaultTimeout;
+    }
+
+    private Duration headerTimeout(HttpServletRequest request) {
+        String value = request.getHeader(TIMEOUT_HEADER);
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        try {
+            return Duration.ofMillis(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            log.debug("ignore invalid {} header: {}", TIMEOUT_HEADER, value);
+            return null;
+        }
+    }
+
+    private static Duration shorter(Duration left, Duration right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        return left.compareTo(right) <= 0 ? left : right;
+    }
+}
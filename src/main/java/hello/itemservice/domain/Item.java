@@ -6,7 +6,12 @@ import javax.persistence.*;
 
 @Data
 @Entity
-@Table(name = "item") // DB에 이 Entity 와 매핑할 테이블 이름을 지정할 수 있다. 생략 시 Entity 명으로 생성된다.
+@Cacheable // 2차 캐시 대상. 동시성 전략은 hibernate.cache.default_cache_concurrency_strategy 로 지정한다.
+@Table(name = "item", // DB에 이 Entity 와 매핑할 테이블 이름을 지정할 수 있다. 생략 시 Entity 명으로 생성된다.
+        indexes = { // 검색용 covering 인덱스 (schema.sql 과 같게 유지)
+                @Index(name = "idx_item_name", columnList = "item_name, price, quantity"),
+                @Index(name = "idx_item_price", columnList = "price, quantity, item_name"),
+                @Index(name = "idx_item_quantity", columnList = "quantity, price, item_name")})
 public class Item {
 
     @Id // 해당 컬럼을 Id 필드로 사용하겠다.
@@ -0,0 +1,73 @@
+package hello.itemservice.event;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
+import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.service.ItemService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * save, update 가 끝나면 변경 이벤트를 링 버퍼에 발행한다.
+ *
+ * 모든 엔진의 쓰기가 지나가는 ItemService 를 감싼다. (v2 는 ItemRepository 를 거치지 않고 저장한다)
+ * 바깥에 트랜잭션이 진행 중이면 커밋된 뒤에 발행한다. 롤백되면 발행하지 않는다.
+ */
+@RequiredArgsConstructor
+public class EventPublishingItemService implements ItemService {
+
+    private final ItemService target;
+    private final ItemChangeRingBuffer ringBuffer;
+
+    @Override
+    public Item save(Item item) {
+        Item savedItem = target.save(item);
+        publish(ItemChangeEvent.saved(savedItem));
+        return savedItem;
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        target.update(itemId, updateParam);
+        publish(ItemChangeEvent.updated(itemId, updateParam));
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return target.findById(id);
+    }
+
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        return target.findAllById(ids);
+    }
+
+    @Override
+    public List<Item> findItems(ItemSearchCond itemSearch) {
+        return target.findItems(itemSearch);
+    }
+
+    @Override
+    public ItemStats stats() {
+        return target.stats();
+    }
+
+    private void publish(ItemChangeEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ringBuffer.publish(event);
+                }
+            });
+            return;
+        }
+        ringBuffer.publish(event);
+    }
+}
@@ -0,0 +1,20 @@
+package hello.itemservice.event;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * 상품 변경 이력을 로그로 남긴다.
+ */
+@Slf4j
+public class ItemChangeAuditSubscriber implements ItemChangeSubscriber {
+
+    @Override
+    public void onEvents(List<ItemChangeEvent> events) {
+        for (ItemChangeEvent event : events) {
+            log.info("[audit] {} id={}, itemName={}, price={}, quantity={}, at={}", event.getType(), event.getItemId(),
+                    event.getItemName(), event.getPrice(), event.getQuantity(), event.getOccurredAt());
+        }
+    }
+}
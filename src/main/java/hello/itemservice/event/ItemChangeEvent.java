@@ -0,0 +1,32 @@
+package hello.itemservice.event;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemUpdateDto;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * 상품 변경 이벤트 (불변)
+ * 변경 후의 값을 담는다.
+ */
+@Data
+public class ItemChangeEvent {
+
+    private final ItemChangeType type;
+    private final Long itemId;
+    private final String itemName;
+    private final Integer price;
+    private final Integer quantity;
+    private final Instant occurredAt;
+
+    public static ItemChangeEvent saved(Item item) {
+        return new ItemChangeEvent(ItemChangeType.SAVED, item.getId(),
+                item.getItemName(), item.getPrice(), item.getQuantity(), Instant.now());
+    }
+
+    public static ItemChangeEvent updated(Long itemId, ItemUpdateDto updateParam) {
+        return new ItemChangeEvent(ItemChangeType.UPDATED, itemId,
+                updateParam.getItemName(), updateParam.getPrice(), updateParam.getQuantity(), Instant.now());
+    }
+}
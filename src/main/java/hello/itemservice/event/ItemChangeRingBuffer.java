@@ -0,0 +1,198 @@
+package hello.itemservice.event;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 상품 변경 이벤트 링 버퍼 (Disruptor 방식, 락 없음)
+ *
+ * - 발행: 시퀀스를 CAS 한 번으로 확보하고, 슬롯에 이벤트를 쓴 뒤 슬롯의 게시 시퀀스를 갱신한다.
+ *   여러 요청 스레드가 동시에 발행할 수 있다. (multi-producer)
+ * - 구독: 구독자마다 전용 스레드와 자기 시퀀스를 가진다. 게시된 연속 구간을 한 번에 가져가므로
+ *   느린 구독자는 밀린 이벤트를 묶음으로 받는다. (최대 maxBatchSize)
+ * - 대기: 새 이벤트가 없으면 잠깐 spin 한 다음 park 해서 잠든다. 발행하는 쪽이 잠든 구독자만 깨운다.
+ *   (이벤트가 없는 동안 구독자 스레드는 CPU 를 쓰지 않는다)
+ * - 크기 제한: 가장 느린 구독자가 아직 처리하지 않은 슬롯은 덮어쓰지 않는다.
+ *   버퍼가 가득 차면 발행하는 쪽이 잠깐씩 대기한다. (이벤트를 버리지 않는다)
+ *
+ * subscribe 로 구독자를 모두 등록한 다음 start 를 호출한다.
+ */
+@Slf4j
+public class ItemChangeRingBuffer {
+
+    private static final int IDLE_SPINS = 100;
+
+    private final ItemChangeEvent[] entries;
+    private final AtomicLongArray published; // 슬롯별로 마지막으로 게시된 시퀀스
+    private final int mask;
+    private final int maxBatchSize;
+
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private volatile long gatingCache = -1; // 마지막으로 확인한 가장 느린 구독자의 시퀀스
+
+    private final List<Processor> processors = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+
+    public ItemChangeRingBuffer(int bufferSize, int maxBatchSize) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize must be a power of 2: " + bufferSize);
+        }
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+
+        this.entries = new ItemChangeEvent[bufferSize];
+        this.published = new AtomicLongArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            published.set(i, -1);
+        }
+        this.mask = bufferSize - 1;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public void subscribe(String name, ItemChangeSubscriber subscriber) {
+        if (running) {
+            throw new IllegalStateException("subscribe before start");
+        }
+        processors.add(new Processor(name, subscriber, claimed.get()));
+    }
+
+    public void start() {
+        running = true;
+        processors.forEach(processor -> processor.thread.start());
+        log.info("item change ring buffer started, bufferSize={}, subscribers={}", entries.length, processors.size());
+    }
+
+    public void publish(ItemChangeEvent event) {
+        long sequence = claimed.incrementAndGet();
+
+        // 한 바퀴 전의 이벤트를 모든 구독자가 처리했는지 확인한다.
+        long wrapPoint = sequence - entries.length;
+        if (wrapPoint > gatingCache) {
+            long minimum;
+            while (wrapPoint > (minimum = minimumSequence())) {
+                if (!running) {
+                    log.warn("item change ring buffer closed, dropped event={}", event);
+                    return;
+                }
+                LockSupport.parkNanos(1);
+            }
+            gatingCache = minimum;
+        }
+
+        int index = index(sequence);
+        entries[index] = event;
+        published.set(index, sequence); // volatile 쓰기 - 이 값을 본 구독자는 이벤트도 본다.
+
+        // 게시한 다음에 sleeping 을 읽는다. 구독자는 sleeping 을 쓴 다음에 게시 여부를 읽으므로
+        // 둘 중 하나는 반드시 상대의 쓰기를 본다. (깨우기를 놓치지 않는다)
+        for (Processor processor : processors) {
+            if (processor.sleeping) {
+                LockSupport.unpark(processor.thread);
+            }
+        }
+    }
+
+    /**
+     * 구독자 스레드를 멈춘다. 이미 발행된 이벤트는 모두 전달한 뒤 멈춘다.
+     */
+    public void close() {
+        running = false;
+        processors.forEach(processor -> LockSupport.unpark(processor.thread));
+        for (Processor processor : processors) {
+            try {
+                processor.thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private long minimumSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (Processor processor : processors) {
+            minimum = Math.min(minimum, processor.sequence.get());
+        }
+        return minimum;
+    }
+
+    private int index(long sequence) {
+        return (int) sequence & mask;
+    }
+
+    private boolean isPublished(long sequence) {
+        return published.get(index(sequence)) == sequence;
+    }
+
+    private class Processor implements Runnable {
+
+        private final ItemChangeSubscriber subscriber;
+        private final AtomicLong sequence; // 처리를 끝낸 마지막 시퀀스
+        private final Thread thread;
+        private volatile boolean sleeping; // park 했거나 park 하려는 중
+
+        Processor(String name, ItemChangeSubscriber subscriber, long initialSequence) {
+            this.subscriber = subscriber;
+            this.sequence = new AtomicLong(initialSequence);
+            this.thread = new Thread(this, "item-change-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long next = sequence.get() + 1;
+            int idle = 0;
+
+            while (true) {
+                // 게시가 끝난 연속 구간의 끝을 찾는다.
+                long available = next - 1;
+                while (available - next + 1 < maxBatchSize && isPublished(available + 1)) {
+                    available++;
+                }
+
+                if (available >= next) {
+                    List<ItemChangeEvent> batch = new ArrayList<>((int) (available - next + 1));
+                    for (long s = next; s <= available; s++) {
+                        batch.add(entries[index(s)]);
+                    }
+                    deliver(batch);
+
+                    sequence.set(available);
+                    next = available + 1;
+                    idle = 0;
+                } else if (!running) {
+                    return;
+                } else if (idle++ < IDLE_SPINS) {
+                    Thread.onSpinWait();
+                } else {
+                    sleepUntilPublished(next);
+                }
+            }
+        }
+
+        // 발행하는 쪽이나 close 가 unpark 할 때까지 잠든다. (깨어나면 run 에서 다시 확인한다)
+        private void sleepUntilPublished(long next) {
+            sleeping = true;
+            if (running && !isPublished(next)) {
+                LockSupport.park(this);
+            }
+            sleeping = false;
+        }
+
+        private void deliver(List<ItemChangeEvent> batch) {
+            try {
+                subscriber.onEvents(batch);
+            } catch (RuntimeException e) {
+                log.error("item change subscriber failed, thread={}, events={}", thread.getName(), batch.size(), e);
+            }
+        }
+    }
+}
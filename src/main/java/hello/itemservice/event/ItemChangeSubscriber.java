@@ -0,0 +1,14 @@
+package hello.itemservice.event;
+
+import java.util.List;
+
+/**
+ * 상품 변경 이벤트 구독자
+ *
+ * 구독자마다 전용 스레드에서 호출된다. 밀린 이벤트는 한 번에 묶어서(batch) 전달된다.
+ * 예외를 던지면 로그만 남기고 다음 이벤트로 넘어간다.
+ */
+public interface ItemChangeSubscriber {
+
+    void onEvents(List<ItemChangeEvent> events);
+}
@@ -0,0 +1,5 @@
+package hello.itemservice.event;
+
+public enum ItemChangeType {
+    SAVED, UPDATED
+}
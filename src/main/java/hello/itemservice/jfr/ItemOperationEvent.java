@@ -0,0 +1,95 @@
+package hello.itemservice.jfr;
+
+import hello.itemservice.repository.ItemSearchCond;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * 상품 저장소 작업 이벤트의 공통 필드
+ *
+ * begin() - 작업 - end() 후 shouldCommit() 일 때만 필드를 채우고 commit() 한다.
+ * 녹화 중이 아니거나 threshold 보다 빨리 끝난 호출은 필드를 채우지 않으므로 비용이 거의 없다.
+ */
+abstract class ItemOperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Implementation")
+    String implementation;
+
+    @Label("Search Shape")
+    String searchShape;
+
+    @Label("Sort")
+    String sort;
+
+    @Label("Limit")
+    int limit;
+
+    @Label("Item Id")
+    long itemId;
+
+    @Label("Row Count")
+    int rowCount;
+
+    @Label("Error")
+    String error;
+
+    void set(String operation, String implementation) {
+        this.operation = operation;
+        this.implementation = implementation;
+    }
+
+    void setSearch(ItemSearchCond cond) {
+        this.searchShape = ItemSearchShape.of(cond);
+        this.sort = cond.getSort().name();
+        this.limit = cond.hasLimit() ? cond.getLimit() : 0;
+    }
+
+    void setItemId(Long itemId) {
+        this.itemId = itemId == null ? 0 : itemId;
+    }
+
+    void setRowCount(int rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    void setError(Throwable error) {
+        this.error = error.getClass().getName();
+    }
+
+    /**
+     * call 을 실행하고, 남겨야 하는 경우에만 details, rowCount 로 필드를 채워서 commit 한다.
+     */
+    static <E extends ItemOperationEvent, T> T record(E event, String operation, String implementation,
+                                                      Consumer<E> details, Supplier<T> call, ToIntFunction<T> rowCount) {
+        event.begin();
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.set(operation, implementation);
+                details.accept(event);
+                event.setError(e);
+                event.commit();
+            }
+            throw e;
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.set(operation, implementation);
+            details.accept(event);
+            event.setRowCount(rowCount.applyAsInt(result));
+            event.commit();
+        }
+        return result;
+    }
+}
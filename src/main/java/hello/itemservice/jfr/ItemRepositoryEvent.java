@@ -0,0 +1,23 @@
+package hello.itemservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * ItemRepository 호출 하나 (JfrItemRepository 가 남긴다)
+ * 기본 threshold 는 10 ms, jfr/itemservice.jfc 에서 바꿀 수 있다.
+ */
+@Name(ItemRepositoryEvent.NAME)
+@Label("Item Repository Operation")
+@Description("ItemRepository call with implementation, search shape and row count")
+@Category({"Item Service", "Repository"})
+@Threshold("10 ms")
+@StackTrace(false)
+public class ItemRepositoryEvent extends ItemOperationEvent {
+
+    public static final String NAME = "hello.itemservice.ItemRepository";
+}
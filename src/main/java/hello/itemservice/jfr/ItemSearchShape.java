@@ -0,0 +1,38 @@
+package hello.itemservice.jfr;
+
+import hello.itemservice.repository.ItemSearchCond;
+import org.springframework.util.StringUtils;
+
+import java.util.StringJoiner;
+
+/**
+ * 검색 조건의 모양 (어떤 조건이 있는지만, 값은 남기지 않는다)
+ * ex) itemName(PREFIX),maxPrice,limit
+ *
+ * 값을 빼야 같은 모양의 검색끼리 JMC 에서 묶어서 볼 수 있고, 상품명이 녹화 파일에 남지 않는다.
+ */
+final class ItemSearchShape {
+
+    private ItemSearchShape() {
+    }
+
+    static String of(ItemSearchCond cond) {
+        StringJoiner shape = new StringJoiner(",");
+        if (StringUtils.hasText(cond.getItemName())) {
+            shape.add("itemName(" + cond.getMatchMode() + ")");
+        }
+        if (cond.getMinPrice() != null) {
+            shape.add("minPrice");
+        }
+        if (cond.getMaxPrice() != null) {
+            shape.add("maxPrice");
+        }
+        if (cond.getMinQuantity() != null) {
+            shape.add("minQuantity");
+        }
+        if (cond.hasLimit()) {
+            shape.add("limit");
+        }
+        return shape.length() == 0 ? "none" : shape.toString();
+    }
+}
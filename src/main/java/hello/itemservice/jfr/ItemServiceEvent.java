@@ -0,0 +1,23 @@
+package hello.itemservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * ItemService 호출 하나 (JfrItemService 가 남긴다)
+ * v2 엔진은 ItemRepository 를 거치지 않으므로(스프링 데이터 JPA, Querydsl) 이 이벤트로만 보인다.
+ */
+@Name(ItemServiceEvent.NAME)
+@Label("Item Service Operation")
+@Description("ItemService call with implementation, search shape and row count")
+@Category({"Item Service", "Service"})
+@Threshold("20 ms")
+@StackTrace(false)
+public class ItemServiceEvent extends ItemOperationEvent {
+
+    public static final String NAME = "hello.itemservice.ItemService";
+}
@@ -0,0 +1,65 @@
+package hello.itemservice.jfr;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
+import hello.itemservice.repository.ItemUpdateDto;
+import org.springframework.aop.support.AopUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ItemRepository 호출마다 ItemRepositoryEvent 를 남긴다.
+ */
+public class JfrItemRepository implements ItemRepository {
+
+    private final ItemRepository target;
+    private final String implementation;
+
+    public JfrItemRepository(ItemRepository target) {
+        this.target = target;
+        this.implementation = AopUtils.getTargetClass(target).getSimpleName();
+    }
+
+    @Override
+    public Item save(Item item) {
+        return ItemOperationEvent.record(new ItemRepositoryEvent(), "save", implementation,
+                event -> event.setItemId(item.getId()), () -> target.save(item), saved -> 1);
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        ItemOperationEvent.record(new ItemRepositoryEvent(), "update", implementation,
+                event -> event.setItemId(itemId), () -> {
+                    target.update(itemId, updateParam);
+                    return null;
+                }, updated -> 1);
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return ItemOperationEvent.record(new ItemRepositoryEvent(), "findById", implementation,
+                event -> event.setItemId(id), () -> target.findById(id), found -> found.isPresent() ? 1 : 0);
+    }
+
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        return ItemOperationEvent.record(new ItemRepositoryEvent(), "findAllById", implementation,
+                event -> { }, () -> target.findAllById(ids), List::size);
+    }
+
+    @Override
+    public List<Item> findAll(ItemSearchCond cond) {
+        return ItemOperationEvent.record(new ItemRepositoryEvent(), "findAll", implementation,
+                event -> event.setSearch(cond), () -> target.findAll(cond), List::size);
+    }
+
+    @Override
+    public ItemStats stats() {
+        return ItemOperationEvent.record(new ItemRepositoryEvent(), "stats", implementation,
+                event -> { }, target::stats, stats -> 1);
+    }
+}
@@ -0,0 +1,65 @@
+package hello.itemservice.jfr;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
+import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.service.ItemService;
+import org.springframework.aop.support.AopUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ItemService 호출마다 ItemServiceEvent 를 남긴다.
+ */
+public class JfrItemService implements ItemService {
+
+    private final ItemService target;
+    private final String implementation;
+
+    public JfrItemService(ItemService target) {
+        this.target = target;
+        this.implementation = AopUtils.getTargetClass(target).getSimpleName();
+    }
+
+    @Override
+    public Item save(Item item) {
+        return ItemOperationEvent.record(new ItemServiceEvent(), "save", implementation,
+                event -> event.setItemId(item.getId()), () -> target.save(item), saved -> 1);
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        ItemOperationEvent.record(new ItemServiceEvent(), "update", implementation,
+                event -> event.setItemId(itemId), () -> {
+                    target.update(itemId, updateParam);
+                    return null;
+                }, updated -> 1);
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return ItemOperationEvent.record(new ItemServiceEvent(), "findById", implementation,
+                event -> event.setItemId(id), () -> target.findById(id), found -> found.isPresent() ? 1 : 0);
+    }
+
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        return ItemOperationEvent.record(new ItemServiceEvent(), "findAllById", implementation,
+                event -> { }, () -> target.findAllById(ids), List::size);
+    }
+
+    @Override
+    public List<Item> findItems(ItemSearchCond itemSearch) {
+        return ItemOperationEvent.record(new ItemServiceEvent(), "findItems", implementation,
+                event -> event.setSearch(itemSearch), () -> target.findItems(itemSearch), List::size);
+    }
+
+    @Override
+    public ItemStats stats() {
+        return ItemOperationEvent.record(new ItemServiceEvent(), "stats", implementation,
+                event -> { }, target::stats, stats -> 1);
+    }
+}
@@ -0,0 +1,129 @@
+package hello.itemservice.limit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 응답 시간을 보고 동시 실행 수 제한을 조절하는 limiter (AIMD, Netflix concurrency-limits 의 AIMDLimit 방식)
+ *
+ * - 제한 이상 실행 중이면 기다리지 않고 바로 거절한다. (대기열 없음)
+ * - 응답 시간이 latencyThreshold 이하이고 제한의 절반 이상 사용 중이었으면 제한을 1 늘린다. (additive increase)
+ * - 응답 시간이 latencyThreshold 를 넘으면 제한에 backoffRatio 를 곱해 줄인다. (multiplicative decrease)
+ *
+ * 제한은 minLimit ~ maxLimit 사이에서 움직인다.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicLong limitBits; // double 제한을 비트로 담는다. 갱신은 onSample 의 CAS 루프에서만
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      Duration latencyThreshold, double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("invalid limits, initial=" + initialLimit + ", min=" + minLimit + ", max=" + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1: " + backoffRatio);
+        }
+
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(initialLimit));
+    }
+
+    /**
+     * 실행 허가를 얻는다. 제한에 걸리면 ConcurrencyLimitExceededException
+     * 실행이 끝나면 반드시 Permit.release 를 호출한다.
+     */
+    public Permit acquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= getLimit()) {
+                rejected.increment();
+                throw new ConcurrencyLimitExceededException(name, getLimit());
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+
+        return new Permit(System.nanoTime(), current + 1);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    // 락 없이 CAS 로 갱신한다. 동시에 끝난 요청과 겹치면 바뀐 제한을 다시 읽어서 계산한다. (표본을 잃지 않는다)
+    private void onSample(long latencyNanos, int inFlightAtStart) {
+        long currentBits;
+        double current;
+        double next;
+        do {
+            currentBits = limitBits.get();
+            current = Double.longBitsToDouble(currentBits);
+            if (latencyNanos > latencyThresholdNanos) {
+                next = Math.max(minLimit, current * backoffRatio);
+            } else if (inFlightAtStart * 2 >= current) {
+                // 제한을 충분히 사용하고 있을 때만 늘린다. (한가할 때 제한이 계속 커지지 않도록)
+                next = Math.min(maxLimit, current + 1);
+            } else {
+                return;
+            }
+            if (next == current) {
+                return;
+            }
+        } while (!limitBits.compareAndSet(currentBits, Double.doubleToLongBits(next)));
+
+        if ((int) next != (int) current) {
+            log.debug("concurrency limit changed, limiter={}, limit={} -> {}, latency={}us",
+                    name, (int) current, (int) next, latencyNanos / 1000);
+        }
+    }
+
+    public class Permit {
+
+        private final long startNanos;
+        private final int inFlightAtStart;
+        private boolean released;
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        public void release() {
+            if (released) {
+                return;
+            }
+            released = true;
+            inFlight.decrementAndGet();
+            onSample(System.nanoTime() - startNanos, inFlightAtStart);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package hello.itemservice.limit;
+
+/**
+ * 동시 실행 제한을 넘어서 바로 거절된 요청 (503 Service Unavailable 로 응답한다)
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public ConcurrencyLimitExceededException(String limiterName, int limit) {
+        super("concurrency limit exceeded, limiter=" + limiterName + ", limit=" + limit);
+    }
+}
@@ -0,0 +1,94 @@
+package hello.itemservice.monitoring;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 하나에서 발생한 DB 작업 (SQL 실행 수, DB 시간, 읽은 행 수, JPA 엔티티 로딩 수)
+ *
+ * 요청을 처리하는 스레드에 묶어둔다. (ThreadLocal)
+ * 다른 스레드에서 실행한 쿼리(샤드 scatter ...)는 집계되지 않는다.
+ * findById 묶음 조회는 조회한 스레드에서 따로 모은 다음 묶음에 들어간 요청마다 더한다. (add)
+ */
+public class DbRequestStats {
+
+    private static final ThreadLocal<DbRequestStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long dbNanos;
+    private long rows;
+    private int entityLoads;
+
+    public static DbRequestStats start() {
+        DbRequestStats stats = new DbRequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    // 요청 밖(애플리케이션 시작, 스케줄러 ...)이면 null
+    public static DbRequestStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 다른 스레드에서 이 요청 대신 실행한 DB 작업을 더한다.
+     */
+    public void add(DbRequestStats other) {
+        statements += other.statements;
+        dbNanos += other.dbNanos;
+        rows += other.rows;
+        entityLoads += other.entityLoads;
+    }
+
+    void addStatement(long nanos) {
+        statements++;
+        dbNanos += nanos;
+    }
+
+    void addFetch(long nanos, boolean row) {
+        dbNanos += nanos;
+        if (row) {
+            rows++;
+        }
+    }
+
+    void addEntityLoad() {
+        entityLoads++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+
+    public double getDbMillis() {
+        return dbNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Server-Timing 헤더 값 ex) db;dur=3.215, db-statements;desc=4, db-rows;desc=12, db-entities;desc=2
+     */
+    public String toServerTiming() {
+        return String.format(Locale.ROOT, "db;dur=%.3f, db-statements;desc=%d, db-rows;desc=%d, db-entities;desc=%d",
+                getDbMillis(), statements, rows, entityLoads);
+    }
+
+    /**
+     * 접근 로그 필드 ex) statements=4 rows=12 entities=2 db=3.215ms
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "statements=%d rows=%d entities=%d db=%.3fms", statements, rows, entityLoads, getDbMillis());
+    }
+}
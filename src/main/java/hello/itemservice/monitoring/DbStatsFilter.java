@@ -0,0 +1,110 @@
+package hello.itemservice.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * 요청마다 DB 작업을 집계해서 Server-Timing 응답 헤더와 요청 속성(접근 로그)으로 남긴다.
+ *
+ * - Server-Timing : 헤더는 응답 본문을 쓰기 전에 보내야 하므로, 본문을 쓰기 시작하는 시점까지의 값이다.
+ *                   (뷰 렌더링 중에 실행된 쿼리는 빠질 수 있다)
+ * - 요청 속성     : 요청이 끝난 뒤의 값이다. 접근 로그에서 %{itemservice.db}r 로 남긴다.
+ * - statementBudget : 요청 하나의 SQL 실행 수가 이 값을 넘으면 경고 로그를 남긴다. (0 이면 사용 안함)
+ */
+@Slf4j
+public class DbStatsFilter extends OncePerRequestFilter {
+
+    public static final String STATS_ATTRIBUTE = "itemservice.db";
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private final int statementBudget;
+
+    public DbStatsFilter(int statementBudget) {
+        this.statementBudget = statementBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        DbRequestStats stats = DbRequestStats.start();
+        ServerTimingResponse timingResponse = new ServerTimingResponse(response, stats);
+        try {
+            filterChain.doFilter(request, timingResponse);
+        } finally {
+            DbRequestStats.end();
+            timingResponse.writeServerTiming();
+            request.setAttribute(STATS_ATTRIBUTE, stats.toString());
+
+            if (statementBudget > 0 && stats.getStatements() > statementBudget) {
+                log.warn("db statement budget exceeded, {} {} {}, budget={}",
+                        request.getMethod(), request.getRequestURI(), stats, statementBudget);
+            }
+        }
+    }
+
+    /**
+     * 응답 본문을 쓰기 시작하거나 redirect, 오류로 응답이 확정되기 직전에 Server-Timing 헤더를 추가한다.
+     */
+    private static class ServerTimingResponse extends HttpServletResponseWrapper {
+
+        private final DbRequestStats stats;
+        private boolean written;
+
+        ServerTimingResponse(HttpServletResponse response, DbRequestStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        void writeServerTiming() {
+            if (!written && !isCommitted()) {
+                written = true;
+                addHeader(SERVER_TIMING, stats.toServerTiming());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeServerTiming();
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeServerTiming();
+            super.sendError(sc, msg);
+        }
+    }
+}
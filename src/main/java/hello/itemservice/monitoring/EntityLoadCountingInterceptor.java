@@ -0,0 +1,24 @@
+package hello.itemservice.monitoring;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+
+/**
+ * JPA 엔티티 로딩 수를 현재 요청의 DbRequestStats 에 더한다.
+ * DB 에서 읽은 엔티티와 2차 캐시에서 조립한 엔티티 모두 센다. (영속성 컨텍스트에 이미 있는 엔티티는 세지 않는다)
+ *
+ * SessionFactory 에 하나만 등록되므로 상태를 갖지 않는다.
+ */
+public class EntityLoadCountingInterceptor extends EmptyInterceptor {
+
+    @Override
+    public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+        DbRequestStats stats = DbRequestStats.current();
+        if (stats != null) {
+            stats.addEntityLoad();
+        }
+        return false;
+    }
+}
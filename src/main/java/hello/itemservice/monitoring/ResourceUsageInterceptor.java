@@ -0,0 +1,42 @@
+package hello.itemservice.monitoring;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 핸들러 실행 전후로 요청 스레드의 할당량, CPU 시간을 재서 엔드포인트별로 누적한다.
+ * 뷰 렌더링(Thymeleaf)까지 포함된다. (afterCompletion)
+ */
+public class ResourceUsageInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = ResourceUsageInterceptor.class.getName() + ".start";
+
+    private final ResourceUsageRegistry registry;
+
+    public ResourceUsageInterceptor(ResourceUsageRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START_ATTRIBUTE, registry.start());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start instanceof ThreadResourceMeter.Sample) {
+            registry.record(ResourceUsageRegistry.ENDPOINT, endpoint(request), (ThreadResourceMeter.Sample) start);
+        }
+    }
+
+    // /items/1, /items/2 ... 를 하나로 모으기 위해 실제 경로 대신 매핑된 패턴을 사용한다.
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
@@ -0,0 +1,87 @@
+package hello.itemservice.monitoring;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 엔드포인트별, 엔진 메서드별 누적 할당량, CPU 시간
+ *
+ * - endpoint : GET /items/{itemId} 처럼 요청 메서드 + URL 패턴 (ResourceUsageInterceptor)
+ * - backend  : v2.findById 처럼 엔진 + ItemService 메서드 (ResourceAccountingItemService)
+ *
+ * 값은 계속 누적한다. 대시보드는 두 번 읽은 값의 차이로 구간별 비율을 계산한다.
+ */
+public class ResourceUsageRegistry {
+
+    public static final String ENDPOINT = "endpoint";
+    public static final String BACKEND = "backend";
+
+    private final ThreadResourceMeter meter;
+    private final ConcurrentMap<String, ConcurrentMap<String, Usage>> groups = new ConcurrentHashMap<>();
+
+    public ResourceUsageRegistry(ThreadResourceMeter meter) {
+        this.meter = meter;
+    }
+
+    public ThreadResourceMeter.Sample start() {
+        return meter.sample();
+    }
+
+    public void record(String group, String name, ThreadResourceMeter.Sample start) {
+        ThreadResourceMeter.Sample end = meter.sample();
+        groups.computeIfAbsent(group, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(name, key -> new Usage())
+                .add(end.allocatedBytesSince(start), end.cpuNanosSince(start), end.wallNanosSince(start));
+    }
+
+    /**
+     * group -> name -> 값 (이름 순)
+     */
+    public Map<String, Map<String, Map<String, Long>>> snapshot() {
+        Map<String, Map<String, Map<String, Long>>> result = new TreeMap<>();
+        groups.forEach((group, usages) -> {
+            Map<String, Map<String, Long>> groupResult = new TreeMap<>();
+            usages.forEach((name, usage) -> groupResult.put(name, usage.toMap()));
+            result.put(group, groupResult);
+        });
+        return result;
+    }
+
+    public void clear() {
+        groups.clear();
+    }
+
+    private static class Usage {
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAdder cpuNanos = new LongAdder();
+        private final LongAdder wallNanos = new LongAdder();
+
+        void add(long bytes, long cpu, long wall) {
+            calls.increment();
+            allocatedBytes.add(bytes);
+            cpuNanos.add(cpu);
+            wallNanos.add(wall);
+        }
+
+        Map<String, Long> toMap() {
+            long count = calls.sum();
+            long bytes = allocatedBytes.sum();
+            long cpu = cpuNanos.sum();
+
+            Map<String, Long> result = new LinkedHashMap<>();
+            result.put("calls", count);
+            result.put("allocatedBytes", bytes);
+            result.put("cpuNanos", cpu);
+            result.put("wallNanos", wallNanos.sum());
+            result.put("allocatedBytesPerCall", count == 0 ? 0 : bytes / count);
+            result.put("cpuNanosPerCall", count == 0 ? 0 : cpu / count);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package hello.itemservice.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * SQL 실행 수, 실행 시간, 읽은 행 수를 현재 요청의 DbRequestStats 에 더하는 DataSource
+ *
+ * Connection, Statement, ResultSet 을 프록시로 감싼다.
+ * JdbcTemplate, MyBatis, JPA(Hibernate) 모두 DataSource 에서 커넥션을 얻으므로 한 곳에서 집계된다.
+ *
+ * - 실행 수 : execute, executeQuery, executeUpdate, executeBatch 호출 (배치는 한 번으로 센다)
+ * - DB 시간 : 실행 시간 + ResultSet.next 시간 (결과를 가져오는 왕복 포함)
+ * - 행 수   : ResultSet.next 가 true 를 반환한 횟수
+ */
+public class StatsDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final Set<String> CREATE_STATEMENT = Set.of("createStatement", "prepareStatement", "prepareCall");
+    private static final Set<String> EXECUTE = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    public StatsDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    /**
+     * 감싼 DataSource(커넥션 풀)를 닫는다. 빈 종료 시 호출된다.
+     */
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable) {
+            ((AutoCloseable) getTargetDataSource()).close();
+        }
+    }
+
+    private static Connection connection(Connection connection) {
+        return proxy(Connection.class, connection, (method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (CREATE_STATEMENT.contains(method.getName())) {
+                return statement((Statement) result);
+            }
+            return result;
+        });
+    }
+
+    private static Statement statement(Statement statement) {
+        Class<? extends Statement> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+
+        return proxy(type, statement, (method, args) -> {
+            String name = method.getName();
+
+            if (EXECUTE.contains(name)) {
+                long start = System.nanoTime();
+                try {
+                    Object result = invoke(statement, method, args);
+                    return result instanceof ResultSet ? resultSet((ResultSet) result) : result;
+                } finally {
+                    DbRequestStats stats = DbRequestStats.current();
+                    if (stats != null) {
+                        stats.addStatement(System.nanoTime() - start);
+                    }
+                }
+            }
+
+            Object result = invoke(statement, method, args);
+            if (name.equals("getResultSet") && result != null) {
+                return resultSet((ResultSet) result);
+            }
+            return result;
+        });
+    }
+
+    private static ResultSet resultSet(ResultSet resultSet) {
+        return proxy(ResultSet.class, resultSet, (method, args) -> {
+            if (!method.getName().equals("next")) {
+                return invoke(resultSet, method, args);
+            }
+
+            long start = System.nanoTime();
+            Boolean hasRow = (Boolean) invoke(resultSet, method, args);
+            DbRequestStats stats = DbRequestStats.current();
+            if (stats != null) {
+                stats.addFetch(System.nanoTime() - start, hasRow);
+            }
+            return hasRow;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, JdbcCall call) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            // unwrap, isWrapperFor 는 원본 객체 기준으로 동작한다.
+            if (method.getName().equals("unwrap") || method.getName().equals("isWrapperFor")) {
+                return invoke(target, method, args);
+            }
+            return call.invoke(method, args);
+        };
+        return (T) Proxy.newProxyInstance(StatsDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @FunctionalInterface
+    private interface JdbcCall {
+        Object invoke(Method method, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,19 @@
+package hello.itemservice.monitoring;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+
+/**
+ * DataSource 빈을 StatsDataSource 로 감싼다.
+ */
+public class StatsDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof StatsDataSource)) {
+            return new StatsDataSource((DataSource) bean);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,84 @@
+package hello.itemservice.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * 현재 스레드가 지금까지 할당한 메모리(byte)와 사용한 CPU 시간(ns)을 읽는다.
+ *
+ * 두 시점의 차이가 그 사이에 이 스레드가 한 일의 비용이다. (다른 스레드에 넘긴 작업은 포함되지 않는다)
+ * JVM 이 지원하지 않으면 -1 을 반환한다.
+ */
+@Slf4j
+public class ThreadResourceMeter {
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final com.sun.management.ThreadMXBean allocationMXBean;
+    private final boolean cpuTimeSupported;
+
+    public ThreadResourceMeter() {
+        this.allocationMXBean = allocationMXBean(threadMXBean);
+        this.cpuTimeSupported = threadMXBean.isCurrentThreadCpuTimeSupported();
+        if (cpuTimeSupported && !threadMXBean.isThreadCpuTimeEnabled()) {
+            threadMXBean.setThreadCpuTimeEnabled(true);
+        }
+        log.info("thread resource meter allocation={}, cpu={}", allocationMXBean != null, cpuTimeSupported);
+    }
+
+    private static com.sun.management.ThreadMXBean allocationMXBean(ThreadMXBean threadMXBean) {
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadMXBean;
+        if (!bean.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        if (!bean.isThreadAllocatedMemoryEnabled()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+        }
+        return bean;
+    }
+
+    public long allocatedBytes() {
+        // JDK 11 에는 getCurrentThreadAllocatedBytes() 가 없다.
+        return allocationMXBean == null ? -1 : allocationMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    public long cpuNanos() {
+        return cpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() : -1;
+    }
+
+    public Sample sample() {
+        return new Sample(allocatedBytes(), cpuNanos(), System.nanoTime());
+    }
+
+    /**
+     * 한 시점의 측정값
+     */
+    public static class Sample {
+
+        private final long allocatedBytes;
+        private final long cpuNanos;
+        private final long wallNanos;
+
+        Sample(long allocatedBytes, long cpuNanos, long wallNanos) {
+            this.allocatedBytes = allocatedBytes;
+            this.cpuNanos = cpuNanos;
+            this.wallNanos = wallNanos;
+        }
+
+        long allocatedBytesSince(Sample start) {
+            return allocatedBytes < 0 ? 0 : allocatedBytes - start.allocatedBytes;
+        }
+
+        long cpuNanosSince(Sample start) {
+            return cpuNanos < 0 ? 0 : cpuNanos - start.cpuNanos;
+        }
+
+        long wallNanosSince(Sample start) {
+            return wallNanos - start.wallNanos;
+        }
+    }
+}
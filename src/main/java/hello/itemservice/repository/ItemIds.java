@@ -0,0 +1,68 @@
+package hello.itemservice.repository;
+
+import hello.itemservice.domain.Item;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * findAllById 구현에서 공통으로 사용하는 id 목록 처리
+ *
+ * - IN (...) 절에 너무 많은 값이 들어가지 않도록 CHUNK_SIZE 단위로 나눠서 조회한다.
+ * - 결과는 요청한 id 순서대로 정렬한다. (중복 id 는 한 번만, 없는 id 는 제외)
+ */
+public final class ItemIds {
+
+    public static final int CHUNK_SIZE = 500;
+
+    private ItemIds() {
+    }
+
+    /**
+     * null 과 중복을 제거하고 요청 순서는 유지한다.
+     */
+    public static List<Long> distinct(Collection<Long> ids) {
+        return ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    public static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * 중복 제거한 id 를 청크 단위로 조회하고 요청 순서대로 정렬해서 반환한다.
+     */
+    public static List<Item> findInChunks(Collection<Long> ids, Function<List<Long>, List<Item>> finder) {
+        List<Long> distinctIds = distinct(ids);
+
+        List<Item> found = new ArrayList<>(distinctIds.size());
+        for (List<Long> chunk : chunks(distinctIds)) {
+            found.addAll(finder.apply(chunk));
+        }
+        return inRequestedOrder(distinctIds, found);
+    }
+
+    public static List<Item> inRequestedOrder(Collection<Long> ids, Collection<Item> items) {
+        Map<Long, Item> itemById = new HashMap<>();
+        for (Item item : items) {
+            itemById.put(item.getId(), item);
+        }
+
+        List<Item> result = new ArrayList<>(itemById.size());
+        for (Long id : distinct(ids)) {
+            Item item = itemById.get(id);
+            if (item != null) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+}
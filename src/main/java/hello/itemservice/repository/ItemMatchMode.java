@@ -0,0 +1,55 @@
+package hello.itemservice.repository;
+
+/**
+ * 상품명 검색 방식
+ *
+ * - EXACT    : 상품명이 같은 상품 (item_name = ?)
+ * - PREFIX   : 상품명이 검색어로 시작하는 상품 (item_name like '검색어%')
+ * - CONTAINS : 상품명에 검색어가 들어간 상품 (item_name like '%검색어%')
+ *
+ * EXACT, PREFIX 는 item_name 인덱스를 범위 검색으로 사용할 수 있다.
+ * CONTAINS 는 앞에 % 가 붙으므로 인덱스를 사용하지 못하고 전체를 검색한다.
+ */
+public enum ItemMatchMode {
+
+    EXACT, PREFIX, CONTAINS;
+
+    // like 패턴의 이스케이프 문자 (SQL 에서는 escape '\' 로 지정한다)
+    public static final char LIKE_ESCAPE = '\\';
+
+    /**
+     * 검색어의 %, _ 를 이스케이프해서 like 패턴을 만든다.
+     * EXACT 는 와일드카드 없이 이스케이프만 한다.
+     */
+    public String likePattern(String itemName) {
+        StringBuilder pattern = new StringBuilder(itemName.length() + 2);
+        if (this == CONTAINS) {
+            pattern.append('%');
+        }
+        for (int i = 0; i < itemName.length(); i++) {
+            char c = itemName.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        if (this != EXACT) {
+            pattern.append('%');
+        }
+        return pattern.toString();
+    }
+
+    public boolean matches(String value, String itemName) {
+        if (value == null) {
+            return false;
+        }
+        switch (this) {
+            case EXACT:
+                return value.equals(itemName);
+            case PREFIX:
+                return value.startsWith(itemName);
+            default:
+                return value.contains(itemName);
+        }
+    }
+}
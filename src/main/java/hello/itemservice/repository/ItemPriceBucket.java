@@ -0,0 +1,27 @@
+package hello.itemservice.repository;
+
+import lombok.Data;
+
+/**
+ * 가격 분포의 한 구간
+ * bucket = price / ItemStats.PRICE_BUCKET_SIZE
+ */
+@Data
+public class ItemPriceBucket {
+
+    private int bucket;
+    private long itemCount;
+
+    public ItemPriceBucket() {
+    }
+
+    public ItemPriceBucket(int bucket, long itemCount) {
+        this.bucket = bucket;
+        this.itemCount = itemCount;
+    }
+
+    // 구간의 시작 가격
+    public int getLowerBound() {
+        return bucket * ItemStats.PRICE_BUCKET_SIZE;
+    }
+}
@@ -2,6 +2,7 @@ package hello.itemservice.repository;
 
 import hello.itemservice.domain.Item;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +14,17 @@ public interface ItemRepository {
 
     Optional<Item> findById(Long id);
 
+    /**
+     * 여러 상품을 한 번에 조회한다.
+     * 결과는 요청한 id 순서를 따르고, 중복 id 는 한 번만 포함되며 없는 id 는 제외된다.
+     */
+    List<Item> findAllById(Collection<Long> ids);
+
     List<Item> findAll(ItemSearchCond cond);
 
+    /**
+     * 상품 수, 재고 가치, 가격 분포 통계
+     */
+    ItemStats stats();
+
 }
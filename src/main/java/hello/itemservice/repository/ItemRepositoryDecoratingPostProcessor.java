@@ -0,0 +1,38 @@
+package hello.itemservice.repository;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.util.stream.Collectors;
+
+/**
+ * ItemRepository 빈을 등록된 ItemRepositoryDecorator 로 감싼다. (JFR 이벤트 ...)
+ *
+ * 예외 변환(PersistenceExceptionTranslationPostProcessor)은 order 가 LOWEST_PRECEDENCE 이고 @Repository 가 붙은 클래스에만 적용된다.
+ * 그보다 먼저 감싸면 예외 변환은 @Repository 가 없는 데코레이터를 보고 건너뛴다. (JPA 엔진이 javax.persistence 예외를 그대로 던진다)
+ * 그래서 Ordered 를 구현하지 않는다. Ordered 를 구현한 BeanPostProcessor(트랜잭션 프록시, 예외 변환)가 모두 끝난 다음에 실행된다.
+ * 데코레이터 사이의 순서는 ItemRepositoryDecorator 의 order 로 정한다.
+ */
+public class ItemRepositoryDecoratingPostProcessor implements BeanPostProcessor {
+
+    // 데코레이터 위치 (안쪽부터)
+    public static final int JFR_ORDER = 10;
+
+    private final ObjectProvider<ItemRepositoryDecorator> decorators;
+
+    public ItemRepositoryDecoratingPostProcessor(ObjectProvider<ItemRepositoryDecorator> decorators) {
+        this.decorators = decorators;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof ItemRepository)) {
+            return bean;
+        }
+        ItemRepository repository = (ItemRepository) bean;
+        for (ItemRepositoryDecorator decorator : decorators.orderedStream().collect(Collectors.toList())) {
+            repository = decorator.decorate(repository);
+        }
+        return repository;
+    }
+}
@@ -0,0 +1,29 @@
+package hello.itemservice.repository;
+
+import org.springframework.core.Ordered;
+
+import java.util.function.Function;
+
+/**
+ * ItemRepository 를 감싸는 데코레이터. 빈으로 등록하면 ItemRepositoryDecoratingPostProcessor 가 적용한다.
+ * order 가 작을수록 먼저 감싸므로 안쪽에 위치한다. (ItemRepositoryDecoratingPostProcessor 의 *_ORDER)
+ */
+public class ItemRepositoryDecorator implements Ordered {
+
+    private final int order;
+    private final Function<ItemRepository, ItemRepository> decorator;
+
+    public ItemRepositoryDecorator(int order, Function<ItemRepository, ItemRepository> decorator) {
+        this.order = order;
+        this.decorator = decorator;
+    }
+
+    public ItemRepository decorate(ItemRepository target) {
+        return decorator.apply(target);
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+}
@@ -6,7 +6,12 @@ import lombok.Data;
 public class ItemSearchCond {
 
     private String itemName;
+    private Integer minPrice; // 가격 범위 (minPrice <= price <= maxPrice)
     private Integer maxPrice;
+    private Integer minQuantity; // 재고 수량 조건 (quantity >= minQuantity, 재고 있는 상품만 보려면 1)
+    private ItemMatchMode matchMode = ItemMatchMode.CONTAINS; // 상품명 검색 방식
+    private ItemSort sort = ItemSort.ID; // 정렬 순서
+    private Integer limit; // 최대 결과 수 (null 이거나 0 이하면 제한 없음)
 
     public ItemSearchCond() {
     }
@@ -15,4 +20,28 @@ public class ItemSearchCond {
         this.itemName = itemName;
         this.maxPrice = maxPrice;
     }
+
+    public ItemSearchCond(String itemName, Integer maxPrice, ItemMatchMode matchMode) {
+        this.itemName = itemName;
+        this.maxPrice = maxPrice;
+        this.matchMode = matchMode;
+    }
+
+    // 검색 폼에서 빈 값으로 넘어오면 기본값(CONTAINS)을 사용한다.
+    public ItemMatchMode getMatchMode() {
+        return matchMode == null ? ItemMatchMode.CONTAINS : matchMode;
+    }
+
+    public ItemSort getSort() {
+        return sort == null ? ItemSort.ID : sort;
+    }
+
+    public boolean hasLimit() {
+        return limit != null && limit > 0;
+    }
+
+    // 이스케이프된 like 패턴 (SQL, JPQL 파라미터로 사용)
+    public String getItemNamePattern() {
+        return itemName == null ? null : getMatchMode().likePattern(itemName);
+    }
 }
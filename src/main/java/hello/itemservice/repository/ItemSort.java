@@ -0,0 +1,61 @@
+package hello.itemservice.repository;
+
+import hello.itemservice.domain.Item;
+
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * 상품 검색 정렬 순서
+ *
+ * 정렬 값이 같으면 id 순으로 정렬해서 결과 순서가 항상 같도록 한다.
+ * null 은 가장 작은 값으로 본다. (H2 기본값과 같다 - 오름차순이면 맨 앞, 내림차순이면 맨 뒤)
+ */
+public enum ItemSort {
+
+    ID("id", true, Item::getId),
+    PRICE_ASC("price", true, Item::getPrice),
+    PRICE_DESC("price", false, Item::getPrice),
+    QUANTITY_ASC("quantity", true, Item::getQuantity),
+    QUANTITY_DESC("quantity", false, Item::getQuantity);
+
+    private final String property; // 컬럼명, 엔티티 속성명 (둘이 같다)
+    private final boolean ascending;
+    private final Comparator<Item> comparator;
+
+    <T extends Comparable<? super T>> ItemSort(String property, boolean ascending, Function<Item, T> key) {
+        this.property = property;
+        this.ascending = ascending;
+
+        Comparator<Item> byKey = Comparator.comparing(key, Comparator.nullsFirst(Comparator.naturalOrder()));
+        this.comparator = (ascending ? byKey : byKey.reversed()).thenComparing(Item::getId);
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    // 메모리 저장소에서 사용하는 정렬 순서
+    public Comparator<Item> comparator() {
+        return comparator;
+    }
+
+    // SQL order by 절 ex) price desc, id asc
+    public String orderBy() {
+        return orderBy(null);
+    }
+
+    // JPQL order by 절 ex) i.price desc, i.id asc
+    public String orderBy(String alias) {
+        String prefix = alias == null ? "" : alias + ".";
+        String orderBy = prefix + property + (ascending ? " asc" : " desc");
+        if (this != ID) {
+            orderBy += ", " + prefix + "id asc";
+        }
+        return orderBy;
+    }
+}
@@ -0,0 +1,23 @@
+package hello.itemservice.repository;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 상품 통계 - 상품 수, 재고 가치(sum(price * quantity)), 가격 분포
+ *
+ * 가격 분포는 PRICE_BUCKET_SIZE 단위 구간별 상품 수이다. (가격이 없는 상품은 제외)
+ * 가격, 수량이 없는 상품은 재고 가치 합계에서 제외된다.
+ */
+@Data
+public class ItemStats {
+
+    public static final int PRICE_BUCKET_SIZE = 10000;
+
+    private final long itemCount;
+    private final long totalStockValue;
+    private final int priceBucketSize = PRICE_BUCKET_SIZE;
+    private final List<ItemPriceBucket> priceHistogram;
+
+}
@@ -1,8 +1,12 @@
 package hello.itemservice.repository.jdbctemplate;
 
 import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemIds;
+import hello.itemservice.repository.ItemMatchMode;
+import hello.itemservice.repository.ItemPriceBucket;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.EmptyResultDataAccessException;
@@ -15,6 +19,8 @@ import org.springframework.util.StringUtils;
 import javax.sql.DataSource;
 import java.sql.PreparedStatement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -89,16 +95,43 @@ public class JdbcTemplateItemRepositoryV1 implements ItemRepository {
         }
     }
 
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        return ItemIds.findInChunks(ids, chunk -> {
+            // 청크 크기만큼 ? 를 만든다. -> where id in (?,?,?)
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            String sql = "select id, item_name, price, quantity from Item where id in (" + placeholders + ")";
+            return template.query(sql, itemRowMapper(), chunk.toArray());
+        });
+    }
+
+    @Override
+    public ItemStats stats() {
+        String totalsSql = "select count(*) as item_count, sum(cast(price as bigint) * quantity) as total_stock_value from item";
+
+        // 그룹핑 식과 조회 식이 같아야 하므로 구간 크기는 리터럴로 넣는다.
+        String bucket = "price / " + ItemStats.PRICE_BUCKET_SIZE;
+        String histogramSql = "select " + bucket + " as bucket, count(*) as item_count from item" +
+                " where price is not null group by " + bucket + " order by bucket";
+
+        List<ItemPriceBucket> histogram = template.query(histogramSql, priceBucketRowMapper());
+
+        return template.queryForObject(totalsSql, (rs, rowNum) ->
+                new ItemStats(rs.getLong("item_count"), rs.getLong("total_stock_value"), histogram));
+    }
+
     @Override
     public List<Item> findAll(ItemSearchCond cond) {
 
         String itemName = cond.getItemName();
+        Integer minPrice = cond.getMinPrice();
         Integer maxPrice = cond.getMaxPrice();
+        Integer minQuantity = cond.getMinQuantity();
 
         String sql = "select id, item_name, price, quantity from Item";
 
         // 동적 쿼리
-        if (StringUtils.hasText(itemName) || maxPrice != null) {
+        if (StringUtils.hasText(itemName) || minPrice != null || maxPrice != null || minQuantity != null) {
             sql += " where";
         }
 
@@ -106,8 +139,24 @@ public class JdbcTemplateItemRepositoryV1 implements ItemRepository {
         List<Object> param = new ArrayList<>();
 
         if (StringUtils.hasText(itemName)) {
-            sql += " item_name like concat('%',?,'%')";
-            param.add(itemName);
+            // EXACT, PREFIX 는 item_name 인덱스를 사용한다. (앞에 % 가 없는 like)
+            if (cond.getMatchMode() == ItemMatchMode.EXACT) {
+                sql += " item_name = ?";
+                param.add(itemName);
+            } else {
+                sql += " item_name like ? escape '\\'";
+                param.add(cond.getItemNamePattern());
+            }
+            andFlag = true;
+        }
+
+        if (minPrice != null) {
+            if (andFlag) {
+                sql += " and";
+            }
+
+            sql += " price >= ?";
+            param.add(minPrice);
             andFlag = true;
         }
 
@@ -118,6 +167,24 @@ public class JdbcTemplateItemRepositoryV1 implements ItemRepository {
 
             sql += " price <= ?";
             param.add(maxPrice);
+            andFlag = true;
+        }
+
+        if (minQuantity != null) {
+            if (andFlag) {
+                sql += " and";
+            }
+
+            sql += " quantity >= ?";
+            param.add(minQuantity);
+        }
+
+        // 정렬, 개수 제한은 DB 에서 처리한다. (전체를 가져와서 자르지 않는다)
+        sql += " order by " + cond.getSort().orderBy();
+
+        if (cond.hasLimit()) {
+            sql += " limit ?";
+            param.add(cond.getLimit());
         }
 
         log.info("sql={}", sql);
@@ -127,6 +194,10 @@ public class JdbcTemplateItemRepositoryV1 implements ItemRepository {
     }
 
 
+    private RowMapper<ItemPriceBucket> priceBucketRowMapper() {
+        return (rs, rowNum) -> new ItemPriceBucket(rs.getInt("bucket"), rs.getLong("item_count"));
+    }
+
     private RowMapper<Item> itemRowMapper() {
         return((rs, rowNum) -> {
             Item item = new Item();
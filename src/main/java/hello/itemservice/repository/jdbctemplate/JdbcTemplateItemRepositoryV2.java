@@ -1,8 +1,12 @@
 package hello.itemservice.repository.jdbctemplate;
 
 import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemIds;
+import hello.itemservice.repository.ItemMatchMode;
+import hello.itemservice.repository.ItemPriceBucket;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.EmptyResultDataAccessException;
@@ -17,6 +21,7 @@ import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -99,25 +104,64 @@ public class JdbcTemplateItemRepositoryV2 implements ItemRepository {
         }
     }
 
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        // NamedParameterJdbcTemplate 은 컬렉션 파라미터를 in (?,?,?) 로 펼쳐준다.
+        String sql = "select id, item_name, price, quantity from Item where id in (:ids)";
+
+        return ItemIds.findInChunks(ids, chunk -> template.query(sql, Map.of("ids", chunk), itemRowMapper()));
+    }
+
+    @Override
+    public ItemStats stats() {
+        String totalsSql = "select count(*) as item_count, sum(cast(price as bigint) * quantity) as total_stock_value from item";
+
+        // 그룹핑 식과 조회 식이 같아야 하므로 구간 크기는 리터럴로 넣는다.
+        String bucket = "price / " + ItemStats.PRICE_BUCKET_SIZE;
+        String histogramSql = "select " + bucket + " as bucket, count(*) as item_count from item" +
+                " where price is not null group by " + bucket + " order by bucket";
+
+        List<ItemPriceBucket> histogram = template.query(histogramSql, priceBucketRowMapper());
+
+        return template.queryForObject(totalsSql, Map.of(), (rs, rowNum) ->
+                new ItemStats(rs.getLong("item_count"), rs.getLong("total_stock_value"), histogram));
+    }
+
     @Override
     public List<Item> findAll(ItemSearchCond cond) {
 
         String itemName = cond.getItemName();
+        Integer minPrice = cond.getMinPrice();
         Integer maxPrice = cond.getMaxPrice();
+        Integer minQuantity = cond.getMinQuantity();
 
         SqlParameterSource param = new BeanPropertySqlParameterSource(cond);
 
         String sql = "select id, item_name, price, quantity from Item";
 
         // 동적 쿼리
-        if (StringUtils.hasText(itemName) || maxPrice != null) {
+        if (StringUtils.hasText(itemName) || minPrice != null || maxPrice != null || minQuantity != null) {
             sql += " where";
         }
 
         boolean andFlag = false;
 
         if (StringUtils.hasText(itemName)) {
-            sql += " item_name like concat('%',:itemName,'%')";
+            // EXACT, PREFIX 는 item_name 인덱스를 사용한다. (앞에 % 가 없는 like)
+            if (cond.getMatchMode() == ItemMatchMode.EXACT) {
+                sql += " item_name = :itemName";
+            } else {
+                sql += " item_name like :itemNamePattern escape '\\'";
+            }
+            andFlag = true;
+        }
+
+        if (minPrice != null) {
+            if (andFlag) {
+                sql += " and";
+            }
+
+            sql += " price >= :minPrice";
             andFlag = true;
         }
 
@@ -127,6 +171,22 @@ public class JdbcTemplateItemRepositoryV2 implements ItemRepository {
             }
 
             sql += " price <= :maxPrice";
+            andFlag = true;
+        }
+
+        if (minQuantity != null) {
+            if (andFlag) {
+                sql += " and";
+            }
+
+            sql += " quantity >= :minQuantity";
+        }
+
+        // 정렬, 개수 제한은 DB 에서 처리한다. (전체를 가져와서 자르지 않는다)
+        sql += " order by " + cond.getSort().orderBy();
+
+        if (cond.hasLimit()) {
+            sql += " limit :limit";
         }
 
         log.info("sql={}", sql);
@@ -136,6 +196,10 @@ public class JdbcTemplateItemRepositoryV2 implements ItemRepository {
     }
 
 
+    private RowMapper<ItemPriceBucket> priceBucketRowMapper() {
+        return BeanPropertyRowMapper.newInstance(ItemPriceBucket.class);
+    }
+
     private RowMapper<Item> itemRowMapper() {
         return BeanPropertyRowMapper.newInstance(Item.class);
         // rs 의 결과값을 Item dto에 있는 필드명을 기준으로 자동으로 매핑해줌
@@ -1,10 +1,15 @@
 package hello.itemservice.repository.jpa;
 
 import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemIds;
+import hello.itemservice.repository.ItemMatchMode;
+import hello.itemservice.repository.ItemPriceBucket;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.annotations.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -12,8 +17,10 @@ import org.springframework.util.StringUtils;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Repository
@@ -50,15 +57,46 @@ public class JpaItemRepository implements ItemRepository {
         return Optional.ofNullable(item); // 조회한 객체가 null 일 수도 있으니 ofNullable 처리
     }
 
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        String jpql = "select i from Item i where i.id in :ids";
+
+        return ItemIds.findInChunks(ids, chunk -> em.createQuery(jpql, Item.class)
+                .setParameter("ids", chunk)
+                .getResultList());
+    }
+
+    @Override
+    public ItemStats stats() {
+        Object[] totals = em.createQuery(
+                        "select count(i), sum(cast(i.price as long) * i.quantity) from Item i", Object[].class)
+                .getSingleResult();
+
+        // 그룹핑 식과 조회 식이 같아야 하므로 구간 크기는 리터럴로 넣는다.
+        String bucket = "i.price / " + ItemStats.PRICE_BUCKET_SIZE;
+        List<ItemPriceBucket> histogram = em.createQuery(
+                        "select " + bucket + ", count(i) from Item i where i.price is not null" +
+                                " group by " + bucket + " order by " + bucket, Object[].class)
+                .getResultList()
+                .stream()
+                .map(row -> new ItemPriceBucket(((Number) row[0]).intValue(), ((Number) row[1]).longValue()))
+                .collect(Collectors.toList());
+
+        Number totalStockValue = (Number) totals[1];
+        return new ItemStats(((Number) totals[0]).longValue(), totalStockValue == null ? 0 : totalStockValue.longValue(), histogram);
+    }
+
     @Override
     public List<Item> findAll(ItemSearchCond cond) {
 
         String jpql = "select i from Item i";
 
+        Integer minPrice = cond.getMinPrice();
         Integer maxPrice = cond.getMaxPrice();
+        Integer minQuantity = cond.getMinQuantity();
         String itemName = cond.getItemName();
 
-        if (StringUtils.hasText(itemName) || maxPrice != null) {
+        if (StringUtils.hasText(itemName) || minPrice != null || maxPrice != null || minQuantity != null) {
             jpql += " where";
         }
 
@@ -67,8 +105,24 @@ public class JpaItemRepository implements ItemRepository {
         List<Object> param = new ArrayList<>();
 
         if (StringUtils.hasText(itemName)) {
-            jpql += " i.itemName like concat('%',:itemName,'%')";
-            param.add(itemName);
+            // EXACT, PREFIX 는 item_name 인덱스를 사용한다. (앞에 % 가 없는 like)
+            if (cond.getMatchMode() == ItemMatchMode.EXACT) {
+                jpql += " i.itemName = :itemName";
+                param.add(itemName);
+            } else {
+                jpql += " i.itemName like :itemName escape '\\'";
+                param.add(cond.getItemNamePattern());
+            }
+            andFlag = true;
+        }
+
+        if (minPrice != null) {
+            if (andFlag) {
+                jpql += " and";
+            }
+
+            jpql += " i.price >= :minPrice";
+            param.add(minPrice);
             andFlag = true;
         }
 
@@ -79,20 +133,46 @@ public class JpaItemRepository implements ItemRepository {
 
             jpql += " i.price <= :maxPrice";
             param.add(maxPrice);
+            andFlag = true;
+        }
+
+        if (minQuantity != null) {
+            if (andFlag) {
+                jpql += " and";
+            }
+
+            jpql += " i.quantity >= :minQuantity";
+            param.add(minQuantity);
         }
 
+        jpql += " order by " + cond.getSort().orderBy("i");
+
         log.info("jpql={}", jpql);
 
         TypedQuery<Item> query = em.createQuery(jpql, Item.class);
+        query.setHint(QueryHints.CACHEABLE, true); // 쿼리 캐시 사용 (hibernate.cache.use_query_cache=true 일 때만 동작)
 
         if (StringUtils.hasText(itemName)) {
-            query.setParameter("itemName", itemName);
+            query.setParameter("itemName", cond.getMatchMode() == ItemMatchMode.EXACT ? itemName : cond.getItemNamePattern());
+        }
+
+        if (minPrice != null) {
+            query.setParameter("minPrice", minPrice);
         }
 
         if (maxPrice != null) {
             query.setParameter("maxPrice", maxPrice);
         }
 
+        if (minQuantity != null) {
+            query.setParameter("minQuantity", minQuantity);
+        }
+
+        // 개수 제한은 DB 에서 처리한다. (limit 절로 변환된다)
+        if (cond.hasLimit()) {
+            query.setMaxResults(cond.getLimit());
+        }
+
         return query.getResultList();
     }
 }
@@ -1,17 +1,26 @@
 package hello.itemservice.repository.jpa;
 
 import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemIds;
+import hello.itemservice.repository.ItemMatchMode;
+import hello.itemservice.repository.ItemPriceBucket;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSort;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Repository
@@ -39,20 +48,79 @@ public class JpaItemRepositoryV2 implements ItemRepository {
         return repository.findById(id);
     }
 
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        return ItemIds.findInChunks(ids, repository::findAllById);
+    }
+
+    @Override
+    public ItemStats stats() {
+        Object[] totals = repository.stockTotals().get(0);
+
+        List<ItemPriceBucket> histogram = repository.priceHistogram().stream()
+                .map(row -> new ItemPriceBucket(((Number) row[0]).intValue(), ((Number) row[1]).longValue()))
+                .collect(Collectors.toList());
+
+        Number totalStockValue = (Number) totals[1];
+        return new ItemStats(((Number) totals[0]).longValue(), totalStockValue == null ? 0 : totalStockValue.longValue(), histogram);
+    }
+
     @Override
     public List<Item> findAll(ItemSearchCond cond) {
-        String itemName = cond.getItemName();
-        Integer maxPrice = cond.getMaxPrice();
-
-        if (StringUtils.hasText(itemName) && maxPrice != null) {
-//            return repository.findByItemNameLikeAndPriceLessThanEqual("%" + itemName + "%", maxPrice);
-            return repository.findItems("%" + itemName + "%", maxPrice);
-        } else if (StringUtils.hasText(itemName)) {
-            return repository.findByItemNameLike("%" + itemName + "%");
-        } else if (maxPrice != null) {
-            return repository.findByPriceLessThanEqual(maxPrice);
-        } else {
-            return repository.findAll();
+
+        // 조건이 없는(null) Specification 은 where 절에서 빠진다.
+        Specification<Item> spec = Specification.where(itemName(cond.getItemName(), cond.getMatchMode()))
+                .and(minPrice(cond.getMinPrice()))
+                .and(maxPrice(cond.getMaxPrice()))
+                .and(minQuantity(cond.getMinQuantity()));
+
+        Sort sort = sort(cond.getSort());
+
+        if (cond.hasLimit()) {
+            // limit 절만 붙여서 조회한다. (Page 로 조회하면 count 쿼리가 한 번 더 실행된다)
+            return repository.findAll(spec, sort, cond.getLimit());
+        }
+        return repository.findAll(spec, sort);
+    }
+
+    // 정렬 값이 같으면 id 순
+    private Sort sort(ItemSort itemSort) {
+        Sort sort = Sort.by(itemSort.isAscending() ? Sort.Direction.ASC : Sort.Direction.DESC, itemSort.getProperty());
+        if (itemSort != ItemSort.ID) {
+            sort = sort.and(Sort.by("id"));
+        }
+        return sort;
+    }
+
+    // EXACT 는 =, PREFIX, CONTAINS 는 이스케이프된 like 패턴 (EXACT, PREFIX 는 item_name 인덱스를 사용한다)
+    private Specification<Item> itemName(String itemName, ItemMatchMode matchMode) {
+        if (!StringUtils.hasText(itemName)) {
+            return null;
+        }
+        if (matchMode == ItemMatchMode.EXACT) {
+            return (root, query, cb) -> cb.equal(root.<String>get("itemName"), itemName);
+        }
+        return (root, query, cb) -> cb.like(root.<String>get("itemName"), matchMode.likePattern(itemName), ItemMatchMode.LIKE_ESCAPE);
+    }
+
+    private Specification<Item> minPrice(Integer minPrice) {
+        if (minPrice == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.<Integer>get("price"), minPrice);
+    }
+
+    private Specification<Item> maxPrice(Integer maxPrice) {
+        if (maxPrice == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.<Integer>get("price"), maxPrice);
+    }
+
+    private Specification<Item> minQuantity(Integer minQuantity) {
+        if (minQuantity == null) {
+            return null;
         }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.<Integer>get("quantity"), minQuantity);
     }
 }
@@ -1,21 +1,35 @@
 package hello.itemservice.repository.jpa;
 
 import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import hello.itemservice.domain.Item;
 import hello.itemservice.domain.QItem;
+import hello.itemservice.repository.ItemIds;
+import hello.itemservice.repository.ItemMatchMode;
+import hello.itemservice.repository.ItemPriceBucket;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSort;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
+import org.hibernate.annotations.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static hello.itemservice.domain.QItem.item;
 
@@ -55,6 +69,15 @@ public class JpaItemRepositoryV3 implements ItemRepository {
         return Optional.ofNullable(item);
     }
 
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        return ItemIds.findInChunks(ids, chunk -> query
+                .select(item)
+                .from(item)
+                .where(item.id.in(chunk))
+                .fetch());
+    }
+
     /*public List<Item> findAllOld(ItemSearchCond cond) {
 
         String itemName = cond.getItemName();
@@ -88,16 +111,63 @@ public class JpaItemRepositoryV3 implements ItemRepository {
         Integer maxPrice = cond.getMaxPrice();
 
         // Query dsl 사용하기!
-        return query
+        JPAQuery<Item> findQuery = query
                 .select(item)
                 .from(item)
-                .where(likeItemName(itemName), maxPrice(maxPrice)) // 동적쿼리 조건절
-                .fetch();
+                .where(likeItemName(itemName, cond.getMatchMode()), // 동적쿼리 조건절
+                        minPrice(cond.getMinPrice()),
+                        maxPrice(maxPrice),
+                        minQuantity(cond.getMinQuantity()))
+                .orderBy(orderBy(cond.getSort()))
+                .setHint(QueryHints.CACHEABLE, true); // 쿼리 캐시 사용
+
+        // 개수 제한은 DB 에서 처리한다. (limit 절로 변환된다)
+        if (cond.hasLimit()) {
+            findQuery.limit(cond.getLimit());
+        }
+
+        return findQuery.fetch();
     }
 
-    private BooleanExpression likeItemName(String itemName) {
-        if (StringUtils.hasText(itemName)) {
-            return item.itemName.like("%" + itemName + "%");
+    @Override
+    public ItemStats stats() {
+        NumberExpression<Long> stockValue = item.price.castToNum(Long.class).multiply(item.quantity).sum();
+        Tuple totals = query
+                .select(item.count(), stockValue)
+                .from(item)
+                .fetchOne();
+
+        // 그룹핑 식과 조회 식이 같아야 하므로 구간 크기는 파라미터가 아닌 리터럴로 넣는다.
+        NumberExpression<Integer> bucket = Expressions.numberTemplate(Integer.class, "{0} / " + ItemStats.PRICE_BUCKET_SIZE, item.price);
+        List<ItemPriceBucket> histogram = query
+                .select(bucket, item.count())
+                .from(item)
+                .where(item.price.isNotNull())
+                .groupBy(bucket)
+                .orderBy(bucket.asc())
+                .fetch()
+                .stream()
+                .map(tuple -> new ItemPriceBucket(tuple.get(bucket), tuple.get(item.count())))
+                .collect(Collectors.toList());
+
+        Long totalStockValue = totals.get(stockValue);
+        return new ItemStats(totals.get(item.count()), totalStockValue == null ? 0 : totalStockValue, histogram);
+    }
+
+    private BooleanExpression likeItemName(String itemName, ItemMatchMode matchMode) {
+        if (!StringUtils.hasText(itemName)) {
+            return null;
+        }
+        // EXACT, PREFIX 는 item_name 인덱스를 사용한다. (앞에 % 가 없는 like)
+        if (matchMode == ItemMatchMode.EXACT) {
+            return item.itemName.eq(itemName);
+        }
+        return item.itemName.like(matchMode.likePattern(itemName), ItemMatchMode.LIKE_ESCAPE);
+    }
+
+    private BooleanExpression minPrice(Integer minPrice) {
+        if (minPrice != null) {
+            return item.price.goe(minPrice);
         }
         return null;
     }
@@ -109,6 +179,28 @@ public class JpaItemRepositoryV3 implements ItemRepository {
         return null;
     }
 
+    private BooleanExpression minQuantity(Integer minQuantity) {
+        if (minQuantity != null) {
+            return item.quantity.goe(minQuantity);
+        }
+        return null;
+    }
+
+    // 정렬 값이 같으면 id 순
+    private OrderSpecifier<?>[] orderBy(ItemSort sort) {
+        Order direction = sort.isAscending() ? Order.ASC : Order.DESC;
+        switch (sort) {
+            case PRICE_ASC:
+            case PRICE_DESC:
+                return new OrderSpecifier<?>[]{new OrderSpecifier<>(direction, item.price), item.id.asc()};
+            case QUANTITY_ASC:
+            case QUANTITY_DESC:
+                return new OrderSpecifier<?>[]{new OrderSpecifier<>(direction, item.quantity), item.id.asc()};
+            default:
+                return new OrderSpecifier<?>[]{item.id.asc()};
+        }
+    }
+
 
 
 }
@@ -0,0 +1,19 @@
+package hello.itemservice.repository.jpa;
+
+import hello.itemservice.domain.Item;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * limit 검색 (SpringDataJpaItemRepository 의 커스텀 조각)
+ *
+ * findAll(spec, Pageable) 은 결과가 limit 개를 채우면 전체 개수를 구하는 count 쿼리를 한 번 더 실행한다.
+ * 검색 화면은 전체 개수를 쓰지 않으므로, 같은 Specification 으로 limit 절만 붙여서 한 번만 조회한다.
+ */
+public interface LimitedItemSpecificationExecutor {
+
+    List<Item> findAll(@Nullable Specification<Item> spec, Sort sort, int limit);
+}
@@ -0,0 +1,48 @@
+package hello.itemservice.repository.jpa;
+
+import hello.itemservice.domain.Item;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+// 스프링 데이터가 이름(인터페이스 + Impl)으로 찾아서 SpringDataJpaItemRepository 에 붙인다.
+class LimitedItemSpecificationExecutorImpl implements LimitedItemSpecificationExecutor {
+
+    private final EntityManager em;
+
+    LimitedItemSpecificationExecutorImpl(EntityManager em) {
+        this.em = em;
+    }
+
+    @Override
+    public List<Item> findAll(@Nullable Specification<Item> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Item> query = cb.createQuery(Item.class);
+        Root<Item> root = query.from(Item.class);
+
+        // 조건이 없는(null) Specification 은 where 절에서 빠진다. (SimpleJpaRepository 와 같다)
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.select(root).orderBy(toOrders(sort, root, cb));
+
+        // findAll(spec, sort) 와 같이 조건, 정렬, limit 이 같으면 쿼리 캐시를 사용한다.
+        return em.createQuery(query)
+                .setMaxResults(limit)
+                .setHint(CACHEABLE, true)
+                .getResultList();
+    }
+}
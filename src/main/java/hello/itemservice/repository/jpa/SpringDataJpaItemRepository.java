@@ -1,23 +1,37 @@
 package hello.itemservice.repository.jpa;
 
 import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemStats;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.lang.Nullable;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
-public interface SpringDataJpaItemRepository extends JpaRepository<Item, Long> {
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
 
-    List<Item> findByItemNameLike(String itemName);
+// 검색 조건이 많아서 findAll 검색은 Specification 으로 동적 쿼리를 만든다. (JpaItemRepositoryV2)
+// limit 검색은 count 쿼리 없이 조회하는 커스텀 조각을 사용한다. (LimitedItemSpecificationExecutor)
+public interface SpringDataJpaItemRepository extends JpaRepository<Item, Long>, JpaSpecificationExecutor<Item>,
+        LimitedItemSpecificationExecutor {
 
-    List<Item> findByPriceLessThanEqual(Integer price);
+    // findAll 검색 - 조건, 정렬이 같으면 쿼리 캐시를 사용한다. (JpaSpecificationExecutor 메서드를 다시 선언해서 힌트를 붙인다)
+    @Override
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
+    List<Item> findAll(@Nullable Specification<Item> spec, Sort sort);
 
-    // 쿼리 메서드 사용 (아래 메서드와 같은 기능 수행)
-    List<Item> findByItemNameLikeAndPriceLessThanEqual(String itemName, Integer price);
+    // 통계 - 상품 수, 재고 가치
+    @Query("select count(i), sum(cast(i.price as long) * i.quantity) from Item i")
+    List<Object[]> stockTotals();
 
-    // 쿼리 직접 실행 사용
-    @Query("select i from Item i where i.itemName like :itemName and i.price <= :price")
-    List<Item> findItems(@Param("itemName") String itemName, @Param("price") Integer price);
+    // 통계 - 가격 구간별 상품 수 (그룹핑 식과 조회 식이 같아야 하므로 구간 크기는 리터럴로 넣는다)
+    @Query("select i.price / " + ItemStats.PRICE_BUCKET_SIZE + ", count(i) from Item i where i.price is not null" +
+            " group by i.price / " + ItemStats.PRICE_BUCKET_SIZE + " order by i.price / " + ItemStats.PRICE_BUCKET_SIZE)
+    List<Object[]> priceHistogram();
 
 }
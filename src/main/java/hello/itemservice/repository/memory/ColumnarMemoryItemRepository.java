@@ -0,0 +1,467 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemIds;
+import hello.itemservice.repository.ItemMatchMode;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSort;
+import hello.itemservice.repository.ItemStats;
+import hello.itemservice.repository.ItemUpdateDto;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.ObjectUtils;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 컬럼 기반(struct-of-arrays) 메모리 저장소
+ *
+ * MemoryItemRepository 는 상품 하나마다 Item 객체(박싱된 Long, Integer 필드 포함)를 HashMap 에 보관한다.
+ * 여기서는 id, 가격, 수량을 원시 타입 배열에 컬럼별로 저장하고, 상품명은 사전(dictionary)으로 인코딩해서
+ * int 코드만 저장한다. 열 배열은 상품 하나당 20 바이트 (id 8 + 상품명 코드 4 + 가격 4 + 수량 4)
+ * 사전은 서로 다른 상품명마다 String 과 HashMap 엔트리(수십 ~ 100 바이트)를 따로 사용하므로,
+ * 같은 상품명이 많을수록 이득이고 상품명이 대부분 서로 다르면 Item 객체로 저장하는 것과 큰 차이가 없다.
+ *
+ * - 사전 코드는 사용하는 행 수를 센다. 0 이 되면 (이름 변경 등) 사전에서 지우고 코드를 재사용한다.
+ * - id 는 항상 증가하는 순서로 추가되므로 ids 배열은 정렬되어 있다. -> findById 는 이진 탐색
+ * - findAll 은 연속된 배열을 도는 단순 루프로 필터링하고, 결과에 해당하는 행만 Item 객체로 만든다.
+ * - 상품명 조건은 사전 크기만큼 한 번만 비교해두고, 행마다는 int 코드로 비교만 한다.
+ */
+@Repository
+public class ColumnarMemoryItemRepository implements ItemRepository {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // 가격, 수량이 null 인 경우를 표현하는 값
+    static final int NULL_VALUE = Integer.MIN_VALUE;
+    // 상품명이 null 인 경우의 코드
+    static final int NULL_NAME = -1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] nameCodes = new int[INITIAL_CAPACITY];
+    private int[] prices = new int[INITIAL_CAPACITY];
+    private int[] quantities = new int[INITIAL_CAPACITY];
+    private int size = 0;
+    private long sequence = 0L;
+
+    // 상품명 사전: 코드 -> 상품명 (지워진 코드는 null), 상품명 -> 코드
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameCodeIndex = new HashMap<>();
+    private int[] nameRefCounts = new int[INITIAL_CAPACITY]; // 코드 -> 사용하는 행 수
+    private int[] freeNameCodes = new int[16]; // 재사용할 코드 (스택)
+    private int freeNameCodeCount = 0;
+
+    // save, update 때마다 갱신하는 통계
+    private final ItemAggregates aggregates = new ItemAggregates();
+
+    @Override
+    public Item save(Item item) {
+        lock.writeLock().lock();
+        try {
+            item.setId(++sequence);
+            append(item.getId(), item.getItemName(), item.getPrice(), item.getQuantity());
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        return item;
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(itemId);
+            if (row < 0) {
+                throw new NoSuchElementException("item not found. id=" + itemId);
+            }
+
+            aggregates.replace(decode(prices[row]), decode(quantities[row]), updateParam.getPrice(), updateParam.getQuantity());
+            replaceName(row, updateParam.getItemName());
+            prices[row] = encode(updateParam.getPrice());
+            quantities[row] = encode(updateParam.getQuantity());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            int row = rowOf(id);
+            if (row < 0) {
+                return Optional.empty();
+            }
+            return Optional.of(toItem(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        List<Long> distinctIds = ItemIds.distinct(ids);
+
+        lock.readLock().lock();
+        try {
+            List<Item> result = new ArrayList<>(distinctIds.size());
+            for (Long id : distinctIds) {
+                int row = rowOf(id);
+                if (row >= 0) {
+                    result.add(toItem(row));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> findAll(ItemSearchCond cond) {
+
+        String itemName = cond.getItemName();
+        Integer minPrice = cond.getMinPrice();
+        Integer maxPrice = cond.getMaxPrice();
+        Integer minQuantity = cond.getMinQuantity();
+        ItemSort sort = cond.getSort();
+        int limit = cond.hasLimit() ? cond.getLimit() : Integer.MAX_VALUE;
+
+        lock.readLock().lock();
+        try {
+            // 상품명 조건은 사전에 대해 한 번만 평가한다. (null 이면 조건 없음)
+            boolean[] nameMatches = ObjectUtils.isEmpty(itemName) ? null : matchNames(itemName, cond.getMatchMode());
+            boolean priceFilter = minPrice != null || maxPrice != null;
+            int priceFrom = minPrice != null ? minPrice : Integer.MIN_VALUE;
+            int priceTo = maxPrice != null ? maxPrice : Integer.MAX_VALUE;
+            boolean quantityFilter = minQuantity != null;
+            int quantityFrom = quantityFilter ? minQuantity : 0;
+
+            // 행은 id 순으로 저장되어 있으므로 id 정렬은 행 순서 그대로 사용한다.
+            // 그 외 정렬은 (정렬할 열의 값, 행 번호) 를 long 정렬 키로 모아서 정렬한다. (limit 이 있으면 상위 limit 개만 남긴다)
+            int[] sortColumn = sort == ItemSort.ID ? null : ("price".equals(sort.getProperty()) ? prices : quantities);
+            RowSortKeys sortKeys = sortColumn == null ? null : new RowSortKeys(limit);
+
+            List<Item> result = new ArrayList<>();
+            for (int row = 0; row < size; row++) {
+                if (nameMatches != null) {
+                    int code = nameCodes[row];
+                    if (code == NULL_NAME || !nameMatches[code]) {
+                        continue;
+                    }
+                }
+
+                if (priceFilter) {
+                    int price = prices[row];
+                    if (price == NULL_VALUE || price < priceFrom || price > priceTo) {
+                        continue;
+                    }
+                }
+
+                if (quantityFilter) {
+                    int quantity = quantities[row];
+                    if (quantity == NULL_VALUE || quantity < quantityFrom) {
+                        continue;
+                    }
+                }
+
+                if (sortKeys == null) {
+                    result.add(toItem(row)); // 결과에 해당하는 행만 객체로 만든다.
+                    if (result.size() == limit) {
+                        break; // id 순이므로 limit 개를 찾으면 더 볼 필요가 없다.
+                    }
+                } else {
+                    sortKeys.offer(sortKey(sortColumn[row], sort.isAscending(), row));
+                }
+            }
+
+            if (sortKeys != null) {
+                for (long key : sortKeys.sorted()) {
+                    result.add(toItem((int) key)); // 하위 32 비트가 행 번호
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 정렬 키 - 상위 32 비트는 정렬할 열의 값 (내림차순이면 비트를 뒤집는다), 하위 32 비트는 행 번호
+     * long 비교 한 번이 (값, 행 번호 = id) 순서가 된다.
+     * null(NULL_VALUE) 은 Integer.MIN_VALUE 이므로 가장 작은 값으로 정렬된다.
+     */
+    static long sortKey(int value, boolean ascending, int row) {
+        return ((long) (ascending ? value : ~value) << 32) | row;
+    }
+
+    /**
+     * 정렬 키를 원시 배열에 모은다. limit 이 있으면 최대 힙으로 가장 작은 limit 개만 남긴다.
+     */
+    static final class RowSortKeys {
+
+        private final int limit;
+        private long[] keys;
+        private int size;
+
+        RowSortKeys(int limit) {
+            this.limit = limit;
+            this.keys = new long[Math.min(limit, 1024)];
+        }
+
+        void offer(long key) {
+            if (size < limit) {
+                if (size == keys.length) {
+                    keys = Arrays.copyOf(keys, (int) Math.min(limit, keys.length * 2L));
+                }
+                keys[size] = key;
+                if (limit != Integer.MAX_VALUE) {
+                    siftUp(size);
+                }
+                size++;
+            } else if (key < keys[0]) {
+                keys[0] = key;
+                siftDown(0);
+            }
+        }
+
+        long[] sorted() {
+            long[] sorted = Arrays.copyOf(keys, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        private void siftUp(int index) {
+            long key = keys[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (keys[parent] >= key) {
+                    break;
+                }
+                keys[index] = keys[parent];
+                index = parent;
+            }
+            keys[index] = key;
+        }
+
+        private void siftDown(int index) {
+            long key = keys[index];
+            int half = size >>> 1;
+            while (index < half) {
+                int child = 2 * index + 1;
+                if (child + 1 < size && keys[child + 1] > keys[child]) {
+                    child++;
+                }
+                if (key >= keys[child]) {
+                    break;
+                }
+                keys[index] = keys[child];
+                index = child;
+            }
+            keys[index] = key;
+        }
+    }
+
+    @Override
+    public ItemStats stats() {
+        return aggregates.snapshot();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 복구용 - 주어진 id 로 상품을 그대로 넣는다. (이미 있으면 덮어쓴다)
+     * id 순서대로 복구하는 것을 전제로 한다. DurableMemoryItemRepository 가 사용한다.
+     */
+    void restore(long id, String itemName, Integer price, Integer quantity) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(id);
+            if (row >= 0) {
+                aggregates.replace(decode(prices[row]), decode(quantities[row]), price, quantity);
+                replaceName(row, itemName);
+                prices[row] = encode(price);
+                quantities[row] = encode(quantity);
+                return;
+            }
+
+            if (size > 0 && ids[size - 1] > id) {
+                throw new IllegalStateException("id must be restored in ascending order. id=" + id);
+            }
+
+            append(id, itemName, price, quantity);
+            sequence = Math.max(sequence, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    long lastSequence() {
+        lock.readLock().lock();
+        try {
+            return sequence;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 스냅샷 작성용 - 읽기 락을 잡은 상태로 모든 행을 id 순서대로 넘겨준다.
+     * 가격, 수량이 null 이면 NULL_VALUE 로 넘어온다.
+     */
+    void forEachRow(RowVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            for (int row = 0; row < size; row++) {
+                int code = nameCodes[row];
+                visitor.visit(ids[row], code == NULL_NAME ? null : names.get(code), prices[row], quantities[row]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    interface RowVisitor {
+        void visit(long id, String itemName, int price, int quantity);
+    }
+
+    public void clearStore() {
+        lock.writeLock().lock();
+        try {
+            ids = new long[INITIAL_CAPACITY];
+            nameCodes = new int[INITIAL_CAPACITY];
+            prices = new int[INITIAL_CAPACITY];
+            quantities = new int[INITIAL_CAPACITY];
+            size = 0;
+            sequence = 0L;
+            names.clear();
+            nameCodeIndex.clear();
+            nameRefCounts = new int[INITIAL_CAPACITY];
+            freeNameCodeCount = 0;
+            aggregates.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void append(long id, String itemName, Integer price, Integer quantity) {
+        ensureCapacity(size + 1);
+
+        ids[size] = id;
+        nameCodes[size] = encodeName(itemName);
+        prices[size] = encode(price);
+        quantities[size] = encode(quantity);
+        size++;
+        aggregates.add(price, quantity);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, ids.length + (ids.length >> 1)); // 1.5 배씩 증가
+        ids = Arrays.copyOf(ids, newCapacity);
+        nameCodes = Arrays.copyOf(nameCodes, newCapacity);
+        prices = Arrays.copyOf(prices, newCapacity);
+        quantities = Arrays.copyOf(quantities, newCapacity);
+    }
+
+    // ids 는 항상 오름차순으로 추가되므로 이진 탐색으로 행 번호를 찾는다.
+    private int rowOf(Long id) {
+        if (id == null) {
+            return -1;
+        }
+        int row = Arrays.binarySearch(ids, 0, size, id);
+        return row >= 0 ? row : -1;
+    }
+
+    private boolean[] matchNames(String itemName, ItemMatchMode matchMode) {
+        boolean[] matches = new boolean[names.size()];
+        for (int code = 0; code < matches.length; code++) {
+            matches[code] = matchMode.matches(names.get(code), itemName);
+        }
+        return matches;
+    }
+
+    // 새 이름을 먼저 참조한 다음 이전 이름을 놓는다. (같은 이름이면 코드가 그대로 유지된다)
+    private void replaceName(int row, String itemName) {
+        int previous = nameCodes[row];
+        nameCodes[row] = encodeName(itemName);
+        releaseName(previous);
+    }
+
+    private int encodeName(String itemName) {
+        if (itemName == null) {
+            return NULL_NAME;
+        }
+
+        Integer code = nameCodeIndex.get(itemName);
+        if (code == null) {
+            if (freeNameCodeCount > 0) {
+                code = freeNameCodes[--freeNameCodeCount];
+                names.set(code, itemName);
+            } else {
+                code = names.size();
+                names.add(itemName);
+                if (code == nameRefCounts.length) {
+                    nameRefCounts = Arrays.copyOf(nameRefCounts, code + (code >> 1));
+                }
+            }
+            nameCodeIndex.put(itemName, code);
+        }
+        nameRefCounts[code]++;
+        return code;
+    }
+
+    private void releaseName(int code) {
+        if (code == NULL_NAME || --nameRefCounts[code] > 0) {
+            return;
+        }
+
+        nameCodeIndex.remove(names.get(code));
+        names.set(code, null); // matchNames 에서 어떤 검색어와도 일치하지 않는다.
+        if (freeNameCodeCount == freeNameCodes.length) {
+            freeNameCodes = Arrays.copyOf(freeNameCodes, freeNameCodeCount * 2);
+        }
+        freeNameCodes[freeNameCodeCount++] = code;
+    }
+
+    // 테스트용 - 사전에 남아 있는 상품명 수
+    int nameDictionarySize() {
+        lock.readLock().lock();
+        try {
+            return nameCodeIndex.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int encode(Integer value) {
+        return value == null ? NULL_VALUE : value;
+    }
+
+    private static Integer decode(int value) {
+        return value == NULL_VALUE ? null : value;
+    }
+
+    private Item toItem(int row) {
+        int code = nameCodes[row];
+        Item item = new Item(code == NULL_NAME ? null : names.get(code), decode(prices[row]), decode(quantities[row]));
+        item.setId(ids[row]);
+        return item;
+    }
+
+}
@@ -0,0 +1,470 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
+import hello.itemservice.repository.ItemUpdateDto;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * 재시작해도 데이터가 남는 메모리 저장소
+ *
+ * 데이터는 ColumnarMemoryItemRepository 에 보관하고, 변경 내용은 다음 두 파일로 영속화한다.
+ *
+ * - items.log      : save, update 를 FileChannel 로 순서대로 덧붙이는 로그 (append-only)
+ *                    레코드 = [길이 int][CRC32 int][타입 byte][id long][price int][quantity int][이름 길이 short][이름 UTF-8]
+ *                    이름 길이가 short 이므로 UTF-8 로 32767 바이트를 넘는 상품명은 저장하지 않는다. (IllegalArgumentException)
+ * - items.snapshot : 주기적으로 전체 데이터를 memory-mapped 파일로 기록한 스냅샷 (compaction)
+ *                    임시 파일에 쓰고 rename 한 다음 디렉터리까지 fsync 하고 나서 로그를 비운다.
+ *
+ * 시작 시 스냅샷을 mmap 해서 읽고, 남은 로그를 이어서 재생(replay)한다.
+ * 로그 끝에 불완전하게 쓰인 레코드(CRC 불일치)가 있으면 그 지점부터 잘라낸다.
+ *
+ * 로그를 먼저 쓰고 메모리에 반영한다. (write-ahead)
+ * fsync 시점은 FsyncPolicy 로 정한다.
+ * 로그 쓰기나 fsync 가 실패하면 쓰기 전 위치로 로그를 잘라낸다. (실패한 쓰기가 복구 때 살아나거나, 쓰다 만 레코드 뒤의 쓰기가 사라지지 않도록)
+ * 잘라내기도 실패하면 이후 쓰기를 모두 거절한다. (재시작해서 복구해야 한다)
+ */
+@Slf4j
+public class DurableMemoryItemRepository implements ItemRepository {
+
+    private static final String SNAPSHOT_FILE = "items.snapshot";
+    private static final String SNAPSHOT_TEMP_FILE = "items.snapshot.tmp";
+    private static final String LOG_FILE = "items.log";
+
+    private static final int SNAPSHOT_MAGIC = 0x49544D53; // "ITMS"
+    private static final int SNAPSHOT_HEADER_SIZE = 4 + 4; // magic, count
+    private static final int RECORD_HEADER_SIZE = 4 + 4; // length, crc
+    private static final int ROW_SIZE = 8 + 4 + 4 + 2; // id, price, quantity, 이름 길이
+    static final int MAX_NAME_BYTES = Short.MAX_VALUE;
+
+    private static final byte SAVE = 1;
+    private static final byte UPDATE = 2;
+
+    private final ColumnarMemoryItemRepository store = new ColumnarMemoryItemRepository();
+
+    private final Path snapshotPath;
+    private final Path snapshotTempPath;
+    private final Path logPath;
+
+    private final FsyncPolicy fsyncPolicy;
+    private final int fsyncBatchSize;
+    private final long compactThresholdBytes;
+    private final ScheduledExecutorService scheduler;
+
+    private final FileChannel logChannel;
+    private long sequence;
+    private int unsyncedWrites;
+    private IOException failure; // 로그를 되돌리지 못한 쓰기 실패
+
+    public DurableMemoryItemRepository(Path directory, FsyncPolicy fsyncPolicy, int fsyncBatchSize,
+                                       Duration fsyncInterval, Duration snapshotInterval, long compactThresholdBytes) {
+        this(directory, fsyncPolicy, fsyncBatchSize, fsyncInterval, snapshotInterval, compactThresholdBytes,
+                path -> FileChannel.open(path, CREATE, READ, WRITE));
+    }
+
+    // 테스트에서 실패하는 로그 채널을 넣을 때 사용한다.
+    DurableMemoryItemRepository(Path directory, FsyncPolicy fsyncPolicy, int fsyncBatchSize,
+                                Duration fsyncInterval, Duration snapshotInterval, long compactThresholdBytes,
+                                LogChannelOpener logChannelOpener) {
+        this.snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        this.snapshotTempPath = directory.resolve(SNAPSHOT_TEMP_FILE);
+        this.logPath = directory.resolve(LOG_FILE);
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncBatchSize = fsyncBatchSize;
+        this.compactThresholdBytes = compactThresholdBytes;
+
+        try {
+            Files.createDirectories(directory);
+            this.logChannel = logChannelOpener.open(logPath);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("item store recovery failed. directory=" + directory, e);
+        }
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "durable-item-store");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            long millis = fsyncInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::syncQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        }
+
+        long snapshotMillis = snapshotInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::compactIfNeeded, snapshotMillis, snapshotMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized Item save(Item item) {
+        long id = sequence + 1;
+
+        append(SAVE, id, item.getItemName(), item.getPrice(), item.getQuantity());
+        store.restore(id, item.getItemName(), item.getPrice(), item.getQuantity());
+
+        sequence = id;
+        item.setId(id);
+        return item;
+    }
+
+    @Override
+    public synchronized void update(Long itemId, ItemUpdateDto updateParam) {
+        if (store.findById(itemId).isEmpty()) {
+            throw new NoSuchElementException("item not found. id=" + itemId);
+        }
+
+        append(UPDATE, itemId, updateParam.getItemName(), updateParam.getPrice(), updateParam.getQuantity());
+        store.restore(itemId, updateParam.getItemName(), updateParam.getPrice(), updateParam.getQuantity());
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return store.findById(id);
+    }
+
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        return store.findAllById(ids);
+    }
+
+    @Override
+    public List<Item> findAll(ItemSearchCond cond) {
+        return store.findAll(cond);
+    }
+
+    @Override
+    public ItemStats stats() {
+        return store.stats();
+    }
+
+    /**
+     * 현재 데이터를 스냅샷으로 기록하고 로그를 비운다.
+     * 스냅샷을 쓰는 동안에는 쓰기가 대기한다. (읽기는 대기하지 않는다)
+     */
+    public synchronized void compact() {
+        long start = System.nanoTime();
+        try {
+            int count = writeSnapshot();
+
+            logChannel.truncate(0);
+            logChannel.position(0);
+            logChannel.force(true);
+            unsyncedWrites = 0;
+
+            log.info("item store compacted. items={}, elapsed={}ms", count, elapsedMillis(start));
+        } catch (IOException e) {
+            throw new UncheckedIOException("item store compaction failed", e);
+        }
+    }
+
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (this) {
+            try {
+                logChannel.force(true);
+                logChannel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("item log close failed", e);
+            }
+        }
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    private void recover() throws IOException {
+        long start = System.nanoTime();
+
+        int restored = loadSnapshot();
+        int replayed = replayLog();
+        sequence = store.lastSequence();
+
+        log.info("item store recovered. snapshot={}, log={}, items={}, elapsed={}ms",
+                restored, replayed, store.size(), elapsedMillis(start));
+    }
+
+    private int loadSnapshot() throws IOException {
+        if (!Files.exists(snapshotPath)) {
+            return 0;
+        }
+
+        try (FileChannel channel = FileChannel.open(snapshotPath, READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != SNAPSHOT_MAGIC) {
+                throw new IllegalStateException("invalid item snapshot. path=" + snapshotPath);
+            }
+
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                long id = buffer.getLong();
+                int price = buffer.getInt();
+                int quantity = buffer.getInt();
+                String itemName = getName(buffer);
+                store.restore(id, itemName, decode(price), decode(quantity));
+            }
+            return count;
+        }
+    }
+
+    private int replayLog() throws IOException {
+        long size = logChannel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("item log is too large to replay. size=" + size);
+        }
+
+        MappedByteBuffer buffer = logChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+        int count = 0;
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+            int recordStart = buffer.position();
+            int length = buffer.getInt();
+            int crc = buffer.getInt();
+
+            if (length <= 0 || length > buffer.remaining()) {
+                buffer.position(recordStart); // 쓰다 만 레코드
+                break;
+            }
+
+            ByteBuffer payload = buffer.slice();
+            payload.limit(length);
+
+            CRC32 checksum = new CRC32();
+            checksum.update(payload.duplicate());
+            if ((int) checksum.getValue() != crc) {
+                buffer.position(recordStart); // 깨진 레코드
+                break;
+            }
+
+            apply(payload);
+            buffer.position(buffer.position() + length);
+            count++;
+        }
+
+        long validSize = buffer.position();
+        if (validSize < size) {
+            log.warn("item log has a torn tail. truncate {} -> {} bytes", size, validSize);
+            logChannel.truncate(validSize);
+        }
+        logChannel.position(validSize);
+
+        return count;
+    }
+
+    private void apply(ByteBuffer payload) {
+        byte type = payload.get();
+        long id = payload.getLong();
+        int price = payload.getInt();
+        int quantity = payload.getInt();
+        String itemName = getName(payload);
+
+        if (type != SAVE && type != UPDATE) {
+            throw new IllegalStateException("unknown item log record type=" + type);
+        }
+        // save, update 모두 해당 id 의 최종 상태를 기록하므로 그대로 덮어쓰면 된다.
+        store.restore(id, itemName, decode(price), decode(quantity));
+    }
+
+    private void append(byte type, long id, String itemName, Integer price, Integer quantity) {
+        if (failure != null) {
+            throw new IllegalStateException("item log is unusable after a failed write. restart to recover", failure);
+        }
+
+        byte[] name = encodeName(itemName);
+        int payloadSize = 1 + ROW_SIZE + (name == null ? 0 : name.length);
+
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + payloadSize);
+        buffer.putInt(payloadSize);
+        buffer.putInt(0); // crc 자리
+        buffer.put(type).putLong(id).putInt(encode(price)).putInt(encode(quantity));
+        putName(buffer, name);
+
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.array(), RECORD_HEADER_SIZE, payloadSize);
+        buffer.putInt(4, (int) checksum.getValue());
+        buffer.flip();
+
+        long recordStart;
+        try {
+            recordStart = logChannel.position();
+        } catch (IOException e) {
+            throw new UncheckedIOException("item log write failed. id=" + id, e);
+        }
+
+        try {
+            while (buffer.hasRemaining()) {
+                logChannel.write(buffer);
+            }
+
+            // 실패하면 되돌리므로 성공한 다음에 센다.
+            if (fsyncPolicy == FsyncPolicy.EVERY_WRITE) {
+                logChannel.force(false);
+            } else if (fsyncPolicy == FsyncPolicy.BATCH && unsyncedWrites + 1 >= fsyncBatchSize) {
+                logChannel.force(false);
+                unsyncedWrites = 0;
+            } else {
+                unsyncedWrites++;
+            }
+        } catch (IOException e) {
+            rollback(recordStart, e);
+            throw new UncheckedIOException("item log write failed. id=" + id, e);
+        }
+    }
+
+    // 쓰다 만 레코드, fsync 하지 못한 레코드를 지운다. 메모리에는 아직 반영하지 않았으므로 로그만 되돌리면 된다.
+    private void rollback(long recordStart, IOException cause) {
+        try {
+            logChannel.truncate(recordStart);
+            logChannel.position(recordStart);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+            failure = cause;
+            log.error("item log rollback failed. reject further writes. position={}", recordStart, e);
+        }
+    }
+
+    private int writeSnapshot() throws IOException {
+        long[] size = {SNAPSHOT_HEADER_SIZE};
+        int[] count = {0};
+        store.forEachRow((id, itemName, price, quantity) -> {
+            byte[] name = encodeName(itemName);
+            size[0] += ROW_SIZE + (name == null ? 0 : name.length);
+            count[0]++;
+        });
+
+        if (size[0] > Integer.MAX_VALUE) {
+            throw new IllegalStateException("item snapshot is too large. size=" + size[0]);
+        }
+
+        try (FileChannel channel = FileChannel.open(snapshotTempPath, CREATE, READ, WRITE, TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size[0]);
+            buffer.putInt(SNAPSHOT_MAGIC).putInt(count[0]);
+            store.forEachRow((id, itemName, price, quantity) -> {
+                buffer.putLong(id).putInt(price).putInt(quantity);
+                putName(buffer, encodeName(itemName));
+            });
+            buffer.force();
+        }
+
+        Files.move(snapshotTempPath, snapshotPath, REPLACE_EXISTING, ATOMIC_MOVE);
+        syncDirectory(); // 이후 로그를 비우므로 rename 이 디스크에 남은 다음이어야 한다.
+        return count[0];
+    }
+
+    // rename 은 디렉터리 엔트리를 바꾸므로 디렉터리를 fsync 해야 전원이 나가도 남는다.
+    // Windows 는 디렉터리를 FileChannel 로 열 수 없어 생략한다.
+    private void syncDirectory() throws IOException {
+        if (System.getProperty("os.name").startsWith("Windows")) {
+            return;
+        }
+        try (FileChannel directory = FileChannel.open(snapshotPath.getParent(), READ)) {
+            directory.force(true);
+        }
+    }
+
+    private void compactIfNeeded() {
+        try {
+            if (logChannel.size() >= compactThresholdBytes) {
+                compact();
+            }
+        } catch (Exception e) {
+            log.error("item store compaction failed", e);
+        }
+    }
+
+    private void syncQuietly() {
+        boolean needed;
+        synchronized (this) {
+            needed = unsyncedWrites > 0;
+            unsyncedWrites = 0;
+        }
+
+        if (!needed) {
+            return;
+        }
+
+        try {
+            logChannel.force(false);
+        } catch (IOException e) {
+            log.error("item log fsync failed", e);
+        }
+    }
+
+    interface LogChannelOpener {
+        FileChannel open(Path path) throws IOException;
+    }
+
+    private static byte[] encodeName(String itemName) {
+        if (itemName == null) {
+            return null;
+        }
+        byte[] name = itemName.getBytes(StandardCharsets.UTF_8);
+        if (name.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("item name is too long. bytes=" + name.length + ", max=" + MAX_NAME_BYTES);
+        }
+        return name;
+    }
+
+    private static void putName(ByteBuffer buffer, byte[] name) {
+        if (name == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        buffer.putShort((short) name.length);
+        buffer.put(name);
+    }
+
+    private static String getName(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] name = new byte[length];
+        buffer.get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private static int encode(Integer value) {
+        return value == null ? ColumnarMemoryItemRepository.NULL_VALUE : value;
+    }
+
+    private static Integer decode(int value) {
+        return value == ColumnarMemoryItemRepository.NULL_VALUE ? null : value;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
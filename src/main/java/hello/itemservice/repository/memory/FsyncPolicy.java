@@ -0,0 +1,14 @@
+package hello.itemservice.repository.memory;
+
+/**
+ * 로그를 디스크에 강제로 기록(fsync)하는 시점
+ *
+ * - EVERY_WRITE : save, update 마다 fsync. 가장 안전하지만 가장 느리다.
+ * - BATCH       : 설정한 개수만큼 쓰기가 쌓이면 fsync. 장애 시 마지막 배치만큼 유실될 수 있다.
+ * - INTERVAL    : 설정한 주기마다 fsync. 장애 시 마지막 주기만큼 유실될 수 있다.
+ */
+public enum FsyncPolicy {
+    EVERY_WRITE,
+    BATCH,
+    INTERVAL
+}
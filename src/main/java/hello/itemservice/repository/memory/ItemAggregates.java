@@ -0,0 +1,67 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.repository.ItemPriceBucket;
+import hello.itemservice.repository.ItemStats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 메모리 저장소의 통계를 save, update 때마다 갱신해둔다.
+ * 통계 조회는 저장된 상품 수와 관계없이 구간 개수만큼만 복사한다.
+ */
+class ItemAggregates {
+
+    private long itemCount;
+    private long totalStockValue;
+    private final TreeMap<Integer, Long> histogram = new TreeMap<>();
+
+    synchronized void add(Integer price, Integer quantity) {
+        itemCount++;
+        totalStockValue += stockValue(price, quantity);
+        if (price != null) {
+            histogram.merge(bucketOf(price), 1L, Long::sum);
+        }
+    }
+
+    synchronized void remove(Integer price, Integer quantity) {
+        itemCount--;
+        totalStockValue -= stockValue(price, quantity);
+        if (price != null) {
+            histogram.computeIfPresent(bucketOf(price), (bucket, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    synchronized void replace(Integer oldPrice, Integer oldQuantity, Integer newPrice, Integer newQuantity) {
+        remove(oldPrice, oldQuantity);
+        add(newPrice, newQuantity);
+    }
+
+    synchronized void clear() {
+        itemCount = 0;
+        totalStockValue = 0;
+        histogram.clear();
+    }
+
+    synchronized ItemStats snapshot() {
+        List<ItemPriceBucket> buckets = new ArrayList<>(histogram.size());
+        for (Map.Entry<Integer, Long> entry : histogram.entrySet()) {
+            buckets.add(new ItemPriceBucket(entry.getKey(), entry.getValue()));
+        }
+        return new ItemStats(itemCount, totalStockValue, buckets);
+    }
+
+    private static long stockValue(Integer price, Integer quantity) {
+        if (price == null || quantity == null) {
+            return 0;
+        }
+        return (long) price * quantity;
+    }
+
+    // SQL 의 price / PRICE_BUCKET_SIZE 와 같은 값 (정수 나눗셈)
+    private static int bucketOf(int price) {
+        return price / ItemStats.PRICE_BUCKET_SIZE;
+    }
+}
@@ -1,68 +1,270 @@
 package hello.itemservice.repository.memory;
 
 import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemIds;
+import hello.itemservice.repository.ItemMatchMode;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.ObjectUtils;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+/**
+ * 메모리 저장소 (MVCC, VersionedItemStore)
+ *
+ * 수정은 새 버전을 만들고, 검색은 시작 시점의 스냅샷을 락 없이 읽는다.
+ * 그래서 검색 중에 수정이 일어나도 상품명, 가격, 수량이 섞인 결과를 보지 않고, 검색과 수정이 서로 기다리지 않는다.
+ * 반환하는 Item 은 복사본이다. 바꿔도 저장소에는 반영되지 않는다. (update 를 사용)
+ */
 @Repository
 public class MemoryItemRepository implements ItemRepository {
 
-    private static final Map<Long, Item> store = new HashMap<>(); // static
-    private static long sequence = 0L; // static
+    private static final VersionedItemStore store = new VersionedItemStore(); // static
+    private static final ItemAggregates aggregates = new ItemAggregates(); // save, update 때마다 갱신하는 통계
+
+    private static final int MIN_SEGMENT_SIZE = 4096;
+
+    private final int parallelThreshold; // 이 개수 이상이면 병렬로 검색
+    private final ForkJoinPool pool;
+
+    public MemoryItemRepository() {
+        this(Integer.MAX_VALUE, ForkJoinPool.commonPool()); // 병렬 검색 사용 안함
+    }
+
+    public MemoryItemRepository(int parallelThreshold, ForkJoinPool pool) {
+        this.parallelThreshold = parallelThreshold;
+        this.pool = pool;
+    }
 
     @Override
     public Item save(Item item) {
-        item.setId(++sequence);
-        store.put(item.getId(), item);
+        Item saved = store.insert(item);
+        aggregates.add(saved.getPrice(), saved.getQuantity());
 
+        item.setId(saved.getId());
         return item;
     }
 
     @Override
     public void update(Long itemId, ItemUpdateDto updateParam) {
-        Item findItem = findById(itemId).orElseThrow();
-
-        findItem.setItemName(updateParam.getItemName());
-        findItem.setPrice(updateParam.getPrice());
-        findItem.setQuantity(updateParam.getQuantity());
+        // 저장된 버전은 그대로 두고 바뀐 값으로 새 버전을 만든다.
+        Item before = store.update(itemId, item -> {
+            item.setItemName(updateParam.getItemName());
+            item.setPrice(updateParam.getPrice());
+            item.setQuantity(updateParam.getQuantity());
+            return item;
+        });
+        if (before == null) {
+            throw new NoSuchElementException("No value present");
+        }
+        aggregates.replace(before.getPrice(), before.getQuantity(), updateParam.getPrice(), updateParam.getQuantity());
     }
 
     @Override
     public Optional<Item> findById(Long id) {
-        return Optional.ofNullable(store.get(id));
+        return Optional.ofNullable(store.latest(id)).map(MemoryItemRepository::copyOf);
+    }
+
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        try (VersionedItemStore.Snapshot snapshot = store.openSnapshot()) {
+            return ItemIds.distinct(ids).stream()
+                    .map(snapshot::get)
+                    .filter(Objects::nonNull)
+                    .map(MemoryItemRepository::copyOf)
+                    .collect(Collectors.toList());
+        }
     }
 
     @Override
     public List<Item> findAll(ItemSearchCond cond) {
 
+        Predicate<Item> filter = filter(cond);
+        Comparator<Item> order = cond.getSort().comparator();
+        int limit = cond.hasLimit() ? cond.getLimit() : Integer.MAX_VALUE;
+
+        // 스냅샷을 잡고 읽으므로 검색하는 동안의 수정, 저장은 결과에 섞이지 않는다.
+        try (VersionedItemStore.Snapshot snapshot = store.openSnapshot()) {
+            return copyOf(scan(snapshot, filter, order, limit));
+        }
+    }
+
+    private List<Item> scan(VersionedItemStore.Snapshot snapshot, Predicate<Item> filter, Comparator<Item> order, int limit) {
+
+        // 저장된 상품이 parallelThreshold 이상이면 스냅샷을 구간으로 나눠 ForkJoinPool 에서 동시에 읽고 필터링한다.
+        if (store.size() >= parallelThreshold) {
+            int segmentSize = Math.max(MIN_SEGMENT_SIZE, store.size() / (pool.getParallelism() * 4));
+            return pool.invoke(new ScanTask(snapshot.spliterator(), segmentSize, filter, order, limit));
+        }
+
+        if (limit != Integer.MAX_VALUE) {
+            return topK(snapshot, filter, order, limit);
+        }
+
+        List<Item> result = new ArrayList<>();
+        for (Item item : snapshot) {
+            if (filter.test(item)) {
+                result.add(item);
+            }
+        }
+        result.sort(order);
+        return result;
+    }
+
+    // 저장된 버전은 밖으로 내보내지 않는다.
+    private static Item copyOf(Item item) {
+        return VersionedItemStore.copyOf(item.getId(), item);
+    }
+
+    private static List<Item> copyOf(List<Item> items) {
+        List<Item> copies = new ArrayList<>(items.size());
+        for (Item item : items) {
+            copies.add(copyOf(item));
+        }
+        return copies;
+    }
+
+    /**
+     * 크기 k 의 힙으로 상위 k 개만 남긴다. 전체를 정렬하지 않으므로 O(n log k)
+     * 힙의 맨 위에는 지금까지 남긴 것 중 가장 뒤에 올 상품이 있다.
+     */
+    private static List<Item> topK(Iterable<Item> items, Predicate<Item> filter, Comparator<Item> order, int k) {
+        PriorityQueue<Item> heap = new PriorityQueue<>(Math.min(k, 1024), order.reversed());
+        for (Item item : items) {
+            if (!filter.test(item)) {
+                continue;
+            }
+            if (heap.size() < k) {
+                heap.add(item);
+            } else if (order.compare(item, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(item);
+            }
+        }
+
+        List<Item> result = new ArrayList<>(heap);
+        result.sort(order);
+        return result;
+    }
+
+    private Predicate<Item> filter(ItemSearchCond cond) {
+
         String itemName = cond.getItemName();
+        Integer minPrice = cond.getMinPrice();
         Integer maxPrice = cond.getMaxPrice();
+        Integer minQuantity = cond.getMinQuantity();
+        ItemMatchMode matchMode = cond.getMatchMode();
 
-        return store.values().stream()
-                .filter(item -> {
-                    if (ObjectUtils.isEmpty(itemName)) { // 찾는 아이템 이름이 없을 때
-                        return true; // 검색 조건을 쓰지 않으므로 true
-                    }
-                    // 찾는 아이템 이름이 있다면 검색 조건을 사용하므로 찾는 값을 리턴
-                    return item.getItemName().contains(itemName);
-                }).filter(item -> {
-                    if (maxPrice == null) {
-                        return true;
+        Predicate<Item> nameFilter = item -> {
+            if (ObjectUtils.isEmpty(itemName)) { // 찾는 아이템 이름이 없을 때
+                return true; // 검색 조건을 쓰지 않으므로 true
+            }
+            // 찾는 아이템 이름이 있다면 검색 조건을 사용하므로 찾는 값을 리턴
+            return matchMode.matches(item.getItemName(), itemName);
+        };
+
+        // 값이 없는(null) 상품은 범위 조건을 만족하지 않는다. (SQL 과 같다)
+        Predicate<Item> priceFilter = item -> {
+            if (minPrice == null && maxPrice == null) {
+                return true;
+            }
+
+            Integer price = item.getPrice();
+            return price != null
+                    && (minPrice == null || price >= minPrice)
+                    && (maxPrice == null || price <= maxPrice);
+        };
+
+        Predicate<Item> quantityFilter = item -> {
+            if (minQuantity == null) {
+                return true;
+            }
+
+            return item.getQuantity() != null && item.getQuantity() >= minQuantity;
+        };
+
+        return nameFilter.and(priceFilter).and(quantityFilter);
+    }
+
+    /**
+     * 스냅샷을 segmentSize 이하가 될 때까지 나눠(trySplit) 구간마다 보이는 버전을 찾아 필터링하고,
+     * 각 구간의 결과(정렬 순서로 정렬됨)를 병합해서 전체 결과도 정렬 순서를 유지한다.
+     * limit 이 있으면 구간마다 상위 limit 개만 남기고, 병합할 때도 limit 개에서 멈춘다.
+     */
+    private static class ScanTask extends RecursiveTask<List<Item>> {
+
+        private final Spliterator<Item> items;
+        private final int segmentSize;
+        private final Predicate<Item> filter;
+        private final Comparator<Item> order;
+        private final int limit;
+
+        ScanTask(Spliterator<Item> items, int segmentSize, Predicate<Item> filter, Comparator<Item> order, int limit) {
+            this.items = items;
+            this.segmentSize = segmentSize;
+            this.filter = filter;
+            this.order = order;
+            this.limit = limit;
+        }
+
+        @Override
+        protected List<Item> compute() {
+            Spliterator<Item> split = items.estimateSize() <= segmentSize ? null : items.trySplit();
+            if (split == null) {
+                if (limit != Integer.MAX_VALUE) {
+                    return topK(() -> Spliterators.iterator(items), filter, order, limit);
+                }
+
+                List<Item> result = new ArrayList<>();
+                items.forEachRemaining(item -> {
+                    if (filter.test(item)) {
+                        result.add(item);
                     }
+                });
+                result.sort(order);
+                return result;
+            }
+
+            ScanTask left = new ScanTask(split, segmentSize, filter, order, limit);
+            ScanTask right = new ScanTask(items, segmentSize, filter, order, limit);
+            left.fork();
+            List<Item> rightResult = right.compute();
+            return merge(left.join(), rightResult);
+        }
 
-                    return item.getPrice() <= maxPrice;
-                })
-                .collect(Collectors.toList());
+        private List<Item> merge(List<Item> left, List<Item> right) {
+            int size = Math.min(left.size() + right.size(), limit);
+            List<Item> merged = new ArrayList<>(size);
+            int l = 0;
+            int r = 0;
+            while (merged.size() < size && l < left.size() && r < right.size()) {
+                merged.add(order.compare(left.get(l), right.get(r)) <= 0 ? left.get(l++) : right.get(r++));
+            }
+            while (merged.size() < size && l < left.size()) {
+                merged.add(left.get(l++));
+            }
+            while (merged.size() < size && r < right.size()) {
+                merged.add(right.get(r++));
+            }
+            return merged;
+        }
+    }
+
+    @Override
+    public ItemStats stats() {
+        return aggregates.snapshot();
     }
 
     public void clearStore() {
         store.clear();
+        aggregates.clear();
     }
 
 }
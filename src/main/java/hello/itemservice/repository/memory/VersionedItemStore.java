@@ -0,0 +1,291 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * 상품을 여러 버전으로 저장한다. (MVCC)
+ *
+ * - 쓰기는 저장된 Item 을 고치지 않고, 새 Item 을 만들어 버전 체인의 맨 앞에 붙인다. (새 버전 -> 이전 버전)
+ *   쓰기끼리는 writeLock 으로 순서를 정하고, 모두 붙인 다음에 committed 를 올려서 공개한다.
+ * - 읽기는 시작할 때의 committed 를 스냅샷 버전으로 잡고, 상품마다 그 버전 이하의 가장 새 버전을 읽는다.
+ *   읽는 동안 락을 잡지 않으므로 긴 검색과 쓰기가 서로 기다리지 않는다.
+ * - 열려 있는 스냅샷 중 가장 오래된 버전(horizon)보다 오래된 버전은 그 상품을 다음에 쓸 때 체인에서 끊는다. (GC 가 회수)
+ *   다시 쓰지 않는 상품은 가장 오래된 스냅샷이 닫힐 때, 이전 버전이 남은 상품(retained)만 골라서 끊는다.
+ *
+ * 저장된 Item 은 바뀌지 않으므로 필터, 정렬에는 그대로 사용하고, 밖으로 내보낼 때만 복사한다.
+ */
+class VersionedItemStore {
+
+    private final ConcurrentHashMap<Long, ItemVersion> heads = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private final TreeMap<Long, Integer> openSnapshots = new TreeMap<>(); // 스냅샷 버전 -> 읽는 중인 수 (자기 자신으로 동기화)
+    private final Set<Long> retained = ConcurrentHashMap.newKeySet(); // 이전 버전이 남아 있을 수 있는 상품 id
+
+    private volatile long committed; // 마지막으로 공개된 버전
+    private long sequence; // writeLock
+
+    Item insert(Item item) {
+        synchronized (writeLock) {
+            long id = ++sequence;
+            long version = committed + 1;
+            heads.put(id, new ItemVersion(version, copyOf(id, item), null));
+            committed = version;
+            return copyOf(id, item);
+        }
+    }
+
+    /**
+     * @return 바뀌기 전 상품, 없는 id 면 null
+     */
+    Item update(Long id, UnaryOperator<Item> change) {
+        synchronized (writeLock) {
+            ItemVersion head = heads.get(id);
+            if (head == null) {
+                return null;
+            }
+
+            long version = committed + 1;
+            Item changed = change.apply(copyOf(id, head.item));
+            pruneOlderThan(head, horizon());
+            heads.put(id, new ItemVersion(version, changed, head));
+            retained.add(id);
+            committed = version;
+            return head.item;
+        }
+    }
+
+    // 최신 버전 (스냅샷 없이 바로 읽는다. 버전 하나는 바뀌지 않으므로 섞인 값을 읽지 않는다)
+    Item latest(Long id) {
+        ItemVersion head = heads.get(id);
+        return head == null ? null : head.item;
+    }
+
+    int size() {
+        return heads.size();
+    }
+
+    void clear() {
+        synchronized (writeLock) {
+            heads.clear();
+            retained.clear();
+        }
+    }
+
+    /**
+     * 읽기를 시작한다. 끝나면 반드시 close 한다. (try-with-resources)
+     */
+    Snapshot openSnapshot() {
+        synchronized (openSnapshots) {
+            long version = committed;
+            openSnapshots.merge(version, 1, Integer::sum);
+            return new Snapshot(version);
+        }
+    }
+
+    // 아무도 읽지 않으면 지금 공개된 버전
+    private long horizon() {
+        synchronized (openSnapshots) {
+            return openSnapshots.isEmpty() ? committed : Math.min(openSnapshots.firstKey(), committed);
+        }
+    }
+
+    /**
+     * 이전 버전이 남은 상품들을 지금의 horizon 으로 끊는다. (가장 오래된 스냅샷이 닫힐 때)
+     * 끊는 것은 writeLock 없이 해도 된다. horizon 보다 오래된 버전은 열려 있는 스냅샷도, 앞으로 열릴 스냅샷도 읽지 않는다.
+     * 목록에서 먼저 빼고 끊은 뒤에 다시 확인하므로, 그 사이에 수정되어 다시 들어온 id 를 잃지 않는다.
+     */
+    private void pruneRetained() {
+        long horizon = horizon();
+        for (Long id : retained) {
+            retained.remove(id);
+            ItemVersion head = heads.get(id);
+            if (head == null) {
+                continue;
+            }
+            pruneOlderThan(head, horizon);
+            if (head.previous != null) {
+                retained.add(id); // 아직 읽는 스냅샷이 있다. 다음에 닫힐 때 다시 본다.
+            }
+        }
+    }
+
+    // horizon 이하의 가장 새 버전까지 남기고 그보다 오래된 버전은 끊는다.
+    private static void pruneOlderThan(ItemVersion head, long horizon) {
+        ItemVersion version = head;
+        while (version != null && version.version > horizon) {
+            version = version.previous;
+        }
+        if (version != null) {
+            version.previous = null;
+        }
+    }
+
+    // 테스트용
+    int versionCount(Long id) {
+        int count = 0;
+        for (ItemVersion version = heads.get(id); version != null; version = version.previous) {
+            count++;
+        }
+        return count;
+    }
+
+    static Item copyOf(Long id, Item item) {
+        Item copy = new Item(item.getItemName(), item.getPrice(), item.getQuantity());
+        copy.setId(id);
+        return copy;
+    }
+
+    private static class ItemVersion {
+
+        private final long version;
+        private final Item item; // 바뀌지 않는다.
+        private volatile ItemVersion previous;
+
+        ItemVersion(long version, Item item, ItemVersion previous) {
+            this.version = version;
+            this.item = item;
+            this.previous = previous;
+        }
+    }
+
+    /**
+     * 한 시점의 상품들. 스냅샷 이후에 저장된 상품은 보이지 않고, 수정된 상품은 수정 전 값이 보인다.
+     */
+    class Snapshot implements Iterable<Item>, AutoCloseable {
+
+        private final long version;
+        private boolean closed;
+
+        private Snapshot(long version) {
+            this.version = version;
+        }
+
+        Item get(Long id) {
+            return visible(heads.get(id));
+        }
+
+        @Override
+        public Iterator<Item> iterator() {
+            Iterator<ItemVersion> versions = heads.values().iterator();
+            return new Iterator<>() {
+
+                private Item next = advance();
+
+                private Item advance() {
+                    while (versions.hasNext()) {
+                        Item item = visible(versions.next());
+                        if (item != null) {
+                            return item;
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public Item next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    Item result = next;
+                    next = advance();
+                    return result;
+                }
+            };
+        }
+
+        /**
+         * 나눌 수 있는 Spliterator. 상품 목록(heads)을 나누고, 보이는 버전은 나눠진 쪽에서 찾는다.
+         * 그래서 병렬 검색이 스냅샷 전체를 먼저 모으지 않고 바로 나눠서 읽을 수 있다.
+         */
+        @Override
+        public Spliterator<Item> spliterator() {
+            return new VisibleSpliterator(heads.values().spliterator());
+        }
+
+        private Item visible(ItemVersion head) {
+            ItemVersion version = head;
+            while (version != null && version.version > this.version) {
+                version = version.previous;
+            }
+            return version == null ? null : version.item;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            boolean horizonMoved;
+            synchronized (openSnapshots) {
+                openSnapshots.computeIfPresent(version, (key, count) -> count == 1 ? null : count - 1);
+                horizonMoved = openSnapshots.isEmpty() || openSnapshots.firstKey() > version;
+            }
+            if (horizonMoved) {
+                pruneRetained();
+            }
+        }
+
+        private class VisibleSpliterator implements Spliterator<Item> {
+
+            private final Spliterator<ItemVersion> versions;
+
+            VisibleSpliterator(Spliterator<ItemVersion> versions) {
+                this.versions = versions;
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Item> action) {
+                Item[] found = new Item[1];
+                do {
+                    if (!versions.tryAdvance(head -> found[0] = visible(head))) {
+                        return false;
+                    }
+                } while (found[0] == null);
+                action.accept(found[0]);
+                return true;
+            }
+
+            @Override
+            public void forEachRemaining(Consumer<? super Item> action) {
+                versions.forEachRemaining(head -> {
+                    Item item = visible(head);
+                    if (item != null) {
+                        action.accept(item);
+                    }
+                });
+            }
+
+            @Override
+            public Spliterator<Item> trySplit() {
+                Spliterator<ItemVersion> split = versions.trySplit();
+                return split == null ? null : new VisibleSpliterator(split);
+            }
+
+            // 스냅샷 이후에 저장된 상품이 빠지므로 어림값
+            @Override
+            public long estimateSize() {
+                return versions.estimateSize();
+            }
+
+            @Override
+            public int characteristics() {
+                return CONCURRENT | NONNULL;
+            }
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package hello.itemservice.repository.mybatis;
 
 import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemPriceBucket;
 import hello.itemservice.repository.ItemSearchCond;
 import hello.itemservice.repository.ItemUpdateDto;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +21,12 @@ public interface ItemMapper {
     List<Item> findAll(ItemSearchCond itemSearchCond);
 
     Optional<Item> findById(Long id);
+
+    List<Item> findAllById(@Param("ids") Collection<Long> ids);
+
+    long countItems();
+
+    Long sumStockValue();
+
+    List<ItemPriceBucket> priceHistogram(@Param("bucketSize") int bucketSize);
 }
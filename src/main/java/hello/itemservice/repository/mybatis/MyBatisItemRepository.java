@@ -1,13 +1,16 @@
 package hello.itemservice.repository.mybatis;
 
 import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemIds;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,6 +38,17 @@ public class MyBatisItemRepository implements ItemRepository {
         return itemMapper.findById(id);
     }
 
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        return ItemIds.findInChunks(ids, itemMapper::findAllById);
+    }
+
+    @Override
+    public ItemStats stats() {
+        Long totalStockValue = itemMapper.sumStockValue();
+        return new ItemStats(itemMapper.countItems(), totalStockValue == null ? 0 : totalStockValue, itemMapper.priceHistogram(ItemStats.PRICE_BUCKET_SIZE));
+    }
+
     @Override
     public List<Item> findAll(ItemSearchCond cond) {
         return itemMapper.findAll(cond);
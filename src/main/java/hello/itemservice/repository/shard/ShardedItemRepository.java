@@ -0,0 +1,295 @@
+package hello.itemservice.repository.shard;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 여러 DataSource 에 상품을 나눠 저장하는 리포지토리 (hash 샤딩)
+ *
+ * - id 로 샤드를 정한다. shard = id mod N
+ *   save, update, findById 는 해당 샤드 하나만 사용한다.
+ * - findAll 은 모든 샤드에 동시에 조회하고(scatter), 결과를 정렬 순서로 병합한다(gather).
+ *   limit 이 있으면 샤드마다 상위 limit 개만 가져와서 합친 뒤 다시 limit 개로 자른다.
+ * - scatter 는 첫 샤드를 호출한 스레드에서 직접 조회하고, 나머지 샤드만 풀에 넘긴다.
+ *   풀은 (샤드 수 - 1) x queryConcurrency 개 스레드까지 늘어나고, 모두 사용 중이면 호출한 스레드가 직접 조회한다.
+ *   그래서 동시에 들어온 검색들이 풀의 대기열에서 서로를 기다리지 않는다.
+ *   queryConcurrency 는 샤드 하나에 동시에 보낼 수 있는 쿼리 수 (샤드 커넥션 풀 크기와 맞춘다)
+ * - id 는 DB 의 identity 가 아니라 여기서 발급한다. 시작 시 모든 샤드의 max(id) 에서 이어서 발급하므로
+ *   샤드 간에 id 가 겹치지 않는다. (이 리포지토리를 사용하는 애플리케이션이 하나라는 전제)
+ */
+@Slf4j
+public class ShardedItemRepository implements ItemRepository {
+
+    private static final String SELECT_ITEM = "select id, item_name, price, quantity from item";
+    private static final int DEFAULT_QUERY_CONCURRENCY = 10; // HikariCP 기본 maximumPoolSize
+
+    private final List<NamedParameterJdbcTemplate> shards;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequence;
+
+    public ShardedItemRepository(List<DataSource> dataSources) {
+        this(dataSources, DEFAULT_QUERY_CONCURRENCY);
+    }
+
+    public ShardedItemRepository(List<DataSource> dataSources, int queryConcurrency) {
+        if (dataSources.isEmpty()) {
+            throw new IllegalArgumentException("at least one shard is required");
+        }
+
+        this.shards = dataSources.stream()
+                .map(NamedParameterJdbcTemplate::new)
+                .collect(Collectors.toList());
+
+        // 대기열 없이(SynchronousQueue) 빈 스레드가 없으면 호출한 스레드에서 실행한다.
+        // close 한 뒤에도 호출한 스레드에서 실행한다. (CallerRunsPolicy 는 shutdown 뒤에 작업을 버려서 join 이 끝나지 않는다)
+        int maxThreads = Math.max(1, (shards.size() - 1) * queryConcurrency);
+        this.executor = new ThreadPoolExecutor(0, maxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "item-shard-query");
+            thread.setDaemon(true);
+            return thread;
+        }, (runnable, rejectedBy) -> runnable.run());
+
+        long maxId = scatter(shard -> shard.queryForObject("select coalesce(max(id), 0) from item", Map.of(), Long.class))
+                .stream()
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(0L);
+        this.sequence = new AtomicLong(maxId);
+
+        log.info("item shards={}, next id={}", shards.size(), maxId + 1);
+    }
+
+    @Override
+    public Item save(Item item) {
+        long id = sequence.incrementAndGet();
+
+        String sql = "insert into item(id, item_name, price, quantity) values (:id, :itemName, :price, :quantity)";
+        SqlParameterSource param = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("itemName", item.getItemName())
+                .addValue("price", item.getPrice())
+                .addValue("quantity", item.getQuantity());
+
+        shardOf(id).update(sql, param);
+
+        item.setId(id);
+        return item;
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+
+        String sql = "update item set item_name=:itemName, price=:price, quantity=:quantity where id=:id";
+
+        SqlParameterSource param = new MapSqlParameterSource()
+                .addValue("itemName", updateParam.getItemName())
+                .addValue("price", updateParam.getPrice())
+                .addValue("quantity", updateParam.getQuantity())
+                .addValue("id", itemId);
+
+        shardOf(itemId).update(sql, param);
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+
+        String sql = SELECT_ITEM + " where id = :id";
+
+        try {
+            Item item = shardOf(id).queryForObject(sql, Map.of("id", id), itemRowMapper());
+            return Optional.of(item);
+        } catch (EmptyResultDataAccessException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+
+        String sql = SELECT_ITEM + " where id in (:ids)";
+
+        // 샤드별로 id 를 모아서 해당 샤드들에만 동시에 조회한다.
+        Map<Integer, List<Long>> idsByShard = ItemIds.distinct(ids).stream()
+                .collect(Collectors.groupingBy(this::shardIndexOf));
+
+        List<CompletableFuture<List<Item>>> futures = new ArrayList<>();
+        idsByShard.forEach((index, shardIds) -> futures.add(CompletableFuture.supplyAsync(() ->
+                ItemIds.findInChunks(shardIds, chunk -> shards.get(index).query(sql, Map.of("ids", chunk), itemRowMapper())),
+                executor)));
+
+        List<Item> found = new ArrayList<>();
+        futures.forEach(future -> found.addAll(join(future)));
+        return ItemIds.inRequestedOrder(ids, found);
+    }
+
+    @Override
+    public List<Item> findAll(ItemSearchCond cond) {
+
+        String itemName = cond.getItemName();
+        Integer minPrice = cond.getMinPrice();
+        Integer maxPrice = cond.getMaxPrice();
+        Integer minQuantity = cond.getMinQuantity();
+
+        SqlParameterSource param = new BeanPropertySqlParameterSource(cond);
+
+        String sql = SELECT_ITEM;
+
+        // 동적 쿼리
+        if (StringUtils.hasText(itemName) || minPrice != null || maxPrice != null || minQuantity != null) {
+            sql += " where";
+        }
+
+        boolean andFlag = false;
+
+        if (StringUtils.hasText(itemName)) {
+            // EXACT, PREFIX 는 item_name 인덱스를 사용한다. (앞에 % 가 없는 like)
+            if (cond.getMatchMode() == ItemMatchMode.EXACT) {
+                sql += " item_name = :itemName";
+            } else {
+                sql += " item_name like :itemNamePattern escape '\\'";
+            }
+            andFlag = true;
+        }
+
+        if (minPrice != null) {
+            if (andFlag) {
+                sql += " and";
+            }
+
+            sql += " price >= :minPrice";
+            andFlag = true;
+        }
+
+        if (maxPrice != null) {
+            if (andFlag) {
+                sql += " and";
+            }
+
+            sql += " price <= :maxPrice";
+            andFlag = true;
+        }
+
+        if (minQuantity != null) {
+            if (andFlag) {
+                sql += " and";
+            }
+
+            sql += " quantity >= :minQuantity";
+        }
+
+        // 샤드마다 정렬해서 상위 limit 개만 가져온다.
+        sql += " order by " + cond.getSort().orderBy();
+
+        if (cond.hasLimit()) {
+            sql += " limit :limit";
+        }
+
+        log.info("sql={}", sql);
+
+        // 샤드별 결과를 합쳐서 다시 정렬하고, 전체에서 상위 limit 개만 남긴다.
+        String shardSql = sql;
+        return scatter(shard -> shard.query(shardSql, param, itemRowMapper())).stream()
+                .flatMap(List::stream)
+                .sorted(cond.getSort().comparator())
+                .limit(cond.hasLimit() ? cond.getLimit() : Long.MAX_VALUE)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public ItemStats stats() {
+
+        String totalsSql = "select count(*) as item_count, sum(cast(price as bigint) * quantity) as total_stock_value from item";
+
+        String bucket = "price / " + ItemStats.PRICE_BUCKET_SIZE;
+        String histogramSql = "select " + bucket + " as bucket, count(*) as item_count from item" +
+                " where price is not null group by " + bucket;
+
+        List<ItemStats> shardStats = scatter(shard -> {
+            List<ItemPriceBucket> histogram = shard.query(histogramSql, BeanPropertyRowMapper.newInstance(ItemPriceBucket.class));
+            return shard.queryForObject(totalsSql, Map.of(), (rs, rowNum) ->
+                    new ItemStats(rs.getLong("item_count"), rs.getLong("total_stock_value"), histogram));
+        });
+
+        // 샤드별 통계를 합친다.
+        long itemCount = 0;
+        long totalStockValue = 0;
+        TreeMap<Integer, Long> histogram = new TreeMap<>();
+        for (ItemStats stats : shardStats) {
+            itemCount += stats.getItemCount();
+            totalStockValue += stats.getTotalStockValue();
+            stats.getPriceHistogram().forEach(bucketCount -> histogram.merge(bucketCount.getBucket(), bucketCount.getItemCount(), Long::sum));
+        }
+
+        List<ItemPriceBucket> buckets = histogram.entrySet().stream()
+                .map(entry -> new ItemPriceBucket(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+        return new ItemStats(itemCount, totalStockValue, buckets);
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * 모든 샤드에 같은 작업을 동시에 실행하고 샤드 순서대로 결과를 모은다.
+     * 첫 샤드는 호출한 스레드에서 실행한다.
+     */
+    private <T> List<T> scatter(Function<NamedParameterJdbcTemplate, T> query) {
+        List<CompletableFuture<T>> futures = shards.subList(1, shards.size()).stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> query.apply(shard), executor))
+                .collect(Collectors.toList());
+
+        List<T> results = new ArrayList<>(shards.size());
+        results.add(query.apply(shards.get(0)));
+        futures.forEach(future -> results.add(join(future)));
+        return results;
+    }
+
+    // 호출한 스레드에서 실행한 샤드와 같은 예외(DataAccessException 등)가 나가도록 CompletionException 을 벗긴다.
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    int shardIndexOf(Long id) {
+        return (int) Math.floorMod(id, (long) shards.size());
+    }
+
+    private NamedParameterJdbcTemplate shardOf(Long id) {
+        return shards.get(shardIndexOf(id));
+    }
+
+    private RowMapper<Item> itemRowMapper() {
+        return BeanPropertyRowMapper.newInstance(Item.class);
+    }
+}
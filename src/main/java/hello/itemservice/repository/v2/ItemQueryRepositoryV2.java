@@ -1,14 +1,28 @@
 package hello.itemservice.repository.v2;
 
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemIds;
+import hello.itemservice.repository.ItemMatchMode;
+import hello.itemservice.repository.ItemPriceBucket;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSort;
+import hello.itemservice.repository.ItemStats;
+import org.hibernate.annotations.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static hello.itemservice.domain.QItem.item;
 
@@ -22,18 +36,69 @@ public class ItemQueryRepositoryV2 {
     }
 
     public List<Item> findAll(ItemSearchCond cond) {
-        return query.select(item)
+        JPAQuery<Item> findQuery = query.select(item)
                 .from(item)
                 .where(
-                        likeItemName(cond.getItemName()),
-                        maxPrice(cond.getMaxPrice())
+                        likeItemName(cond.getItemName(), cond.getMatchMode()),
+                        minPrice(cond.getMinPrice()),
+                        maxPrice(cond.getMaxPrice()),
+                        minQuantity(cond.getMinQuantity())
                 )
-                .fetch();
+                .orderBy(orderBy(cond.getSort()))
+                .setHint(QueryHints.CACHEABLE, true); // 쿼리 캐시 사용
+
+        // 개수 제한은 DB 에서 처리한다. (limit 절로 변환된다)
+        if (cond.hasLimit()) {
+            findQuery.limit(cond.getLimit());
+        }
+
+        return findQuery.fetch();
+    }
+
+    public List<Item> findAllById(Collection<Long> ids) {
+        return ItemIds.findInChunks(ids, chunk -> query.selectFrom(item)
+                .where(item.id.in(chunk))
+                .fetch());
+    }
+
+    public ItemStats stats() {
+        NumberExpression<Long> stockValue = item.price.castToNum(Long.class).multiply(item.quantity).sum();
+        Tuple totals = query
+                .select(item.count(), stockValue)
+                .from(item)
+                .fetchOne();
+
+        // 그룹핑 식과 조회 식이 같아야 하므로 구간 크기는 파라미터가 아닌 리터럴로 넣는다.
+        NumberExpression<Integer> bucket = Expressions.numberTemplate(Integer.class, "{0} / " + ItemStats.PRICE_BUCKET_SIZE, item.price);
+        List<ItemPriceBucket> histogram = query
+                .select(bucket, item.count())
+                .from(item)
+                .where(item.price.isNotNull())
+                .groupBy(bucket)
+                .orderBy(bucket.asc())
+                .fetch()
+                .stream()
+                .map(tuple -> new ItemPriceBucket(tuple.get(bucket), tuple.get(item.count())))
+                .collect(Collectors.toList());
+
+        Long totalStockValue = totals.get(stockValue);
+        return new ItemStats(totals.get(item.count()), totalStockValue == null ? 0 : totalStockValue, histogram);
     }
 
-    private BooleanExpression likeItemName(String itemName) {
-        if (StringUtils.hasText(itemName)) {
-            return item.itemName.like("%" + itemName + "%");
+    private BooleanExpression likeItemName(String itemName, ItemMatchMode matchMode) {
+        if (!StringUtils.hasText(itemName)) {
+            return null;
+        }
+        // EXACT, PREFIX 는 item_name 인덱스를 사용한다. (앞에 % 가 없는 like)
+        if (matchMode == ItemMatchMode.EXACT) {
+            return item.itemName.eq(itemName);
+        }
+        return item.itemName.like(matchMode.likePattern(itemName), ItemMatchMode.LIKE_ESCAPE);
+    }
+
+    private BooleanExpression minPrice(Integer minPrice) {
+        if (minPrice != null) {
+            return item.price.goe(minPrice);
         }
         return null;
     }
@@ -45,4 +110,26 @@ public class ItemQueryRepositoryV2 {
         return null;
     }
 
+    private BooleanExpression minQuantity(Integer minQuantity) {
+        if (minQuantity != null) {
+            return item.quantity.goe(minQuantity);
+        }
+        return null;
+    }
+
+    // 정렬 값이 같으면 id 순
+    private OrderSpecifier<?>[] orderBy(ItemSort sort) {
+        Order direction = sort.isAscending() ? Order.ASC : Order.DESC;
+        switch (sort) {
+            case PRICE_ASC:
+            case PRICE_DESC:
+                return new OrderSpecifier<?>[]{new OrderSpecifier<>(direction, item.price), item.id.asc()};
+            case QUANTITY_ASC:
+            case QUANTITY_DESC:
+                return new OrderSpecifier<?>[]{new OrderSpecifier<>(direction, item.quantity), item.id.asc()};
+            default:
+                return new OrderSpecifier<?>[]{item.id.asc()};
+        }
+    }
+
 }
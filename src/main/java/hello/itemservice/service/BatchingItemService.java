@@ -0,0 +1,277 @@
+package hello.itemservice.service;
+
+import hello.itemservice.deadline.Deadline;
+import hello.itemservice.deadline.DeadlineExceededException;
+import hello.itemservice.domain.Item;
+import hello.itemservice.monitoring.DbRequestStats;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
+import hello.itemservice.repository.ItemUpdateDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * 여러 요청의 findById 를 짧은 시간 동안 모아서 findAllById(in 쿼리) 한 번으로 조회한다. (DataLoader 방식)
+ *
+ * - 첫 번째 id 가 들어오고 window 가 지나거나, maxBatchSize 개가 모이면 한 번에 조회한다.
+ *   요청마다 최대 window 만큼 늦어지는 대신 DB 왕복과 쿼리 수가 줄어든다.
+ * - 모으는 스레드는 하나이고, 조회는 loaders 개의 스레드에서 실행한다. 조회 중에도 다음 묶음을 모은다.
+ * - 조회가 실패하면 묶음에 있던 요청 모두 같은 예외를 받는다.
+ * - 조회하는 스레드에는 요청 스레드의 ThreadLocal 이 없으므로 조회하는 동안 직접 옮긴다.
+ *   마감(Deadline) : 이미 지난 요청은 빼고, 남은 요청 중 가장 이른 마감을 건다. (statement timeout)
+ *   DB 작업 집계(DbRequestStats) : 묶음 조회의 DB 작업을 묶음에 들어간 요청마다 더한다.
+ *
+ * 조회는 다른 스레드에서 실행되므로 바깥 트랜잭션 안에서 호출되면 모으지 않고 바로 조회한다.
+ * cached 가 true 인 id 도 바로 조회한다. JPA 엔진의 findAllById 는 in 쿼리라서 2차 캐시를 읽지 않으므로,
+ * 캐시에 있는 상품(hot 상품 등)까지 묶으면 캐시 hit 가 DB 왕복으로 바뀐다.
+ */
+@Slf4j
+public class BatchingItemService implements ItemService, AutoCloseable {
+
+    private final ItemService target;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Predicate<Long> cached; // 묶지 않고 바로 조회할 id (2차 캐시에 있는 상품)
+
+    private final BlockingQueue<PendingLoad> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService loader;
+    private final Thread collector;
+    private volatile boolean running = true;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchedCalls = new AtomicLong();
+
+    public BatchingItemService(ItemService target, Duration window, int maxBatchSize, int loaders) {
+        this(target, window, maxBatchSize, loaders, id -> false);
+    }
+
+    public BatchingItemService(ItemService target, Duration window, int maxBatchSize, int loaders, Predicate<Long> cached) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("window must be positive: " + window);
+        }
+        if (maxBatchSize < 1 || loaders < 1) {
+            throw new IllegalArgumentException("maxBatchSize and loaders must be positive");
+        }
+
+        this.target = target;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.cached = cached;
+
+        this.loader = Executors.newFixedThreadPool(loaders, runnable -> {
+            Thread thread = new Thread(runnable, "item-batch-load");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.collector = new Thread(this::collect, "item-batch-collect");
+        this.collector.setDaemon(true);
+        this.collector.start();
+    }
+
+    @Override
+    public Item save(Item item) {
+        return target.save(item);
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        target.update(itemId, updateParam);
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        if (id == null || !running || TransactionSynchronizationManager.isActualTransactionActive() || cached.test(id)) {
+            return target.findById(id);
+        }
+
+        PendingLoad load = new PendingLoad(id);
+        queue.add(load);
+        if (!running && queue.remove(load)) {
+            // close 와 겹쳐서 모으는 스레드가 가져가지 못한 요청
+            return target.findById(id);
+        }
+        return await(load.future);
+    }
+
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        return target.findAllById(ids);
+    }
+
+    @Override
+    public List<Item> findItems(ItemSearchCond itemSearch) {
+        return target.findItems(itemSearch);
+    }
+
+    @Override
+    public ItemStats stats() {
+        return target.stats();
+    }
+
+    // 조회한 묶음 수
+    public long getBatches() {
+        return batches.get();
+    }
+
+    // 묶음으로 처리한 findById 호출 수
+    public long getBatchedCalls() {
+        return batchedCalls.get();
+    }
+
+    /**
+     * 모으는 스레드를 멈춘다. 이미 들어온 요청은 조회한 뒤 멈춘다.
+     */
+    @Override
+    public void close() {
+        running = false;
+        collector.interrupt();
+        try {
+            collector.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        loader.shutdown();
+    }
+
+    private void collect() {
+        List<PendingLoad> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                // 첫 번째 요청이 들어온 시점부터 window 동안 모은다.
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingLoad load = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (load == null) {
+                        break;
+                    }
+                    batch.add(load);
+                }
+            } catch (InterruptedException e) {
+                // close
+            }
+
+            dispatch(batch);
+            batch = new ArrayList<>(maxBatchSize);
+        }
+
+        // 멈추기 전에 들어온 요청을 마저 처리한다.
+        queue.drainTo(batch);
+        dispatch(batch);
+    }
+
+    private void dispatch(List<PendingLoad> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            loader.execute(() -> load(batch));
+        } catch (RuntimeException e) {
+            // 종료 중이라 실행할 수 없으면 현재 스레드에서 조회한다.
+            load(batch);
+        }
+    }
+
+    private void load(List<PendingLoad> batch) {
+        List<PendingLoad> live = new ArrayList<>(batch.size());
+        Deadline earliest = null;
+        for (PendingLoad load : batch) {
+            if (load.deadline != null && load.deadline.isExpired()) {
+                load.future.completeExceptionally(new DeadlineExceededException(load.deadline.getTimeout()));
+                continue;
+            }
+            live.add(load);
+            if (load.deadline != null && (earliest == null || load.deadline.remainingNanos() < earliest.remainingNanos())) {
+                earliest = load.deadline;
+            }
+        }
+        if (live.isEmpty()) {
+            return;
+        }
+
+        Set<Long> ids = new LinkedHashSet<>();
+        live.forEach(load -> ids.add(load.id));
+
+        batches.incrementAndGet();
+        batchedCalls.addAndGet(live.size());
+        log.debug("item batch load calls={}, ids={}", live.size(), ids.size());
+
+        if (earliest != null) {
+            Deadline.set(earliest);
+        }
+        DbRequestStats stats = DbRequestStats.start();
+        try {
+            Map<Long, Item> found = new HashMap<>();
+            target.findAllById(ids).forEach(item -> found.put(item.getId(), item));
+
+            live.forEach(load -> {
+                load.addStats(stats);
+                load.future.complete(Optional.ofNullable(found.get(load.id)));
+            });
+        } catch (RuntimeException | Error e) {
+            live.forEach(load -> {
+                load.addStats(stats);
+                load.future.completeExceptionally(e);
+            });
+        } finally {
+            DbRequestStats.end();
+            Deadline.clear();
+        }
+    }
+
+    private Optional<Item> await(CompletableFuture<Optional<Item>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class PendingLoad {
+
+        private final Long id;
+        private final CompletableFuture<Optional<Item>> future = new CompletableFuture<>();
+
+        // 요청 스레드의 값 (없으면 null)
+        private final Deadline deadline = Deadline.current();
+        private final DbRequestStats stats = DbRequestStats.current();
+
+        PendingLoad(Long id) {
+            this.id = id;
+        }
+
+        // 요청 스레드는 future 가 끝날 때까지 기다리므로 그 전에 더한다.
+        void addStats(DbRequestStats batchStats) {
+            if (stats != null) {
+                stats.add(batchStats);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package hello.itemservice.service;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.limit.AdaptiveConcurrencyLimiter;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
+import hello.itemservice.repository.ItemUpdateDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 조회, 변경의 동시 실행 수를 각각 제한한다. (bulkhead)
+ *
+ * 과부하일 때 모든 요청이 커넥션 풀 앞에서 기다리는 대신 제한을 넘는 요청을 바로 거절한다.
+ * 조회가 몰려도 변경(save, update)은 자기 몫의 제한으로 계속 처리된다.
+ */
+public class ConcurrencyLimitedItemService implements ItemService {
+
+    private final ItemService target;
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+
+    public ConcurrencyLimitedItemService(ItemService target, AdaptiveConcurrencyLimiter readLimiter, AdaptiveConcurrencyLimiter writeLimiter) {
+        this.target = target;
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+    }
+
+    @Override
+    public Item save(Item item) {
+        return limited(writeLimiter, () -> target.save(item));
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        limited(writeLimiter, () -> {
+            target.update(itemId, updateParam);
+            return null;
+        });
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return limited(readLimiter, () -> target.findById(id));
+    }
+
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        return limited(readLimiter, () -> target.findAllById(ids));
+    }
+
+    @Override
+    public List<Item> findItems(ItemSearchCond itemSearch) {
+        return limited(readLimiter, () -> target.findItems(itemSearch));
+    }
+
+    @Override
+    public ItemStats stats() {
+        return limited(readLimiter, target::stats);
+    }
+
+    private <T> T limited(AdaptiveConcurrencyLimiter limiter, Supplier<T> call) {
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+        try {
+            return call.get();
+        } finally {
+            permit.release();
+        }
+    }
+}
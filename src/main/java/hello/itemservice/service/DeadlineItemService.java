@@ -0,0 +1,59 @@
+package hello.itemservice.service;
+
+import hello.itemservice.deadline.Deadline;
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
+import hello.itemservice.repository.ItemUpdateDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 요청 마감이 지났으면 트랜잭션, 커넥션을 얻기 전에 DeadlineExceededException 으로 중단한다.
+ */
+public class DeadlineItemService implements ItemService {
+
+    private final ItemService target;
+
+    public DeadlineItemService(ItemService target) {
+        this.target = target;
+    }
+
+    @Override
+    public Item save(Item item) {
+        Deadline.checkCurrent();
+        return target.save(item);
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        Deadline.checkCurrent();
+        target.update(itemId, updateParam);
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        Deadline.checkCurrent();
+        return target.findById(id);
+    }
+
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        Deadline.checkCurrent();
+        return target.findAllById(ids);
+    }
+
+    @Override
+    public List<Item> findItems(ItemSearchCond itemSearch) {
+        Deadline.checkCurrent();
+        return target.findItems(itemSearch);
+    }
+
+    @Override
+    public ItemStats stats() {
+        Deadline.checkCurrent();
+        return target.stats();
+    }
+}
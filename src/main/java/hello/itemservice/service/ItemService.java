@@ -2,8 +2,10 @@ package hello.itemservice.service;
 
 import hello.itemservice.domain.Item;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,5 +17,9 @@ public interface ItemService {
 
     Optional<Item> findById(Long id);
 
+    List<Item> findAllById(Collection<Long> ids);
+
     List<Item> findItems(ItemSearchCond itemSearch);
+
+    ItemStats stats();
 }
@@ -0,0 +1,48 @@
+package hello.itemservice.service;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+
+import java.util.function.Function;
+
+/**
+ * ItemService 빈을 데코레이터로 감싼다. (이벤트 발행, 요청 합치기 ...)
+ *
+ * 트랜잭션 프록시가 먼저 만들어진 다음에 감싸야 한다. (먼저 감싸면 @Transactional 이 붙은 ItemServiceV2 가 프록시 대상에서 빠진다)
+ * 프록시 생성기는 가장 높은 우선순위로 먼저 실행되므로 order 는 DECORATOR_ORDER 근처의 값을 사용한다.
+ * order 가 작을수록 먼저 감싸므로 안쪽에 위치한다.
+ */
+public class ItemServiceDecoratingPostProcessor implements BeanPostProcessor, Ordered {
+
+    public static final int DECORATOR_ORDER = Ordered.LOWEST_PRECEDENCE - 100;
+
+    // 데코레이터 위치 (안쪽부터)
+    public static final int JFR_ORDER = DECORATOR_ORDER - 30;
+    public static final int RESOURCE_ACCOUNTING_ORDER = DECORATOR_ORDER - 20;
+    public static final int CONCURRENCY_LIMIT_ORDER = DECORATOR_ORDER - 10;
+    public static final int BATCHING_ORDER = DECORATOR_ORDER;
+    public static final int SINGLE_FLIGHT_ORDER = DECORATOR_ORDER + 10;
+    public static final int DEADLINE_ORDER = DECORATOR_ORDER + 40;
+    public static final int EVENT_PUBLISHING_ORDER = DECORATOR_ORDER + 50;
+
+    private final int order;
+    private final Function<ItemService, ItemService> decorator;
+
+    public ItemServiceDecoratingPostProcessor(int order, Function<ItemService, ItemService> decorator) {
+        this.order = order;
+        this.decorator = decorator;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof ItemService) {
+            return decorator.apply((ItemService) bean);
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+}
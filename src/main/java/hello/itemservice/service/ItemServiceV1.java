@@ -3,10 +3,12 @@ package hello.itemservice.service;
 import hello.itemservice.domain.Item;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,8 +33,18 @@ public class ItemServiceV1 implements ItemService {
         return itemRepository.findById(id);
     }
 
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        return itemRepository.findAllById(ids);
+    }
+
     @Override
     public List<Item> findItems(ItemSearchCond cond) {
         return itemRepository.findAll(cond);
     }
+
+    @Override
+    public ItemStats stats() {
+        return itemRepository.stats();
+    }
 }
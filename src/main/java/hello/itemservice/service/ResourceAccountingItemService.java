@@ -0,0 +1,75 @@
+package hello.itemservice.service;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.monitoring.ResourceUsageRegistry;
+import hello.itemservice.monitoring.ThreadResourceMeter;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
+import hello.itemservice.repository.ItemUpdateDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 엔진(리포지토리) 호출마다 할당량, CPU 시간을 재서 "엔진.메서드" 로 누적한다. ex) v2.findItems
+ *
+ * 가장 안쪽 데코레이터라서 리포지토리 호출 비용만 측정된다.
+ * (RowMapper, 엔티티 스냅샷, 박싱 ... 컨트롤러와 뷰 비용은 엔드포인트 쪽에 잡힌다)
+ */
+public class ResourceAccountingItemService implements ItemService {
+
+    private final ItemService target;
+    private final ResourceUsageRegistry registry;
+    private final String backend;
+
+    public ResourceAccountingItemService(ItemService target, ResourceUsageRegistry registry, String backend) {
+        this.target = target;
+        this.registry = registry;
+        this.backend = backend;
+    }
+
+    @Override
+    public Item save(Item item) {
+        return measure("save", () -> target.save(item));
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        measure("update", () -> {
+            target.update(itemId, updateParam);
+            return null;
+        });
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return measure("findById", () -> target.findById(id));
+    }
+
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        return measure("findAllById", () -> target.findAllById(ids));
+    }
+
+    @Override
+    public List<Item> findItems(ItemSearchCond itemSearch) {
+        return measure("findItems", () -> target.findItems(itemSearch));
+    }
+
+    @Override
+    public ItemStats stats() {
+        return measure("stats", target::stats);
+    }
+
+    // 예외로 끝난 호출도 비용은 누적한다.
+    private <T> T measure(String method, Supplier<T> call) {
+        ThreadResourceMeter.Sample start = registry.start();
+        try {
+            return call.get();
+        } finally {
+            registry.record(ResourceUsageRegistry.BACKEND, backend + "." + method, start);
+        }
+    }
+}
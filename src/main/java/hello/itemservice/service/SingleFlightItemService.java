@@ -0,0 +1,151 @@
+package hello.itemservice.service;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
+import hello.itemservice.repository.ItemUpdateDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 같은 조회가 동시에 여러 번 들어오면 한 번만 실행하고 결과를 나눠 갖는다. (single-flight)
+ *
+ * - findById(같은 id), findItems(같은 조건) 가 대상이다.
+ * - 먼저 들어온 요청(leader)이 실제로 조회하고, 그동안 들어온 같은 요청은 leader 의 결과를 기다린다.
+ * - 조회가 끝나면 바로 잊는다. 결과를 캐시하지 않으므로 끝난 뒤에 들어온 요청은 다시 조회한다.
+ * - 예외도 기다리던 요청에 똑같이 전달된다.
+ *
+ * 기다리던 요청은 leader 와 같은 결과 객체를 받는다. (리스트는 요청마다 복사한다) 결과 상품을 변경하면 안 된다.
+ * 바깥 트랜잭션 안에서 호출되면 합치지 않는다. (다른 트랜잭션의 결과를 보면 안 된다)
+ */
+@Slf4j
+public class SingleFlightItemService implements ItemService {
+
+    private final ItemService target;
+    private final ConcurrentHashMap<CallKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedCalls = new AtomicLong();
+
+    public SingleFlightItemService(ItemService target) {
+        this.target = target;
+    }
+
+    @Override
+    public Item save(Item item) {
+        return target.save(item);
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        target.update(itemId, updateParam);
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return singleFlight(new CallKey("findById", id), () -> target.findById(id));
+    }
+
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        return target.findAllById(ids);
+    }
+
+    @Override
+    public List<Item> findItems(ItemSearchCond cond) {
+        List<Item> items = singleFlight(new CallKey("findItems", cond), () -> target.findItems(cond));
+        return List.copyOf(items);
+    }
+
+    @Override
+    public ItemStats stats() {
+        return target.stats();
+    }
+
+    // 다른 요청의 결과를 나눠 받은 횟수
+    public long getCoalescedCalls() {
+        return coalescedCalls.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T singleFlight(CallKey key, Supplier<T> call) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return call.get();
+        }
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            coalescedCalls.incrementAndGet();
+            log.debug("single-flight join {}", key);
+            return (T) await(leader);
+        }
+
+        try {
+            T result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class CallKey {
+
+        private final String method;
+        private final Object argument;
+
+        CallKey(String method, Object argument) {
+            this.method = method;
+            this.argument = argument;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CallKey)) {
+                return false;
+            }
+            CallKey other = (CallKey) o;
+            return method.equals(other.method) && Objects.equals(argument, other.argument);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * method.hashCode() + Objects.hashCode(argument);
+        }
+
+        @Override
+        public String toString() {
+            return method + "(" + argument + ")";
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package hello.itemservice.suggest;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 자동 완성용 검색 키를 만든다.
+ *
+ * 한글 음절을 자모로 풀어서 입력 중인 글자도 찾을 수 있게 한다.
+ * - "키보드" -> ㅋㅣㅂㅗㄷㅡ
+ * - 입력 중 "킵" -> ㅋㅣㅂ (키보드와 앞부분이 같다)
+ * 받침과 초성은 같은 호환 자모로 바꾸고, 겹받침(ㄺ), 겹모음(ㅘ)은 두 자모로 나눈다. ("달" 로 "닭", "고" 로 "과" 를 찾는다)
+ * 영문은 소문자로 바꾼다.
+ */
+public final class HangulJamo {
+
+    private static final char SYLLABLE_BEGIN = '가';
+    private static final char SYLLABLE_END = '힣';
+    private static final int JUNG_COUNT = 21;
+    private static final int JONG_COUNT = 28;
+
+    private static final String CHO = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ";
+    private static final String JUNG = "ㅏㅐㅑㅒㅓㅔㅕㅖㅗㅘㅙㅚㅛㅜㅝㅞㅟㅠㅡㅢㅣ";
+    private static final String JONG = " ㄱㄲㄳㄴㄵㄶㄷㄹㄺㄻㄼㄽㄾㄿㅀㅁㅂㅄㅅㅆㅇㅈㅊㅋㅌㅍㅎ"; // 첫 칸은 받침 없음
+
+    private static final Map<Character, String> COMPOUNDS = Map.ofEntries(
+            Map.entry('ㄳ', "ㄱㅅ"), Map.entry('ㄵ', "ㄴㅈ"), Map.entry('ㄶ', "ㄴㅎ"),
+            Map.entry('ㄺ', "ㄹㄱ"), Map.entry('ㄻ', "ㄹㅁ"), Map.entry('ㄼ', "ㄹㅂ"), Map.entry('ㄽ', "ㄹㅅ"),
+            Map.entry('ㄾ', "ㄹㅌ"), Map.entry('ㄿ', "ㄹㅍ"), Map.entry('ㅀ', "ㄹㅎ"), Map.entry('ㅄ', "ㅂㅅ"),
+            Map.entry('ㅘ', "ㅗㅏ"), Map.entry('ㅙ', "ㅗㅐ"), Map.entry('ㅚ', "ㅗㅣ"),
+            Map.entry('ㅝ', "ㅜㅓ"), Map.entry('ㅞ', "ㅜㅔ"), Map.entry('ㅟ', "ㅜㅣ"), Map.entry('ㅢ', "ㅡㅣ"));
+
+    private HangulJamo() {
+    }
+
+    public static String key(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        StringBuilder key = new StringBuilder(lower.length() * 3);
+        for (int i = 0; i < lower.length(); i++) {
+            char ch = lower.charAt(i);
+            if (ch >= SYLLABLE_BEGIN && ch <= SYLLABLE_END) {
+                int index = ch - SYLLABLE_BEGIN;
+                appendJamo(key, CHO.charAt(index / (JUNG_COUNT * JONG_COUNT)));
+                appendJamo(key, JUNG.charAt(index % (JUNG_COUNT * JONG_COUNT) / JONG_COUNT));
+                int jong = index % JONG_COUNT;
+                if (jong != 0) {
+                    appendJamo(key, JONG.charAt(jong));
+                }
+            } else {
+                appendJamo(key, ch);
+            }
+        }
+        return key.toString();
+    }
+
+    private static void appendJamo(StringBuilder key, char jamo) {
+        String compound = COMPOUNDS.get(jamo);
+        if (compound != null) {
+            key.append(compound);
+        } else {
+            key.append(jamo);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package hello.itemservice.suggest;
+
+import hello.itemservice.domain.Item;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 자동 완성용 상품명 색인
+ *
+ * 상품 id 별 현재 상품명을 기억해서, 상품명이 바뀌면 이전 이름을 빼고 새 이름을 넣는다.
+ * 쓰기는 한 번에 하나씩(synchronized) 새 trie 를 만들어 바꿔 끼우고, 읽기는 락 없이 현재 trie 를 읽는다.
+ */
+@Slf4j
+public class ItemNameIndex {
+
+    private final Map<Long, String> names = new HashMap<>(); // 상품 id -> 상품명 (synchronized)
+    private volatile ItemNameTrie trie = ItemNameTrie.EMPTY;
+
+    public List<String> suggest(String prefix, int limit) {
+        if (!StringUtils.hasText(prefix) || limit <= 0) {
+            return List.of();
+        }
+        return trie.startingWith(prefix.trim(), limit);
+    }
+
+    /**
+     * 저장, 수정 이벤트 (항상 최신 값)
+     */
+    public synchronized void put(Long itemId, String itemName) {
+        String previous = names.put(itemId, itemName);
+        if (previous != null && previous.equals(itemName)) {
+            return;
+        }
+
+        ItemNameTrie changed = trie;
+        if (StringUtils.hasText(previous)) {
+            changed = changed.remove(previous);
+        }
+        if (StringUtils.hasText(itemName)) {
+            changed = changed.add(itemName);
+        }
+        trie = changed;
+    }
+
+    /**
+     * 시작할 때 읽은 상품들. 읽는 동안 이벤트로 먼저 들어온 상품은 이벤트 값이 더 최신이므로 건너뛴다.
+     */
+    public synchronized void load(List<Item> items) {
+        ItemNameTrie loaded = trie;
+        for (Item item : items) {
+            if (names.containsKey(item.getId())) {
+                continue;
+            }
+            names.put(item.getId(), item.getItemName());
+            if (StringUtils.hasText(item.getItemName())) {
+                loaded = loaded.add(item.getItemName());
+            }
+        }
+        trie = loaded;
+        log.info("item name index loaded items={}", names.size());
+    }
+
+    public synchronized int size() {
+        return names.size();
+    }
+}
@@ -0,0 +1,31 @@
+package hello.itemservice.suggest;
+
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.service.ItemService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * 애플리케이션이 준비되면(ApplicationReadyEvent) 모든 상품명을 읽어 자동 완성 색인을 채운다.
+ *
+ * 시작 데이터(TestDataInit)는 ItemRepository 로 바로 저장해서 상품 변경 이벤트가 발행되지 않으므로
+ * 같은 이벤트의 가장 나중 순서로 읽는다. 읽는 동안의 변경은 이벤트로 들어온다. (ItemNameIndex.load)
+ */
+public class ItemNameIndexLoader {
+
+    private final ItemNameIndex index;
+    private final ItemService itemService;
+
+    public ItemNameIndexLoader(ItemNameIndex index, ItemService itemService) {
+        this.index = index;
+        this.itemService = itemService;
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        index.load(itemService.findItems(new ItemSearchCond()));
+    }
+}
@@ -0,0 +1,26 @@
+package hello.itemservice.suggest;
+
+import hello.itemservice.event.ItemChangeEvent;
+import hello.itemservice.event.ItemChangeSubscriber;
+
+import java.util.List;
+
+/**
+ * 상품 변경 이벤트로 자동 완성 색인을 갱신한다.
+ * 이벤트는 발행 순서대로 전달되므로 같은 상품의 마지막 이벤트가 마지막에 반영된다.
+ */
+public class ItemNameIndexSubscriber implements ItemChangeSubscriber {
+
+    private final ItemNameIndex index;
+
+    public ItemNameIndexSubscriber(ItemNameIndex index) {
+        this.index = index;
+    }
+
+    @Override
+    public void onEvents(List<ItemChangeEvent> events) {
+        for (ItemChangeEvent event : events) {
+            index.put(event.getItemId(), event.getItemName());
+        }
+    }
+}
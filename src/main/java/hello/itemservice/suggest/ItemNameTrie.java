@@ -0,0 +1,228 @@
+package hello.itemservice.suggest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 상품명 radix trie (불변)
+ *
+ * - 키는 HangulJamo.key(상품명), 갈라지지 않는 구간은 한 노드의 label 로 합친다.
+ * - 자식은 label 첫 글자 순 배열로 두고 이진 검색한다.
+ * - add, remove 는 바뀌는 경로의 노드만 새로 만들어 새 trie 를 반환한다. (나머지 노드는 공유)
+ *   그래서 읽는 쪽은 락 없이 자기가 잡은 trie 를 끝까지 읽을 수 있다.
+ * - startingWith 는 접두사 노드부터 키 순서로 limit 개를 모으면 멈춘다. (전체 개수와 관계없이 접두사 길이 + limit 에 비례)
+ */
+public final class ItemNameTrie {
+
+    public static final ItemNameTrie EMPTY = new ItemNameTrie(Node.ROOT);
+
+    private final Node root;
+
+    private ItemNameTrie(Node root) {
+        this.root = root;
+    }
+
+    public ItemNameTrie add(String itemName) {
+        return new ItemNameTrie(change(root, HangulJamo.key(itemName), 0, itemName, 1));
+    }
+
+    public ItemNameTrie remove(String itemName) {
+        return new ItemNameTrie(change(root, HangulJamo.key(itemName), 0, itemName, -1));
+    }
+
+    /**
+     * prefix 로 시작하는 상품명을 키 순서로 최대 limit 개 (같은 상품명은 한 번만)
+     */
+    public List<String> startingWith(String prefix, int limit) {
+        String key = HangulJamo.key(prefix);
+        Node node = root;
+        int offset = 0;
+        while (offset < key.length()) {
+            int index = node.indexOf(key.charAt(offset));
+            if (index < 0) {
+                return List.of();
+            }
+
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, offset);
+            if (common < child.label.length() && offset + common < key.length()) {
+                return List.of(); // label 중간에서 달라진다.
+            }
+            node = child;
+            offset += common;
+        }
+
+        List<String> result = new ArrayList<>(limit);
+        collect(node, result, limit);
+        return result;
+    }
+
+    private static void collect(Node node, List<String> result, int limit) {
+        for (String name : node.names) {
+            if (result.size() >= limit) {
+                return;
+            }
+            result.add(name);
+        }
+        for (Node child : node.children) {
+            if (result.size() >= limit) {
+                return;
+            }
+            collect(child, result, limit);
+        }
+    }
+
+    /**
+     * node 의 label 다음부터 key[offset..] 경로에 있는 name 의 수를 delta 만큼 바꾼 새 노드
+     */
+    private static Node change(Node node, String key, int offset, String name, int delta) {
+        if (offset == key.length()) {
+            return node.withName(name, delta);
+        }
+
+        int index = node.indexOf(key.charAt(offset));
+        if (index < 0) {
+            if (delta < 0) {
+                return node; // 없는 상품명
+            }
+            Node leaf = new Node(key.substring(offset), Node.NO_CHILDREN, new String[]{name}, new int[]{delta});
+            return node.withChild(-(index + 1), leaf);
+        }
+
+        Node child = node.children[index];
+        int common = commonPrefix(child.label, key, offset);
+        if (common == child.label.length()) {
+            return node.replaceChild(index, compact(change(child, key, offset + common, name, delta)));
+        }
+        if (delta < 0) {
+            return node; // 없는 상품명
+        }
+
+        // label 중간에서 갈라지면 공통 부분으로 중간 노드를 만든다.
+        Node tail = child.withLabel(child.label.substring(common));
+        Node middle = new Node(child.label.substring(0, common), new Node[]{tail}, Node.NO_NAMES, Node.NO_COUNTS);
+        return node.replaceChild(index, change(middle, key, offset + common, name, delta));
+    }
+
+    // 상품명도 자식도 없으면 지우고, 상품명 없이 자식이 하나면 자식과 합친다.
+    private static Node compact(Node node) {
+        if (node.names.length > 0) {
+            return node;
+        }
+        if (node.children.length == 0) {
+            return null;
+        }
+        if (node.children.length == 1) {
+            Node only = node.children[0];
+            return only.withLabel(node.label + only.label);
+        }
+        return node;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+
+        static final Node[] NO_CHILDREN = new Node[0];
+        static final String[] NO_NAMES = new String[0];
+        static final int[] NO_COUNTS = new int[0];
+        static final Node ROOT = new Node("", NO_CHILDREN, NO_NAMES, NO_COUNTS);
+
+        final String label;     // 부모에서 이 노드까지의 키 구간
+        final Node[] children;  // label 첫 글자 순
+        final String[] names;   // 키가 여기서 끝나는 상품명 (정렬)
+        final int[] counts;     // 상품명별 상품 수
+
+        Node(String label, Node[] children, String[] names, int[] counts) {
+            this.label = label;
+            this.children = children;
+            this.names = names;
+            this.counts = counts;
+        }
+
+        // 없으면 -(넣을 위치 + 1)
+        int indexOf(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char value = children[middle].label.charAt(0);
+                if (value < first) {
+                    low = middle + 1;
+                } else if (value > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        Node withLabel(String newLabel) {
+            return new Node(newLabel, children, names, counts);
+        }
+
+        Node withChild(int position, Node child) {
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(children, 0, newChildren, 0, position);
+            newChildren[position] = child;
+            System.arraycopy(children, position, newChildren, position + 1, children.length - position);
+            return new Node(label, newChildren, names, counts);
+        }
+
+        // child 가 null 이면 지운다.
+        Node replaceChild(int index, Node child) {
+            if (child == null) {
+                Node[] newChildren = new Node[children.length - 1];
+                System.arraycopy(children, 0, newChildren, 0, index);
+                System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+                return new Node(label, newChildren, names, counts);
+            }
+            Node[] newChildren = children.clone();
+            newChildren[index] = child;
+            return new Node(label, newChildren, names, counts);
+        }
+
+        Node withName(String name, int delta) {
+            int index = Arrays.binarySearch(names, name);
+            if (index < 0) {
+                if (delta < 0) {
+                    return this;
+                }
+                int position = -(index + 1);
+                String[] newNames = new String[names.length + 1];
+                int[] newCounts = new int[counts.length + 1];
+                System.arraycopy(names, 0, newNames, 0, position);
+                System.arraycopy(counts, 0, newCounts, 0, position);
+                newNames[position] = name;
+                newCounts[position] = delta;
+                System.arraycopy(names, position, newNames, position + 1, names.length - position);
+                System.arraycopy(counts, position, newCounts, position + 1, counts.length - position);
+                return new Node(label, children, newNames, newCounts);
+            }
+
+            int count = counts[index] + delta;
+            if (count > 0) {
+                int[] newCounts = counts.clone();
+                newCounts[index] = count;
+                return new Node(label, children, names, newCounts);
+            }
+
+            String[] newNames = new String[names.length - 1];
+            int[] newCounts = new int[counts.length - 1];
+            System.arraycopy(names, 0, newNames, 0, index);
+            System.arraycopy(counts, 0, newCounts, 0, index);
+            System.arraycopy(names, index + 1, newNames, index, names.length - index - 1);
+            System.arraycopy(counts, index + 1, newCounts, index, counts.length - index - 1);
+            return new Node(label, children, newNames, newCounts);
+        }
+    }
+}
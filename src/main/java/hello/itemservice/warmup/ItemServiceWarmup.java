@@ -0,0 +1,194 @@
+package hello.itemservice.warmup;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemMatchMode;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSort;
+import hello.itemservice.service.ItemService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 시작 직후 느린 구간을 줄이기 위한 워밍업
+ *
+ * 1. 커넥션 풀 채우기 - minimumIdle 개의 커넥션을 동시에 열었다가 반납한다.
+ * 2. 대표 조회 반복 - 검색 조건(이름 검색 방식, 정렬, 범위, limit)과 findById, findAllById, stats 를 반복해서
+ *    SQL 실행 계획, Hibernate/Querydsl 쿼리 계획, JIT 컴파일을 미리 만든다.
+ * 3. 인기 상품 미리 읽기 - hotIds(없으면 id 순 앞쪽 hotItemCount 개)를 findById 로 읽어서 2차 캐시에 올린다.
+ *
+ * ApplicationRunner 는 ApplicationReadyEvent 전에 실행되므로 워밍업이 끝난 뒤에 readiness 가 ACCEPTING_TRAFFIC 이 된다.
+ * 조회만 실행하고 데이터는 변경하지 않는다.
+ */
+@Slf4j
+public class ItemServiceWarmup implements ApplicationRunner {
+
+    private final ApplicationContext context;
+    private final ItemService itemService;
+    private final List<DataSource> dataSources;
+    private final int iterations;
+    private final int hotItemCount;
+    private final List<Long> hotIds;
+    private final Duration maxDuration;
+
+    private volatile Duration duration;
+
+    public ItemServiceWarmup(ApplicationContext context, ItemService itemService, List<DataSource> dataSources,
+                             int iterations, int hotItemCount, List<Long> hotIds, Duration maxDuration) {
+        this.context = context;
+        this.itemService = itemService;
+        this.dataSources = dataSources;
+        this.iterations = iterations;
+        this.hotItemCount = hotItemCount;
+        this.hotIds = hotIds;
+        this.maxDuration = maxDuration;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        AvailabilityChangeEvent.publish(context, ReadinessState.REFUSING_TRAFFIC);
+
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+
+        int connections = fillConnectionPools();
+        long poolNanos = System.nanoTime() - start;
+
+        int queries = runQueries(deadline);
+        long queryNanos = System.nanoTime() - start - poolNanos;
+
+        int hotItems = preloadHotItems();
+
+        duration = Duration.ofNanos(System.nanoTime() - start);
+        log.info("warm-up finished in {}ms (pool {}ms, queries {}ms), connections={}, queries={}, hotItems={}",
+                duration.toMillis(), poolNanos / 1_000_000, queryNanos / 1_000_000, connections, queries, hotItems);
+    }
+
+    // 워밍업에 걸린 시간 (아직 끝나지 않았으면 null)
+    public Duration getDuration() {
+        return duration;
+    }
+
+    private int fillConnectionPools() {
+        int opened = 0;
+        for (DataSource dataSource : dataSources) {
+            int count = minimumIdle(dataSource);
+            List<Connection> connections = new ArrayList<>(count);
+            try {
+                for (int i = 0; i < count; i++) {
+                    connections.add(dataSource.getConnection());
+                }
+            } catch (SQLException e) {
+                log.warn("warm-up connection failed, opened={}", connections.size(), e);
+            } finally {
+                opened += connections.size();
+                connections.forEach(this::closeQuietly);
+            }
+        }
+        return opened;
+    }
+
+    private int minimumIdle(DataSource dataSource) {
+        try {
+            // StatsDataSource, DeadlineDataSource 로 감싸져 있어도 unwrap 으로 풀을 찾는다.
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMinimumIdle();
+            }
+        } catch (SQLException e) {
+            log.debug("not a hikari pool", e);
+        }
+        return 1;
+    }
+
+    private int runQueries(long deadline) {
+        List<ItemSearchCond> conditions = searchConditions();
+        int queries = 0;
+
+        for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+            for (ItemSearchCond cond : conditions) {
+                List<Item> items = itemService.findItems(cond);
+                queries++;
+
+                if (!items.isEmpty()) {
+                    itemService.findById(items.get(0).getId());
+                    itemService.findAllById(items.stream().map(Item::getId).limit(10).collect(Collectors.toList()));
+                    queries += 2;
+                }
+            }
+            itemService.findById(-1L);
+            itemService.stats();
+            queries += 2;
+        }
+
+        if (System.nanoTime() >= deadline) {
+            log.warn("warm-up stopped after maxDuration={}, queries={}", maxDuration, queries);
+        }
+        return queries;
+    }
+
+    /**
+     * 검색 화면에서 만들 수 있는 조건들 (SQL 문장이 달라지는 조합)
+     * 전체 검색이 되지 않도록 limit 을 붙이고, limit 없는 검색은 EXACT(인덱스 조회)만 사용한다.
+     */
+    private List<ItemSearchCond> searchConditions() {
+        List<ItemSearchCond> conditions = new ArrayList<>();
+        for (ItemMatchMode matchMode : ItemMatchMode.values()) {
+            for (ItemSort sort : ItemSort.values()) {
+                for (boolean range : new boolean[]{false, true}) {
+                    ItemSearchCond cond = new ItemSearchCond("item", null, matchMode);
+                    cond.setSort(sort);
+                    cond.setLimit(20);
+                    if (range) {
+                        cond.setMinPrice(1000);
+                        cond.setMaxPrice(100000);
+                        cond.setMinQuantity(1);
+                    }
+                    conditions.add(cond);
+                }
+            }
+        }
+        conditions.add(new ItemSearchCond("itemA", null, ItemMatchMode.EXACT));
+        conditions.add(new ItemSearchCond("itemA", 10000, ItemMatchMode.EXACT));
+        return conditions;
+    }
+
+    private int preloadHotItems() {
+        List<Long> ids = hotIds;
+        if (ids.isEmpty() && hotItemCount > 0) {
+            ItemSearchCond cond = new ItemSearchCond();
+            cond.setLimit(hotItemCount);
+            ids = itemService.findItems(cond).stream()
+                    .map(Item::getId)
+                    .collect(Collectors.toList());
+        }
+
+        // 2차 캐시는 findById(엔티티 조회)로 채워진다.
+        int loaded = 0;
+        for (Long id : ids) {
+            if (itemService.findById(id).isPresent()) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    private void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("close failed", e);
+        }
+    }
+}
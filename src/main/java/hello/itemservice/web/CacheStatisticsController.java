@@ -0,0 +1,63 @@
+package hello.itemservice.web;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hibernate 2차 캐시, 쿼리 캐시 통계 조회
+ * hibernate.generate_statistics=true 일 때만 값이 쌓인다.
+ * JPA 를 사용하지 않는 엔진(memory, jdbc, mybatis)에서는 빈 결과를 반환한다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class CacheStatisticsController {
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    @GetMapping("/cache/statistics")
+    public Map<String, Object> statistics() {
+        EntityManagerFactory emf = entityManagerFactory.getIfAvailable();
+        if (emf == null) {
+            return Map.of();
+        }
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        result.put("secondLevelCacheHit", statistics.getSecondLevelCacheHitCount());
+        result.put("secondLevelCacheMiss", statistics.getSecondLevelCacheMissCount());
+        result.put("secondLevelCachePut", statistics.getSecondLevelCachePutCount());
+        result.put("queryCacheHit", statistics.getQueryCacheHitCount());
+        result.put("queryCacheMiss", statistics.getQueryCacheMissCount());
+        result.put("queryCachePut", statistics.getQueryCachePutCount());
+        result.put("queryExecution", statistics.getQueryExecutionCount());
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+
+            Map<String, Object> regionResult = new LinkedHashMap<>();
+            regionResult.put("hit", region.getHitCount());
+            regionResult.put("miss", region.getMissCount());
+            regionResult.put("put", region.getPutCount());
+            regionResult.put("elementsInMemory", region.getElementCountInMemory());
+            regions.put(regionName, regionResult);
+        }
+        result.put("regions", regions);
+
+        return result;
+    }
+}
@@ -0,0 +1,28 @@
+package hello.itemservice.web;
+
+import hello.itemservice.limit.ConcurrencyLimitExceededException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+/**
+ * 동시 실행 제한으로 거절된 요청은 503 으로 바로 응답한다.
+ * 오류 페이지를 렌더링하지 않고 짧은 본문만 보낸다. (과부하 중에 일을 더 만들지 않도록)
+ */
+@Slf4j
+@ControllerAdvice
+public class ConcurrencyLimitExceptionHandler {
+
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<String> limitExceeded(ConcurrencyLimitExceededException e) {
+        log.debug("rejected: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.TEXT_PLAIN)
+                .body("server is busy, please retry");
+    }
+}
@@ -0,0 +1,52 @@
+package hello.itemservice.web;
+
+import hello.itemservice.deadline.DeadlineExceededException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionException;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.sql.SQLTimeoutException;
+
+/**
+ * 요청 마감이 지나서 중단된 요청은 504 로 응답한다.
+ * - DeadlineExceededException : 작업을 시작하기 전에 마감이 지남
+ * - QueryTimeoutException     : SQL 실행 중에 statement timeout 으로 취소됨 (JdbcTemplate, MyBatis, JPA 모두 변환된다)
+ * - 원인에 SQLTimeoutException 이 있는 데이터 접근, 트랜잭션 예외 : 커넥션을 얻을 때 마감이 지남
+ *   (CannotGetJdbcConnectionException, CannotCreateTransactionException 등에 감싸진다)
+ */
+@Slf4j
+@ControllerAdvice
+public class DeadlineExceptionHandler {
+
+    @ExceptionHandler({DeadlineExceededException.class, QueryTimeoutException.class, javax.persistence.QueryTimeoutException.class})
+    public ResponseEntity<String> deadlineExceeded(RuntimeException e) {
+        log.debug("deadline exceeded: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body("request deadline exceeded");
+    }
+
+    // 시간 초과가 아니면 다시 던진다. (처리하지 않은 예외로 보고 기본 오류 처리로 넘어간다)
+    @ExceptionHandler({DataAccessException.class, TransactionException.class})
+    public ResponseEntity<String> wrappedDeadlineExceeded(RuntimeException e) {
+        if (!causedByTimeout(e)) {
+            throw e;
+        }
+        return deadlineExceeded(e);
+    }
+
+    static boolean causedByTimeout(Throwable e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof SQLTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -2,9 +2,11 @@ package hello.itemservice.web;
 
 import hello.itemservice.domain.Item;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
 import hello.itemservice.service.ItemService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -35,6 +37,25 @@ public class ItemController {
         return "item";
     }
 
+    /**
+     * 여러 상품을 한 번에 조회 (JSON) - 장바구니, 추천 목록 등
+     * ex) /items/bulk?ids=3,1,2 -> 요청한 순서대로 반환
+     */
+    @ResponseBody
+    @GetMapping(value = "/bulk", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<Item> itemsById(@RequestParam List<Long> ids) {
+        return itemService.findAllById(ids);
+    }
+
+    /**
+     * 상품 통계 (JSON) - 상품 수, 재고 가치, 가격 분포
+     */
+    @ResponseBody
+    @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ItemStats stats() {
+        return itemService.stats();
+    }
+
     @GetMapping("/add")
     public String addForm() {
         return "addForm";
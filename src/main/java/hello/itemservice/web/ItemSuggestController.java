@@ -0,0 +1,33 @@
+package hello.itemservice.web;
+
+import hello.itemservice.suggest.ItemNameIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 상품명 자동 완성 (검색창에서 입력할 때마다 호출된다)
+ * DB 를 사용하지 않고 메모리 색인에서 찾는다. item.suggest.enabled=true 가 아니면 빈 결과를 반환한다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class ItemSuggestController {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final ObjectProvider<ItemNameIndex> itemNameIndex;
+
+    @GetMapping("/items/suggest")
+    public List<String> suggest(@RequestParam(defaultValue = "") String prefix,
+                                @RequestParam(defaultValue = "10") int limit) {
+        ItemNameIndex index = itemNameIndex.getIfAvailable();
+        if (index == null) {
+            return List.of();
+        }
+        return index.suggest(prefix, Math.min(limit, MAX_LIMIT));
+    }
+}
@@ -0,0 +1,43 @@
+package hello.itemservice.web;
+
+import hello.itemservice.warmup.ItemServiceWarmup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * readiness 확인 (로드 밸런서, 쿠버네티스 readinessProbe)
+ * 워밍업(item.warmup.enabled=true) 중에는 503 을 반환한다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class ReadinessController {
+
+    private final ApplicationAvailability availability;
+    private final ObjectProvider<ItemServiceWarmup> warmup;
+
+    @GetMapping("/readiness")
+    public ResponseEntity<Map<String, Object>> readiness() {
+        ReadinessState state = availability.getReadinessState();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("readiness", state);
+        ItemServiceWarmup itemServiceWarmup = warmup.getIfAvailable();
+        if (itemServiceWarmup != null) {
+            Duration duration = itemServiceWarmup.getDuration();
+            result.put("warmupMillis", duration == null ? null : duration.toMillis());
+        }
+
+        HttpStatus status = state == ReadinessState.ACCEPTING_TRAFFIC ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(result);
+    }
+}
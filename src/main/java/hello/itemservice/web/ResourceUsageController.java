@@ -0,0 +1,33 @@
+package hello.itemservice.web;
+
+import hello.itemservice.monitoring.ResourceUsageRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 엔드포인트별, 엔진 메서드별 누적 할당량(byte), CPU 시간(ns) 조회
+ * item.resource-usage.enabled=true 일 때만 값이 쌓이고, 아니면 빈 결과를 반환한다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class ResourceUsageController {
+
+    private final ObjectProvider<ResourceUsageRegistry> registry;
+
+    @GetMapping("/monitoring/resource-usage")
+    public Map<String, Map<String, Map<String, Long>>> resourceUsage() {
+        ResourceUsageRegistry resourceUsageRegistry = registry.getIfAvailable();
+        return resourceUsageRegistry == null ? Map.of() : resourceUsageRegistry.snapshot();
+    }
+
+    // 측정 구간을 새로 시작할 때 (ex. 부하 테스트 전)
+    @DeleteMapping("/monitoring/resource-usage")
+    public void reset() {
+        registry.ifAvailable(ResourceUsageRegistry::clear);
+    }
+}
@@ -0,0 +1,111 @@
+package hello.itemservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ItemRepositoryEngineEnvironmentPostProcessorTest {
+
+    static final String JDBC = "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration";
+    static final String JPA = "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration";
+    static final String SPRING_DATA_JPA = "org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration";
+    static final String MYBATIS = "org.mybatis.spring.boot.autoconfigure.MybatisAutoConfiguration";
+
+    ItemRepositoryEngineEnvironmentPostProcessor postProcessor = new ItemRepositoryEngineEnvironmentPostProcessor();
+
+    @Test
+    void excludeByEngine() {
+        // 엔진 -> 제외되는 자동 구성 (대표 하나씩)
+        Map<String, List<String>> excluded = Map.ofEntries(
+                Map.entry("memory", List.of(JDBC, JPA, SPRING_DATA_JPA, MYBATIS)),
+                Map.entry("memory-columnar", List.of(JDBC, JPA, SPRING_DATA_JPA, MYBATIS)),
+                Map.entry("memory-durable", List.of(JDBC, JPA, SPRING_DATA_JPA, MYBATIS)),
+                Map.entry("sharded", List.of(JDBC, JPA, SPRING_DATA_JPA, MYBATIS)),
+                Map.entry("jdbc-v1", List.of(JPA, SPRING_DATA_JPA, MYBATIS)),
+                Map.entry("jdbc-v2", List.of(JPA, SPRING_DATA_JPA, MYBATIS)),
+                Map.entry("jdbc-v3", List.of(JPA, SPRING_DATA_JPA, MYBATIS)),
+                Map.entry("mybatis", List.of(JPA, SPRING_DATA_JPA)),
+                Map.entry("jpa", List.of(MYBATIS)),
+                Map.entry("querydsl", List.of(MYBATIS)),
+                Map.entry("spring-data-jpa", List.of(MYBATIS)),
+                Map.entry("v2", List.of(MYBATIS)));
+        List<String> all = List.of(JDBC, JPA, SPRING_DATA_JPA, MYBATIS);
+
+        excluded.forEach((engine, expected) -> {
+            // when
+            List<String> excludes = excludes(environment(Map.of("item.repository.engine", engine)));
+
+            // then - 엔진이 사용하는 자동 구성은 남긴다.
+            assertThat(excludes).as(engine).containsAll(expected);
+            all.stream()
+                    .filter(autoConfiguration -> !expected.contains(autoConfiguration))
+                    .forEach(autoConfiguration -> assertThat(excludes).as(engine).doesNotContain(autoConfiguration));
+        });
+    }
+
+    @Test
+    void defaultEngine() {
+        assertThat(excludes(environment(Map.of()))).containsExactly(
+                MYBATIS, "org.mybatis.spring.boot.autoconfigure.MybatisLanguageDriverAutoConfiguration");
+    }
+
+    @Test
+    void keepConfiguredExcludes() {
+        // given
+        ConfigurableEnvironment environment = environment(Map.of(
+                "item.repository.engine", "jdbc-v3",
+                "spring.autoconfigure.exclude", "com.example.FirstAutoConfiguration, com.example.SecondAutoConfiguration"));
+
+        // when
+        List<String> excludes = excludes(environment);
+
+        // then - 직접 설정한 값이 앞에 남고, 엔진에 따라 제외할 자동 구성이 뒤에 붙는다.
+        assertThat(excludes.subList(0, 2)).containsExactly(
+                "com.example.FirstAutoConfiguration", "com.example.SecondAutoConfiguration");
+        assertThat(excludes).contains(JPA, SPRING_DATA_JPA, MYBATIS);
+    }
+
+    @Test
+    void keepConfiguredExcludeList() {
+        // given - yaml 목록 형식
+        ConfigurableEnvironment environment = environment(Map.of(
+                "item.repository.engine", "mybatis",
+                "spring.autoconfigure.exclude[0]", "com.example.FirstAutoConfiguration",
+                "spring.autoconfigure.exclude[1]", "com.example.SecondAutoConfiguration"));
+
+        // when
+        List<String> excludes = excludes(environment);
+
+        // then
+        assertThat(excludes).contains("com.example.FirstAutoConfiguration", "com.example.SecondAutoConfiguration", JPA);
+    }
+
+    @Test
+    void unknownEngine() {
+        ConfigurableEnvironment environment = environment(Map.of("item.repository.engine", "jdbc-v9"));
+
+        assertThatThrownBy(() -> postProcessor.postProcessEnvironment(environment, new SpringApplication()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("unknown item.repository.engine=jdbc-v9");
+    }
+
+    private List<String> excludes(ConfigurableEnvironment environment) {
+        postProcessor.postProcessEnvironment(environment, new SpringApplication());
+        return List.of(environment.getProperty("spring.autoconfigure.exclude").split(","));
+    }
+
+    private static ConfigurableEnvironment environment(Map<String, Object> properties) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", new HashMap<>(properties)));
+        return environment;
+    }
+}
@@ -0,0 +1,52 @@
+package hello.itemservice.datagen;
+
+import hello.itemservice.domain.Item;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemDataGeneratorTest {
+
+    @Test
+    void sameSeedSameItems() {
+        ItemDataGenerator generator = new ItemDataGenerator(42);
+        ItemDataGenerator other = new ItemDataGenerator(42);
+
+        // 순서와 상관없이 index 로 정해진다.
+        for (long index = 999; index >= 0; index--) {
+            assertSameItem(generator.generate(index), other.generate(index));
+        }
+    }
+
+    @Test
+    void differentSeedDifferentItems() {
+        ItemDataGenerator generator = new ItemDataGenerator(1);
+        ItemDataGenerator other = new ItemDataGenerator(2);
+
+        long different = LongStream.range(0, 100)
+                .filter(index -> !generator.generate(index).getPrice().equals(other.generate(index).getPrice()))
+                .count();
+        assertThat(different).isGreaterThan(50);
+    }
+
+    @Test
+    void fitsSchema() {
+        ItemDataGenerator generator = new ItemDataGenerator(42);
+
+        for (long index = 0; index < 10000; index++) {
+            Item item = generator.generate(index);
+            assertThat(item.getItemName()).isNotBlank().hasSizeLessThanOrEqualTo(ItemDataGenerator.MAX_NAME_LENGTH);
+            assertThat(item.getPrice()).isBetween(100, 2_000_000);
+            assertThat(item.getPrice() % 100).isZero();
+            assertThat(item.getQuantity()).isBetween(0, 9999);
+        }
+    }
+
+    private void assertSameItem(Item actual, Item expected) {
+        assertThat(actual.getItemName()).isEqualTo(expected.getItemName());
+        assertThat(actual.getPrice()).isEqualTo(expected.getPrice());
+        assertThat(actual.getQuantity()).isEqualTo(expected.getQuantity());
+    }
+}
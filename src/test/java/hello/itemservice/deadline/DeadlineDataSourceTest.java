@@ -0,0 +1,205 @@
+package hello.itemservice.deadline;
+
+import hello.itemservice.web.DeadlineExceptionHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class DeadlineDataSourceTest {
+
+    DriverManagerDataSource dataSource;
+    DeadlineDataSource deadlineDataSource;
+    JdbcTemplate template;
+    DeadlineExceptionHandler exceptionHandler = new DeadlineExceptionHandler();
+
+    @BeforeEach
+    void beforeEach() {
+        dataSource = new DriverManagerDataSource();
+        dataSource.setDriverClassName("org.h2.Driver");
+        dataSource.setUrl("jdbc:h2:mem:deadline;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("sa");
+        DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(new ClassPathResource("schema.sql")), dataSource);
+
+        deadlineDataSource = new DeadlineDataSource(dataSource);
+        template = new JdbcTemplate(deadlineDataSource);
+    }
+
+    @AfterEach
+    void afterEach() {
+        Deadline.clear();
+    }
+
+    @Test
+    void runBeforeDeadline() {
+        Deadline.set(Deadline.after(Duration.ofSeconds(5)));
+
+        assertThat(template.queryForObject("select count(*) from item", Integer.class)).isZero();
+    }
+
+    @Test
+    void applyRemainingTimeWithoutTimeout() {
+        // given - 설정된 timeout 이 없다.
+        List<Integer> timeouts = new CopyOnWriteArrayList<>();
+        JdbcTemplate recordingTemplate = new JdbcTemplate(new DeadlineDataSource(recordingTimeouts(timeouts)));
+        Deadline.set(Deadline.after(Duration.ofMillis(4500)));
+
+        // when
+        recordingTemplate.queryForObject("select count(*) from item", Integer.class);
+        recordingTemplate.queryForObject("select count(*) from item where price > ?", Integer.class, 10000);
+
+        // then - 실행할 때 남은 시간(올림)을 timeout 으로 설정한다. (Statement, PreparedStatement)
+        assertThat(timeouts).containsExactly(5, 5);
+    }
+
+    @Test
+    void keepShorterTimeout() {
+        // given - 이미 남은 시간보다 짧은 timeout 이 설정되어 있다.
+        List<Integer> timeouts = new CopyOnWriteArrayList<>();
+        JdbcTemplate recordingTemplate = new JdbcTemplate(new DeadlineDataSource(recordingTimeouts(timeouts)));
+        recordingTemplate.setQueryTimeout(2);
+        Deadline.set(Deadline.after(Duration.ofSeconds(30)));
+
+        // when
+        recordingTemplate.queryForObject("select count(*) from item where price > ?", Integer.class, 10000);
+
+        // then - 짧은 timeout 을 그대로 둔다. 더 길면 남은 시간으로 줄인다.
+        recordingTemplate.setQueryTimeout(60);
+        recordingTemplate.queryForObject("select count(*) from item where price > ?", Integer.class, 10000);
+        assertThat(timeouts).containsExactly(2, 30);
+    }
+
+    @Test
+    void doNotStartAfterDeadline() throws InterruptedException {
+        // given
+        Deadline.set(Deadline.after(Duration.ofMillis(1)));
+        Thread.sleep(10);
+
+        // when, then - 커넥션을 얻기 전에 중단된다. DataSourceUtils 가 감싸지만 504 로 응답한다.
+        CannotGetJdbcConnectionException e = catchThrowableOfType(
+                () -> template.queryForObject("select count(*) from item", Integer.class), CannotGetJdbcConnectionException.class);
+        assertThat(e).hasRootCauseInstanceOf(SQLTimeoutException.class);
+        assertThat(exceptionHandler.wrappedDeadlineExceeded(e).getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+        assertThatThrownBy(Deadline::checkCurrent).isInstanceOf(DeadlineExceededException.class);
+    }
+
+    @Test
+    void doNotBeginTransactionAfterDeadline() throws InterruptedException {
+        // given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(deadlineDataSource));
+        Deadline.set(Deadline.after(Duration.ofMillis(1)));
+        Thread.sleep(10);
+
+        // when, then - 트랜잭션 매니저가 감싸지만 504 로 응답한다.
+        CannotCreateTransactionException e = catchThrowableOfType(
+                () -> transactionTemplate.executeWithoutResult(status -> template.update("delete from item")),
+                CannotCreateTransactionException.class);
+        assertThat(e).hasRootCauseInstanceOf(SQLTimeoutException.class);
+        assertThat(exceptionHandler.wrappedDeadlineExceeded(e).getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+    @Test
+    void returnConnectionWhenDeadlinePassesWhileWaiting() {
+        // given - 커넥션을 얻는 데 100ms 걸리는 풀, 마감은 50ms 뒤
+        AtomicInteger openConnections = new AtomicInteger();
+        DataSource slowPool = new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                sleep(100);
+                openConnections.incrementAndGet();
+                Connection connection = super.getConnection();
+                return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                        (proxy, method, args) -> {
+                            if (method.getName().equals("close")) {
+                                openConnections.decrementAndGet();
+                            }
+                            return method.invoke(connection, args);
+                        });
+            }
+        };
+        JdbcTemplate slowTemplate = new JdbcTemplate(new DeadlineDataSource(slowPool));
+        Deadline.set(Deadline.after(Duration.ofMillis(50)));
+
+        // when, then - 얻은 다음에 확인해서 중단하고, 커넥션은 돌려준다.
+        CannotGetJdbcConnectionException e = catchThrowableOfType(
+                () -> slowTemplate.queryForObject("select count(*) from item", Integer.class), CannotGetJdbcConnectionException.class);
+        assertThat(e).hasRootCauseInstanceOf(SQLTimeoutException.class);
+        assertThat(openConnections.get()).isZero();
+    }
+
+    @Test
+    void otherConnectionFailuresAreNotGatewayTimeout() {
+        CannotGetJdbcConnectionException e = new CannotGetJdbcConnectionException("pool exhausted",
+                new SQLTransientConnectionException("connection is not available"));
+
+        assertThatThrownBy(() -> exceptionHandler.wrappedDeadlineExceeded(e)).isSameAs(e);
+    }
+
+    // SQL 을 실행하는 시점의 statement timeout 을 기록한다.
+    private DataSource recordingTimeouts(List<Integer> timeouts) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection connection = super.getConnection();
+                return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                        (proxy, method, args) -> {
+                            Object result = method.invoke(connection, args);
+                            if (!(result instanceof Statement)) {
+                                return result;
+                            }
+                            Statement statement = (Statement) result;
+                            Class<?> type = statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                                    (statementProxy, statementMethod, statementArgs) -> {
+                                        if (statementMethod.getName().startsWith("execute")) {
+                                            timeouts.add(statement.getQueryTimeout());
+                                        }
+                                        return statementMethod.invoke(statement, statementArgs);
+                                    });
+                        });
+            }
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void remainingSecondsRoundUp() {
+        assertThat(Deadline.after(Duration.ofMillis(1500)).remainingSeconds()).isEqualTo(2);
+        assertThat(Deadline.after(Duration.ofMillis(10)).remainingSeconds()).isEqualTo(1);
+    }
+}
@@ -1,8 +1,13 @@
 package hello.itemservice.domain;
 
+import hello.itemservice.repository.ItemMatchMode;
+import hello.itemservice.repository.ItemPriceBucket;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSort;
+import hello.itemservice.repository.ItemStats;
 import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.memory.ColumnarMemoryItemRepository;
 import hello.itemservice.repository.memory.MemoryItemRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.AfterEach;
@@ -42,6 +47,9 @@ class ItemRepositoryTest {
         if (itemRepository instanceof MemoryItemRepository) {
             ((MemoryItemRepository) itemRepository).clearStore();
         }
+        if (itemRepository instanceof ColumnarMemoryItemRepository) {
+            ((ColumnarMemoryItemRepository) itemRepository).clearStore();
+        }
 
         // 트랜잭션 롤백
 //        transactionManager.rollback(status);
@@ -117,8 +125,139 @@ class ItemRepositoryTest {
         test("itemA", 10000, item1);
     }
 
+    @Test
+    void findItemsByMatchMode() {
+
+        // given
+        Item item1 = itemRepository.save(new Item("itemA", 10000, 10));
+        Item item2 = itemRepository.save(new Item("itemA-1", 20000, 20));
+        Item item3 = itemRepository.save(new Item("B_itemA", 30000, 30));
+        Item item4 = itemRepository.save(new Item("Bx_itemA", 40000, 40));
+
+        // EXACT
+        testMatch("itemA", ItemMatchMode.EXACT, item1);
+        testMatch("temA", ItemMatchMode.EXACT);
+
+        // PREFIX
+        testMatch("itemA", ItemMatchMode.PREFIX, item1, item2);
+        testMatch("temA", ItemMatchMode.PREFIX);
+
+        // CONTAINS
+        testMatch("itemA", ItemMatchMode.CONTAINS, item1, item2, item3, item4);
+
+        // %, _ 는 와일드카드가 아니라 문자로 검색한다.
+        testMatch("B_", ItemMatchMode.PREFIX, item3);
+        testMatch("_", ItemMatchMode.CONTAINS, item3, item4);
+        testMatch("%", ItemMatchMode.CONTAINS);
+    }
+
+    @Test
+    void findItemsByRange() {
+
+        // given
+        Item item1 = itemRepository.save(new Item("itemA", 10000, 0));
+        Item item2 = itemRepository.save(new Item("itemB", 20000, 5));
+        Item item3 = itemRepository.save(new Item("itemC", 30000, 10));
+
+        // 가격 범위
+        testRange(15000, null, null, item2, item3);
+        testRange(15000, 25000, null, item2);
+        testRange(null, 20000, null, item1, item2);
+
+        // 재고 있는 상품
+        testRange(null, null, 1, item2, item3);
+        testRange(null, null, 10, item3);
+
+        // 함께
+        testRange(10000, 20000, 1, item2);
+        testRange(25000, 20000, null);
+    }
+
+    @Test
+    void findItemsSortedWithLimit() {
+
+        // given
+        Item item1 = itemRepository.save(new Item("itemA", 20000, 10));
+        Item item2 = itemRepository.save(new Item("itemB", 10000, 30));
+        Item item3 = itemRepository.save(new Item("itemC", 30000, 20));
+        Item item4 = itemRepository.save(new Item("itemD", 10000, 40));
+
+        // 정렬 (값이 같으면 id 순)
+        testSort(ItemSort.ID, null, item1, item2, item3, item4);
+        testSort(ItemSort.PRICE_ASC, null, item2, item4, item1, item3);
+        testSort(ItemSort.PRICE_DESC, null, item3, item1, item2, item4);
+        testSort(ItemSort.QUANTITY_DESC, null, item4, item2, item3, item1);
+
+        // 상위 N 개
+        testSort(ItemSort.ID, 2, item1, item2);
+        testSort(ItemSort.PRICE_ASC, 3, item2, item4, item1);
+        testSort(ItemSort.QUANTITY_ASC, 1, item1);
+        testSort(ItemSort.PRICE_DESC, 10, item3, item1, item2, item4);
+
+        // 검색 조건과 함께
+        ItemSearchCond cond = new ItemSearchCond(null, 20000);
+        cond.setSort(ItemSort.QUANTITY_DESC);
+        cond.setLimit(2);
+        assertThat(itemRepository.findAll(cond)).containsExactly(item4, item2);
+    }
+
+    @Test
+    void findAllById() {
+
+        // given
+        Item item1 = itemRepository.save(new Item("itemA-1", 10000, 10));
+        Item item2 = itemRepository.save(new Item("itemA-2", 20000, 20));
+        Item item3 = itemRepository.save(new Item("itemB-1", 30000, 30));
+
+        // when - 없는 id, 중복 id 포함
+        List<Item> result = itemRepository.findAllById(List.of(item3.getId(), item1.getId(), -1L, item3.getId()));
+
+        // then - 요청한 순서대로, 중복 없이
+        assertThat(result).containsExactly(item3, item1);
+        assertThat(itemRepository.findAllById(List.of())).isEmpty();
+    }
+
+    @Test
+    void stats() {
+
+        // given
+        itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.save(new Item("itemB", 15000, 20));
+        itemRepository.save(new Item("itemC", 5000, 30));
+
+        // when
+        ItemStats stats = itemRepository.stats();
+
+        // then
+        assertThat(stats.getItemCount()).isEqualTo(3);
+        assertThat(stats.getTotalStockValue()).isEqualTo(10000 * 10 + 15000 * 20 + 5000 * 30);
+        assertThat(stats.getPriceHistogram()).containsExactly(
+                new ItemPriceBucket(0, 1),
+                new ItemPriceBucket(1, 2));
+    }
+
     void test(String itemName, Integer maxPrice, Item... items) {
         List<Item> result = itemRepository.findAll(new ItemSearchCond(itemName, maxPrice));
         assertThat(result).containsExactly(items);
     }
+
+    void testMatch(String itemName, ItemMatchMode matchMode, Item... items) {
+        List<Item> result = itemRepository.findAll(new ItemSearchCond(itemName, null, matchMode));
+        assertThat(result).containsExactly(items);
+    }
+
+    void testSort(ItemSort sort, Integer limit, Item... items) {
+        ItemSearchCond cond = new ItemSearchCond();
+        cond.setSort(sort);
+        cond.setLimit(limit);
+        assertThat(itemRepository.findAll(cond)).containsExactly(items);
+    }
+
+    void testRange(Integer minPrice, Integer maxPrice, Integer minQuantity, Item... items) {
+        ItemSearchCond cond = new ItemSearchCond();
+        cond.setMinPrice(minPrice);
+        cond.setMaxPrice(maxPrice);
+        cond.setMinQuantity(minQuantity);
+        assertThat(itemRepository.findAll(cond)).containsExactly(items);
+    }
 }
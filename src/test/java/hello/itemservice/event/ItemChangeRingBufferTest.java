@@ -0,0 +1,146 @@
+package hello.itemservice.event;
+
+import hello.itemservice.domain.Item;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemChangeRingBufferTest {
+
+    @Test
+    void deliverAllEventsToEverySubscriber() throws InterruptedException {
+        // given
+        ItemChangeRingBuffer ringBuffer = new ItemChangeRingBuffer(64, 16);
+        List<Long> fast = Collections.synchronizedList(new ArrayList<>());
+        List<Long> slow = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger maxBatchSize = new AtomicInteger();
+
+        ringBuffer.subscribe("fast", events -> events.forEach(event -> fast.add(event.getItemId())));
+        ringBuffer.subscribe("slow", events -> {
+            maxBatchSize.accumulateAndGet(events.size(), Math::max);
+            sleep(1);
+            events.forEach(event -> slow.add(event.getItemId()));
+        });
+        ringBuffer.start();
+
+        // when - 버퍼보다 훨씬 많은 이벤트를 여러 스레드에서 발행
+        int producers = 4;
+        int eventsPerProducer = 2000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long base = p * 1_000_000L;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < eventsPerProducer; i++) {
+                    ringBuffer.publish(ItemChangeEvent.saved(item(base + i)));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        ringBuffer.close();
+
+        // then
+        assertThat(fast).hasSize(producers * eventsPerProducer).doesNotHaveDuplicates();
+        assertThat(slow).hasSize(producers * eventsPerProducer).doesNotHaveDuplicates();
+
+        // 같은 스레드가 발행한 이벤트는 발행 순서대로 전달된다.
+        long[] last = new long[producers];
+        for (long id : slow) {
+            int producer = (int) (id / 1_000_000);
+            assertThat(id % 1_000_000).isEqualTo(last[producer]++);
+        }
+
+        // 느린 구독자는 묶음으로 받는다.
+        assertThat(maxBatchSize.get()).isGreaterThan(1).isLessThanOrEqualTo(16);
+    }
+
+    @Test
+    void subscriberFailureDoesNotStopDelivery() {
+        ItemChangeRingBuffer ringBuffer = new ItemChangeRingBuffer(8, 1);
+        List<Long> received = Collections.synchronizedList(new ArrayList<>());
+        ringBuffer.subscribe("failing", events -> {
+            received.add(events.get(0).getItemId());
+            throw new IllegalStateException("subscriber failure");
+        });
+        ringBuffer.start();
+
+        for (long id = 1; id <= 20; id++) {
+            ringBuffer.publish(ItemChangeEvent.saved(item(id)));
+        }
+        ringBuffer.close();
+
+        assertThat(received).hasSize(20);
+    }
+
+    @Test
+    void idleSubscriberBlocksUntilPublished() throws InterruptedException {
+        // given
+        ItemChangeRingBuffer ringBuffer = new ItemChangeRingBuffer(8, 4);
+        List<Long> received = Collections.synchronizedList(new ArrayList<>());
+        ringBuffer.subscribe("idle", events -> events.forEach(event -> received.add(event.getItemId())));
+        ringBuffer.start();
+        Thread subscriber = subscriberThread("item-change-idle");
+
+        // when - 이벤트가 없으면 시간 제한 없이 잠든다. (parkNanos 로 계속 깨어나면 TIMED_WAITING)
+        awaitState(subscriber, Thread.State.WAITING);
+        sleep(50);
+
+        // then - 계속 잠들어 있다가, 발행하면 깨어나서 받는다.
+        assertThat(subscriber.getState()).isEqualTo(Thread.State.WAITING);
+        for (long id = 1; id <= 3; id++) {
+            ringBuffer.publish(ItemChangeEvent.saved(item(id)));
+            awaitSize(received, (int) id);
+            awaitState(subscriber, Thread.State.WAITING);
+        }
+        assertThat(received).containsExactly(1L, 2L, 3L);
+
+        // close 하면 잠든 구독자도 멈춘다.
+        ringBuffer.close();
+        assertThat(subscriber.isAlive()).isFalse();
+    }
+
+    private Thread subscriberThread(String name) {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private void awaitState(Thread thread, Thread.State state) {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (thread.getState() != state && System.nanoTime() < deadline) {
+            sleep(1);
+        }
+        assertThat(thread.getState()).isEqualTo(state);
+    }
+
+    private void awaitSize(List<?> list, int size) {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (list.size() < size && System.nanoTime() < deadline) {
+            sleep(1);
+        }
+        assertThat(list).hasSize(size);
+    }
+
+    private Item item(long id) {
+        Item item = new Item("item", 10000, 10);
+        item.setId(id);
+        return item;
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
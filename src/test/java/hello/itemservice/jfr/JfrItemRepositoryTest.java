@@ -0,0 +1,30 @@
+package hello.itemservice.jfr;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Transactional
+@SpringBootTest(properties = {"item.repository.engine=jpa", "item.jfr.enabled=true"})
+class JfrItemRepositoryTest {
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Test
+    void translateJpaExceptionsInsideDecorator() {
+        // given - 예외 변환 프록시 바깥에서 감싼다.
+        assertThat(itemRepository).isInstanceOf(JfrItemRepository.class);
+
+        // when, then - item_name 은 varchar(10), 저장할 때 바로 insert 한다. (IDENTITY)
+        assertThatThrownBy(() -> itemRepository.save(new Item("itemName-too-long", 10000, 10)))
+                .isInstanceOf(DataAccessException.class);
+    }
+}
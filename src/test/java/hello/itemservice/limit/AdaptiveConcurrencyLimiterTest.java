@@ -0,0 +1,99 @@
+package hello.itemservice.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void rejectOverLimit() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("read", 2, 1, 10, Duration.ofSeconds(10), 0.5);
+
+        // when
+        AdaptiveConcurrencyLimiter.Permit first = limiter.acquire();
+        AdaptiveConcurrencyLimiter.Permit second = limiter.acquire();
+
+        // then - 기다리지 않고 바로 거절
+        assertThatThrownBy(limiter::acquire).isInstanceOf(ConcurrencyLimitExceededException.class);
+        assertThat(limiter.getRejected()).isEqualTo(1);
+
+        first.release();
+        second.release();
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void increaseWhenFastAndBusy() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("read", 2, 1, 10, Duration.ofSeconds(10), 0.5);
+
+        // when - 제한까지 사용하고 빠르게 끝난다.
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        permits.add(limiter.acquire());
+        permits.add(limiter.acquire());
+        permits.forEach(AdaptiveConcurrencyLimiter.Permit::release);
+
+        // then
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void decreaseWhenSlow() throws InterruptedException {
+        // given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("write", 8, 2, 10, Duration.ofMillis(1), 0.5);
+
+        // when - latencyThreshold 보다 느리게 끝난다.
+        for (int i = 0; i < 3; i++) {
+            AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+            Thread.sleep(5);
+            permit.release();
+        }
+
+        // then - 8 -> 4 -> 2 -> 2 (minLimit)
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void keepEverySampleUnderContention() throws Exception {
+        // given - 모든 표본이 느리다. (latencyThreshold 0)
+        int callers = 8;
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("read", 1024, 1, 1024, Duration.ZERO, 0.5);
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            permits.add(limiter.acquire());
+        }
+
+        // when - 동시에 release
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (AdaptiveConcurrencyLimiter.Permit permit : permits) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                permit.release();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then - 겹친 갱신도 빠짐없이 반영된다. 1024 * 0.5^8
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
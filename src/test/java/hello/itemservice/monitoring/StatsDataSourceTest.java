@@ -0,0 +1,62 @@
+package hello.itemservice.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatsDataSourceTest {
+
+    JdbcTemplate template;
+
+    @BeforeEach
+    void beforeEach() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource();
+        dataSource.setDriverClassName("org.h2.Driver");
+        dataSource.setUrl("jdbc:h2:mem:stats;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("sa");
+        DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(new ClassPathResource("schema.sql")), dataSource);
+
+        template = new JdbcTemplate(new StatsDataSource(dataSource));
+    }
+
+    @AfterEach
+    void afterEach() {
+        DbRequestStats.end();
+    }
+
+    @Test
+    void countStatementsAndRows() {
+        // given
+        DbRequestStats stats = DbRequestStats.start();
+
+        // when
+        template.update("insert into item(item_name, price, quantity) values (?, ?, ?)", "itemA", 10000, 10);
+        template.update("insert into item(item_name, price, quantity) values (?, ?, ?)", "itemB", 20000, 20);
+        List<String> names = template.queryForList("select item_name from item order by id", String.class);
+
+        // then
+        assertThat(names).containsExactly("itemA", "itemB");
+        assertThat(stats.getStatements()).isEqualTo(3);
+        assertThat(stats.getRows()).isEqualTo(2);
+        assertThat(stats.getDbMillis()).isPositive();
+        assertThat(stats.toServerTiming()).contains("db-statements;desc=3", "db-rows;desc=2");
+    }
+
+    @Test
+    void ignoreOutsideRequest() {
+        // 요청 밖에서 실행한 쿼리는 집계하지 않는다.
+        template.queryForList("select item_name from item", String.class);
+
+        assertThat(DbRequestStats.current()).isNull();
+    }
+}
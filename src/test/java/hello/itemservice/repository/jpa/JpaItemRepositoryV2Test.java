@@ -0,0 +1,51 @@
+package hello.itemservice.repository.jpa;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemMatchMode;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSort;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@SpringBootTest(properties = "item.repository.engine=spring-data-jpa")
+class JpaItemRepositoryV2Test {
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Test
+    void limitSearchRunsNoCountQuery() {
+        // given - limit 보다 많은 상품 (generate_statistics=true)
+        for (int i = 1; i <= 5; i++) {
+            itemRepository.save(new Item("limit" + i, i * 1000, 10));
+        }
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ItemSearchCond cond = new ItemSearchCond("limit", null, ItemMatchMode.PREFIX);
+        cond.setSort(ItemSort.PRICE_DESC);
+        cond.setLimit(3);
+
+        // when
+        List<Item> result = itemRepository.findAll(cond);
+
+        // then - limit 절로 조회하는 쿼리 하나만 실행한다.
+        assertThat(result).extracting(Item::getItemName).containsExactly("limit5", "limit4", "limit3");
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+        assertThat(statistics.getQueries()).noneMatch(query -> query.contains("count("));
+    }
+}
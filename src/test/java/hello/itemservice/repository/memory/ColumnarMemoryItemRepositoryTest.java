@@ -0,0 +1,99 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemMatchMode;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSort;
+import hello.itemservice.repository.ItemUpdateDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarMemoryItemRepositoryTest {
+
+    ColumnarMemoryItemRepository repository = new ColumnarMemoryItemRepository();
+
+    @Test
+    void saveUpdateFind() {
+        // given
+        Item itemA = repository.save(new Item("itemA", 10000, 10));
+        Item itemB = repository.save(new Item(null, null, null));
+
+        // when
+        repository.update(itemA.getId(), new ItemUpdateDto("itemA-2", 20000, 30));
+
+        // then
+        assertThat(repository.findById(itemA.getId()).get()).isEqualTo(item(itemA.getId(), "itemA-2", 20000, 30));
+        assertThat(repository.findById(itemB.getId()).get()).isEqualTo(itemB);
+        assertThat(repository.findAll(new ItemSearchCond("itemA", null, ItemMatchMode.EXACT))).isEmpty();
+        assertThat(repository.findAll(new ItemSearchCond("A-", null))).containsExactly(item(itemA.getId(), "itemA-2", 20000, 30));
+    }
+
+    @Test
+    void sortAndLimitMatchComparator() {
+        // given - 가격, 수량이 같은 상품과 null 을 섞는다.
+        Random random = new Random(1);
+        List<Item> saved = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Integer price = random.nextInt(10) == 0 ? null : random.nextInt(20) * 1000;
+            Integer quantity = random.nextInt(10) == 0 ? null : random.nextInt(5);
+            saved.add(repository.save(new Item("item" + random.nextInt(50), price, quantity)));
+        }
+
+        for (ItemSort sort : ItemSort.values()) {
+            for (Integer limit : new Integer[]{null, 1, 7, 499, 1000}) {
+                ItemSearchCond cond = new ItemSearchCond("item1", 15000);
+                cond.setSort(sort);
+                cond.setLimit(limit);
+
+                // when
+                List<Item> result = repository.findAll(cond);
+
+                // then
+                List<Item> expected = saved.stream()
+                        .filter(item -> item.getItemName().contains("item1"))
+                        .filter(item -> item.getPrice() != null && item.getPrice() <= 15000)
+                        .sorted(sort.comparator())
+                        .limit(limit == null ? Long.MAX_VALUE : limit)
+                        .collect(Collectors.toList());
+                assertThat(result).as("sort=%s, limit=%s", sort, limit).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void renameReleasesDictionaryEntry() {
+        // given
+        Item itemA = repository.save(new Item("shared", 1000, 1));
+        Item itemB = repository.save(new Item("shared", 2000, 2));
+
+        // when - 상품명을 계속 새 이름으로 바꾼다.
+        for (int i = 0; i < 1000; i++) {
+            repository.update(itemA.getId(), new ItemUpdateDto("name" + i, 1000, 1));
+        }
+
+        // then - 사용 중인 이름만 남는다.
+        assertThat(repository.nameDictionarySize()).isEqualTo(2);
+        assertThat(repository.findAll(new ItemSearchCond("shared", null, ItemMatchMode.EXACT))).containsExactly(itemB);
+        assertThat(repository.findAll(new ItemSearchCond("name5", null, ItemMatchMode.EXACT))).isEmpty();
+
+        // 마지막 사용자가 떠나면 지워지고, 같은 이름을 다시 쓰면 새로 등록된다.
+        repository.update(itemB.getId(), new ItemUpdateDto(null, 2000, 2));
+        assertThat(repository.nameDictionarySize()).isEqualTo(1);
+        repository.update(itemB.getId(), new ItemUpdateDto("shared", 2000, 2));
+        assertThat(repository.findAll(new ItemSearchCond("shared", null, ItemMatchMode.EXACT)))
+                .containsExactly(item(itemB.getId(), "shared", 2000, 2));
+        assertThat(repository.findById(itemA.getId()).get().getItemName()).isEqualTo("name999");
+    }
+
+    private static Item item(Long id, String itemName, Integer price, Integer quantity) {
+        Item item = new Item(itemName, price, quantity);
+        item.setId(id);
+        return item;
+    }
+}
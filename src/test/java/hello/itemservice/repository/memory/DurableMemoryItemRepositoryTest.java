@@ -0,0 +1,315 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemUpdateDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DurableMemoryItemRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoverFromLog() {
+        // given
+        DurableMemoryItemRepository repository = open(FsyncPolicy.EVERY_WRITE);
+        Item itemA = repository.save(new Item("itemA", 10000, 10));
+        Item itemB = repository.save(new Item("itemB", 20000, 20));
+        repository.update(itemA.getId(), new ItemUpdateDto("itemA-2", 15000, 5));
+        repository.close();
+
+        // when
+        DurableMemoryItemRepository recovered = open(FsyncPolicy.EVERY_WRITE);
+
+        // then
+        assertThat(recovered.findById(itemA.getId()).get()).isEqualTo(item(itemA.getId(), "itemA-2", 15000, 5));
+        assertThat(recovered.findById(itemB.getId()).get()).isEqualTo(itemB);
+
+        // 시퀀스도 이어서 사용한다.
+        Item itemC = recovered.save(new Item("itemC", 30000, 30));
+        assertThat(itemC.getId()).isEqualTo(itemB.getId() + 1);
+        recovered.close();
+    }
+
+    @Test
+    void recoverFromSnapshotAndLogTail() {
+        // given
+        DurableMemoryItemRepository repository = open(FsyncPolicy.BATCH);
+        Item itemA = repository.save(new Item("상품A", 10000, 10));
+        repository.save(new Item(null, null, null));
+        repository.compact();
+        Item itemC = repository.save(new Item("itemC", 30000, 30));
+        repository.update(itemA.getId(), new ItemUpdateDto("상품A-2", 11000, 1));
+        repository.close();
+
+        // when
+        DurableMemoryItemRepository recovered = open(FsyncPolicy.BATCH);
+
+        // then
+        assertThat(recovered.findAll(new ItemSearchCond())).containsExactly(
+                item(itemA.getId(), "상품A-2", 11000, 1),
+                item(itemA.getId() + 1, null, null, null),
+                itemC);
+        recovered.close();
+    }
+
+    @Test
+    void truncateTornLogTail() throws IOException {
+        // given
+        DurableMemoryItemRepository repository = open(FsyncPolicy.EVERY_WRITE);
+        Item itemA = repository.save(new Item("itemA", 10000, 10));
+        repository.close();
+
+        // 쓰다 만 레코드를 흉내낸다.
+        try (FileChannel channel = FileChannel.open(directory.resolve("items.log"), StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 30, 1, 2, 3}));
+        }
+
+        // when
+        DurableMemoryItemRepository recovered = open(FsyncPolicy.EVERY_WRITE);
+
+        // then
+        assertThat(recovered.findAll(new ItemSearchCond())).containsExactly(itemA);
+        Item itemB = recovered.save(new Item("itemB", 20000, 20));
+        recovered.close();
+
+        DurableMemoryItemRepository reopened = open(FsyncPolicy.EVERY_WRITE);
+        assertThat(reopened.findAll(new ItemSearchCond())).containsExactly(itemA, itemB);
+        reopened.close();
+    }
+
+    @Test
+    void rejectNameLongerThanLengthField() {
+        // given
+        DurableMemoryItemRepository repository = open(FsyncPolicy.EVERY_WRITE);
+        Item itemA = repository.save(new Item("itemA", 10000, 10));
+        String longName = "가".repeat(DurableMemoryItemRepository.MAX_NAME_BYTES / 3 + 1); // 한글은 UTF-8 3 바이트
+
+        // when
+        assertThatThrownBy(() -> repository.save(new Item(longName, 20000, 20)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> repository.update(itemA.getId(), new ItemUpdateDto(longName, 20000, 20)))
+                .isInstanceOf(IllegalArgumentException.class);
+        Item itemB = repository.save(new Item("itemB", 20000, 20));
+        repository.compact();
+        repository.close();
+
+        // then - 로그, 스냅샷에 아무것도 남기지 않았다.
+        DurableMemoryItemRepository recovered = open(FsyncPolicy.EVERY_WRITE);
+        assertThat(recovered.findAll(new ItemSearchCond())).containsExactly(itemA, itemB);
+        recovered.close();
+    }
+
+    @Test
+    void rollbackTornWrite() {
+        // given
+        FailingFileChannel channel = new FailingFileChannel();
+        DurableMemoryItemRepository repository = open(FsyncPolicy.EVERY_WRITE, channel);
+        Item itemA = repository.save(new Item("itemA", 10000, 10));
+
+        // when - 레코드 일부만 쓰고 실패
+        channel.failWrite = true;
+        assertThatThrownBy(() -> repository.save(new Item("itemB", 20000, 20))).isInstanceOf(UncheckedIOException.class);
+        channel.failWrite = false;
+        Item itemC = repository.save(new Item("itemC", 30000, 30));
+        repository.close();
+
+        // then - 실패한 쓰기 뒤에 성공한 쓰기가 남는다.
+        DurableMemoryItemRepository recovered = open(FsyncPolicy.EVERY_WRITE);
+        assertThat(recovered.findAll(new ItemSearchCond())).containsExactly(itemA, itemC);
+        recovered.close();
+    }
+
+    @Test
+    void rollbackWriteWhenFsyncFails() {
+        // given
+        FailingFileChannel channel = new FailingFileChannel();
+        DurableMemoryItemRepository repository = open(FsyncPolicy.EVERY_WRITE, channel);
+        Item itemA = repository.save(new Item("itemA", 10000, 10));
+
+        // when - 레코드는 다 썼지만 fsync 가 실패
+        channel.failForce = true;
+        assertThatThrownBy(() -> repository.update(itemA.getId(), new ItemUpdateDto("itemA-2", 1, 1)))
+                .isInstanceOf(UncheckedIOException.class);
+        channel.failForce = false;
+        repository.close();
+
+        // then - 실패를 받은 쓰기는 복구되지 않는다.
+        assertThat(repository.findById(itemA.getId()).get()).isEqualTo(itemA);
+        DurableMemoryItemRepository recovered = open(FsyncPolicy.EVERY_WRITE);
+        assertThat(recovered.findAll(new ItemSearchCond())).containsExactly(itemA);
+        recovered.close();
+    }
+
+    @Test
+    void rejectWritesWhenRollbackFails() {
+        // given
+        FailingFileChannel channel = new FailingFileChannel();
+        DurableMemoryItemRepository repository = open(FsyncPolicy.EVERY_WRITE, channel);
+        Item itemA = repository.save(new Item("itemA", 10000, 10));
+
+        // when - 쓰기도, 잘라내기도 실패
+        channel.failWrite = true;
+        channel.failTruncate = true;
+        assertThatThrownBy(() -> repository.save(new Item("itemB", 20000, 20))).isInstanceOf(UncheckedIOException.class);
+        channel.failWrite = false;
+        channel.failTruncate = false;
+
+        // then - 이후 쓰기는 거절한다. (쓰다 만 레코드 뒤에 덧붙이지 않는다)
+        assertThatThrownBy(() -> repository.save(new Item("itemC", 30000, 30))).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> repository.update(itemA.getId(), new ItemUpdateDto("itemA-2", 1, 1)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(repository.findAll(new ItemSearchCond())).containsExactly(itemA);
+        repository.close();
+    }
+
+    private DurableMemoryItemRepository open(FsyncPolicy fsyncPolicy) {
+        return new DurableMemoryItemRepository(directory, fsyncPolicy, 64,
+                Duration.ofMillis(100), Duration.ofHours(1), Long.MAX_VALUE);
+    }
+
+    private DurableMemoryItemRepository open(FsyncPolicy fsyncPolicy, FailingFileChannel channel) {
+        return new DurableMemoryItemRepository(directory, fsyncPolicy, 64,
+                Duration.ofMillis(100), Duration.ofHours(1), Long.MAX_VALUE, channel::open);
+    }
+
+    private Item item(Long id, String itemName, Integer price, Integer quantity) {
+        Item item = new Item(itemName, price, quantity);
+        item.setId(id);
+        return item;
+    }
+
+    /**
+     * 켜 둔 동작을 실패시키는 로그 채널
+     * failWrite 이면 레코드의 절반만 쓰고 실패한다. (쓰다 만 레코드)
+     */
+    static class FailingFileChannel extends FileChannel {
+
+        private FileChannel delegate;
+        volatile boolean failWrite;
+        volatile boolean failForce;
+        volatile boolean failTruncate;
+
+        FileChannel open(Path path) throws IOException {
+            delegate = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return this;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failWrite) {
+                ByteBuffer half = src.duplicate();
+                half.limit(src.position() + src.remaining() / 2);
+                int written = delegate.write(half);
+                src.position(src.position() + written);
+                throw new IOException("write failed");
+            }
+            return delegate.write(src);
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (failForce) {
+                throw new IOException("fsync failed");
+            }
+            delegate.force(metaData);
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            if (failTruncate) {
+                throw new IOException("truncate failed");
+            }
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
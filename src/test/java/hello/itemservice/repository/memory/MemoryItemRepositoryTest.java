@@ -0,0 +1,68 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemMatchMode;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemSort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemoryItemRepositoryTest {
+
+    // 저장소가 static 이므로 두 리포지토리는 같은 상품을 본다.
+    MemoryItemRepository sequential = new MemoryItemRepository();
+    MemoryItemRepository parallel;
+    ForkJoinPool pool = new ForkJoinPool(4);
+
+    @BeforeEach
+    void setUp() {
+        sequential.clearStore();
+        parallel = new MemoryItemRepository(1, pool); // 항상 병렬 검색
+
+        // 구간(MIN_SEGMENT_SIZE = 4096)이 여러 개로 나뉘도록 저장한다. 가격, 수량이 같은 상품과 null 을 섞는다.
+        Random random = new Random(1);
+        for (int i = 0; i < 20_000; i++) {
+            Integer price = random.nextInt(20) == 0 ? null : random.nextInt(50) * 1000;
+            Integer quantity = random.nextInt(20) == 0 ? null : random.nextInt(10);
+            String itemName = random.nextInt(50) == 0 ? null : "item" + random.nextInt(200);
+            sequential.save(new Item(itemName, price, quantity));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        sequential.clearStore();
+        pool.shutdown();
+    }
+
+    @Test
+    void parallelScanMatchesSequentialScan() {
+        String[][] searches = {{null, null}, {"item7", "EXACT"}, {"item1", "PREFIX"}, {"m1", "CONTAINS"}};
+        for (String[] search : searches) {
+            for (ItemSort sort : ItemSort.values()) {
+                for (Integer limit : new Integer[]{null, 1, 10, 5000, 30_000}) {
+                    ItemSearchCond cond = new ItemSearchCond(search[0], 40000,
+                            search[1] == null ? null : ItemMatchMode.valueOf(search[1]));
+                    cond.setMinQuantity(1);
+                    cond.setSort(sort);
+                    cond.setLimit(limit);
+
+                    // when
+                    List<Item> expected = sequential.findAll(cond);
+                    List<Item> result = parallel.findAll(cond);
+
+                    // then
+                    assertThat(expected).as("name=%s, sort=%s, limit=%s", search[0], sort, limit).isNotEmpty();
+                    assertThat(result).as("name=%s, sort=%s, limit=%s", search[0], sort, limit).isEqualTo(expected);
+                }
+            }
+        }
+    }
+}
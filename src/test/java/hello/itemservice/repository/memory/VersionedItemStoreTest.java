@@ -0,0 +1,142 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionedItemStoreTest {
+
+    @Test
+    void snapshotSeesValuesAtOpen() {
+        // given
+        VersionedItemStore store = new VersionedItemStore();
+        Long id = store.insert(new Item("itemA", 10000, 10)).getId();
+
+        // when - 스냅샷을 연 뒤에 수정, 저장
+        try (VersionedItemStore.Snapshot snapshot = store.openSnapshot()) {
+            store.update(id, item -> change(item, "itemB", 20000, 20));
+            store.insert(new Item("itemC", 30000, 30));
+
+            // then - 스냅샷은 연 시점의 값만 본다.
+            Item seen = snapshot.get(id);
+            assertThat(seen.getItemName()).isEqualTo("itemA");
+            assertThat(seen.getPrice()).isEqualTo(10000);
+            assertThat(seen.getQuantity()).isEqualTo(10);
+
+            List<Item> all = new ArrayList<>();
+            snapshot.forEach(all::add);
+            assertThat(all).extracting(Item::getItemName).containsExactly("itemA");
+        }
+
+        // 새 스냅샷은 수정된 값을 본다.
+        assertThat(store.latest(id).getItemName()).isEqualTo("itemB");
+        try (VersionedItemStore.Snapshot snapshot = store.openSnapshot()) {
+            assertThat(snapshot.get(id).getPrice()).isEqualTo(20000);
+        }
+    }
+
+    @Test
+    void pruneVersionsNoReaderHolds() {
+        // given
+        VersionedItemStore store = new VersionedItemStore();
+        Long id = store.insert(new Item("itemA", 10000, 10)).getId();
+
+        // when - 읽는 중에는 이전 버전을 남긴다.
+        VersionedItemStore.Snapshot snapshot = store.openSnapshot();
+        for (int i = 1; i <= 5; i++) {
+            int price = i * 1000;
+            store.update(id, item -> change(item, "itemA", price, 10));
+        }
+        assertThat(store.versionCount(id)).isEqualTo(6);
+        assertThat(snapshot.get(id).getPrice()).isEqualTo(10000);
+
+        // then - 스냅샷을 닫으면 다음 수정 때 최신 버전과 바로 이전 버전만 남는다.
+        snapshot.close();
+        store.update(id, item -> change(item, "itemA", 9000, 10));
+        assertThat(store.versionCount(id)).isEqualTo(2);
+    }
+
+    @Test
+    void pruneWhenOldestSnapshotCloses() {
+        // given - 두 스냅샷이 읽는 동안 수정하고, 그 뒤로는 쓰지 않는다.
+        VersionedItemStore store = new VersionedItemStore();
+        Long id = store.insert(new Item("itemA", 10000, 10)).getId();
+        VersionedItemStore.Snapshot oldest = store.openSnapshot();
+        store.update(id, item -> change(item, "itemA", 1000, 10));
+        VersionedItemStore.Snapshot newer = store.openSnapshot();
+        store.update(id, item -> change(item, "itemA", 2000, 10));
+        store.update(id, item -> change(item, "itemA", 3000, 10));
+        assertThat(store.versionCount(id)).isEqualTo(4);
+
+        // when - 가장 오래된 스냅샷이 아니면 끊지 않는다.
+        newer.close();
+        assertThat(store.versionCount(id)).isEqualTo(4);
+        assertThat(oldest.get(id).getPrice()).isEqualTo(10000);
+
+        // then - 가장 오래된 스냅샷이 닫히면 최신 버전만 남는다.
+        oldest.close();
+        assertThat(store.versionCount(id)).isEqualTo(1);
+        assertThat(store.latest(id).getPrice()).isEqualTo(3000);
+    }
+
+    @Test
+    void pruneKeepsVersionsNextSnapshotReads() {
+        // given
+        VersionedItemStore store = new VersionedItemStore();
+        Long id = store.insert(new Item("itemA", 10000, 10)).getId();
+        VersionedItemStore.Snapshot oldest = store.openSnapshot();
+        store.update(id, item -> change(item, "itemA", 1000, 10));
+        VersionedItemStore.Snapshot newer = store.openSnapshot();
+        store.update(id, item -> change(item, "itemA", 2000, 10));
+
+        // when
+        oldest.close();
+
+        // then - 남은 스냅샷이 읽는 버전까지 남기고, 그 스냅샷이 닫히면 마저 끊는다.
+        assertThat(store.versionCount(id)).isEqualTo(2);
+        assertThat(newer.get(id).getPrice()).isEqualTo(1000);
+        newer.close();
+        assertThat(store.versionCount(id)).isEqualTo(1);
+    }
+
+    @Test
+    void splitSnapshotSeesValuesAtOpen() {
+        // given
+        VersionedItemStore store = new VersionedItemStore();
+        for (int i = 0; i < 1000; i++) {
+            store.insert(new Item("item" + i, i, 10));
+        }
+
+        try (VersionedItemStore.Snapshot snapshot = store.openSnapshot()) {
+            for (long id = 1; id <= 1000; id += 2) {
+                store.update(id, item -> change(item, "changed", -1, 0));
+            }
+            store.insert(new Item("itemNew", 0, 0));
+
+            // when - 여러 구간으로 나눠 읽는다.
+            Spliterator<Item> first = snapshot.spliterator();
+            Spliterator<Item> second = first.trySplit();
+            assertThat(second).isNotNull();
+
+            List<Item> all = new ArrayList<>();
+            first.forEachRemaining(all::add);
+            second.forEachRemaining(all::add);
+
+            // then
+            assertThat(all).hasSize(1000);
+            assertThat(all).extracting(Item::getItemName).doesNotContain("changed", "itemNew");
+        }
+    }
+
+    private static Item change(Item item, String itemName, int price, int quantity) {
+        item.setItemName(itemName);
+        item.setPrice(price);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
@@ -0,0 +1,211 @@
+package hello.itemservice.repository.shard;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemPriceBucket;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
+import hello.itemservice.repository.ItemUpdateDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardedItemRepositoryTest {
+
+    DataSource shard0;
+    DataSource shard1;
+    ShardedItemRepository itemRepository;
+
+    @BeforeEach
+    void beforeEach() {
+        shard0 = shard("shard0");
+        shard1 = shard("shard1");
+        itemRepository = new ShardedItemRepository(List.of(shard0, shard1));
+    }
+
+    @AfterEach
+    void afterEach() {
+        itemRepository.close();
+    }
+
+    @Test
+    void save() {
+        // given
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+        Item itemB = itemRepository.save(new Item("itemB", 20000, 20));
+
+        // then - id mod 2 샤드에 하나씩 저장된다.
+        assertThat(itemRepository.findById(itemA.getId()).get()).isEqualTo(itemA);
+        assertThat(itemRepository.findById(itemB.getId()).get()).isEqualTo(itemB);
+        assertThat(count(shard0)).isEqualTo(1);
+        assertThat(count(shard1)).isEqualTo(1);
+    }
+
+    @Test
+    void continueSequenceAfterRestart() {
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+        Item itemB = itemRepository.save(new Item("itemB", 20000, 20));
+        itemRepository.close();
+
+        itemRepository = new ShardedItemRepository(List.of(shard0, shard1));
+        Item itemC = itemRepository.save(new Item("itemC", 30000, 30));
+
+        assertThat(itemC.getId()).isEqualTo(Math.max(itemA.getId(), itemB.getId()) + 1);
+    }
+
+    @Test
+    void updateItem() {
+        // given
+        Item item = itemRepository.save(new Item("item1", 10000, 10));
+
+        // when
+        itemRepository.update(item.getId(), new ItemUpdateDto("item2", 20000, 30));
+
+        // then
+        Item findItem = itemRepository.findById(item.getId()).get();
+        assertThat(findItem.getItemName()).isEqualTo("item2");
+        assertThat(findItem.getPrice()).isEqualTo(20000);
+        assertThat(findItem.getQuantity()).isEqualTo(30);
+    }
+
+    @Test
+    void findItems() {
+        // given
+        Item item1 = itemRepository.save(new Item("itemA-1", 10000, 10));
+        Item item2 = itemRepository.save(new Item("itemA-2", 20000, 20));
+        Item item3 = itemRepository.save(new Item("itemB-1", 30000, 30));
+
+        // 모든 샤드의 결과가 id 순으로 합쳐진다.
+        assertThat(itemRepository.findAll(new ItemSearchCond())).containsExactly(item1, item2, item3);
+        assertThat(itemRepository.findAll(new ItemSearchCond("itemA", null))).containsExactly(item1, item2);
+        assertThat(itemRepository.findAll(new ItemSearchCond(null, 20000))).containsExactly(item1, item2);
+        assertThat(itemRepository.findAll(new ItemSearchCond("itemA", 10000))).containsExactly(item1);
+    }
+
+    @Test
+    void findAllById() {
+        Item item1 = itemRepository.save(new Item("itemA-1", 10000, 10));
+        Item item2 = itemRepository.save(new Item("itemA-2", 20000, 20));
+        Item item3 = itemRepository.save(new Item("itemB-1", 30000, 30));
+
+        assertThat(itemRepository.findAllById(List.of(item3.getId(), -1L, item1.getId(), item2.getId())))
+                .containsExactly(item3, item1, item2);
+    }
+
+    @Test
+    void stats() {
+        itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.save(new Item("itemB", 15000, 2));
+        itemRepository.save(new Item("itemC", 20000, 1));
+
+        ItemStats stats = itemRepository.stats();
+
+        assertThat(stats.getItemCount()).isEqualTo(3);
+        assertThat(stats.getTotalStockValue()).isEqualTo(10000 * 10 + 15000 * 2 + 20000);
+        assertThat(stats.getPriceHistogram()).containsExactly(
+                new ItemPriceBucket(1, 2),
+                new ItemPriceBucket(2, 1));
+    }
+
+    @Test
+    void concurrentSearchesDoNotQueueBehindEachOther() throws Exception {
+        // given - 샤드당 동시 쿼리는 1 개 (풀 스레드 1 개)
+        SlowDataSource slow1 = new SlowDataSource(shard1);
+        itemRepository.close();
+        itemRepository = new ShardedItemRepository(List.of(shard0, slow1), 1);
+        itemRepository.save(new Item("itemA", 10000, 10));
+
+        // when - 검색 4 개를 동시에 보낸다. 두 번째 샤드는 4 개가 모두 커넥션을 얻으려 할 때까지 기다린다.
+        slow1.gate = new CountDownLatch(4);
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        List<Future<List<Item>>> searches = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            searches.add(callers.submit(() -> itemRepository.findAll(new ItemSearchCond())));
+        }
+        for (Future<List<Item>> search : searches) {
+            assertThat(search.get()).hasSize(1);
+        }
+        callers.shutdown();
+
+        // then - 풀 스레드 하나와 호출한 스레드 셋이 두 번째 샤드를 동시에 조회한다. (풀 대기열에 줄을 서면 1)
+        assertThat(slow1.maxActive.get()).isEqualTo(4);
+    }
+
+    @Test
+    @Timeout(10)
+    void searchAfterCloseRunsOnCaller() {
+        // given
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+
+        // when
+        itemRepository.close();
+
+        // then - 풀이 작업을 받지 않으면 호출한 스레드에서 조회한다. (버려진 작업을 기다리지 않는다)
+        assertThat(itemRepository.findAll(new ItemSearchCond())).containsExactly(item);
+    }
+
+    private DataSource shard(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource();
+        dataSource.setDriverClassName("org.h2.Driver");
+        dataSource.setUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("sa");
+        DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(new ClassPathResource("schema.sql")), dataSource);
+        return dataSource;
+    }
+
+    private int count(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("select count(*) from item", Integer.class);
+    }
+
+    // gate 가 있으면 그 수만큼 동시에 커넥션을 얻으려 할 때까지 기다리고, 그 동안의 최대 동시 요청 수를 센다.
+    static class SlowDataSource extends DelegatingDataSource {
+
+        volatile CountDownLatch gate;
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+
+        SlowDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            CountDownLatch gate = this.gate;
+            if (gate == null) {
+                return super.getConnection();
+            }
+
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                gate.countDown();
+                gate.await(5, TimeUnit.SECONDS); // 줄을 서면 다 모이지 않는다. 기다리다 넘어간다.
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+            return super.getConnection();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package hello.itemservice.service;
+
+import hello.itemservice.deadline.Deadline;
+import hello.itemservice.deadline.DeadlineExceededException;
+import hello.itemservice.domain.Item;
+import hello.itemservice.monitoring.DbRequestStats;
+import hello.itemservice.monitoring.StatsDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchingItemServiceTest {
+
+    @Test
+    void batchConcurrentFindById() throws Exception {
+        // given - 넉넉한 window
+        RecordingItemService target = new RecordingItemService();
+        BatchingItemService service = new BatchingItemService(target, Duration.ofMillis(200), 4, 1);
+
+        // when - 서로 다른 id 4개를 동시에 조회 (없는 id 포함)
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Optional<Item>>> futures = new ArrayList<>();
+        for (long id : new long[]{1L, 2L, 3L, -1L}) {
+            futures.add(executor.submit(() -> service.findById(id)));
+        }
+
+        // then - maxBatchSize 개가 모여서 in 조회 한 번
+        assertThat(futures.get(0).get(5, TimeUnit.SECONDS)).get().extracting(Item::getId).isEqualTo(1L);
+        assertThat(futures.get(1).get(5, TimeUnit.SECONDS)).get().extracting(Item::getId).isEqualTo(2L);
+        assertThat(futures.get(2).get(5, TimeUnit.SECONDS)).get().extracting(Item::getId).isEqualTo(3L);
+        assertThat(futures.get(3).get(5, TimeUnit.SECONDS)).isEmpty();
+        assertThat(target.loads).hasSize(1);
+        assertThat(target.loads.get(0)).containsExactlyInAnyOrder(1L, 2L, 3L, -1L);
+
+        executor.shutdown();
+        service.close();
+    }
+
+    @Test
+    void loadAfterWindow() {
+        // given
+        RecordingItemService target = new RecordingItemService();
+        BatchingItemService service = new BatchingItemService(target, Duration.ofMillis(1), 100, 1);
+
+        // when - 혼자 들어온 요청도 window 가 지나면 조회한다.
+        Optional<Item> item = service.findById(7L);
+
+        // then
+        assertThat(item).get().extracting(Item::getId).isEqualTo(7L);
+        assertThat(service.getBatches()).isEqualTo(1);
+        service.close();
+
+        // 종료 후에는 바로 조회한다.
+        assertThat(service.findById(8L)).isPresent();
+    }
+
+    @Test
+    void cachedIdsSkipBatch() throws Exception {
+        // given - 짝수 id 는 캐시에 있다.
+        RecordingItemService target = new RecordingItemService();
+        BatchingItemService service = new BatchingItemService(target, Duration.ofMillis(200), 2, 1, id -> id % 2 == 0);
+
+        // when
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Optional<Item>>> futures = new ArrayList<>();
+        for (long id : new long[]{1L, 2L, 3L, 4L}) {
+            futures.add(executor.submit(() -> service.findById(id)));
+        }
+        for (Future<Optional<Item>> future : futures) {
+            assertThat(future.get(5, TimeUnit.SECONDS)).isPresent();
+        }
+
+        // then - 캐시에 있는 id 는 findById 로 바로, 나머지만 in 조회로 묶는다.
+        assertThat(target.singleLoads).containsExactlyInAnyOrder(2L, 4L);
+        assertThat(target.loads).hasSize(1);
+        assertThat(target.loads.get(0)).containsExactlyInAnyOrder(1L, 3L);
+
+        executor.shutdown();
+        service.close();
+    }
+
+    @Test
+    void loadWithEarliestDeadline() throws Exception {
+        // given - 마감이 서로 다른 요청 3개, 하나는 이미 지났다.
+        RecordingItemService target = new RecordingItemService();
+        BatchingItemService service = new BatchingItemService(target, Duration.ofSeconds(1), 3, 1);
+        Deadline late = Deadline.after(Duration.ofSeconds(30));
+        Deadline early = Deadline.after(Duration.ofSeconds(10));
+        Deadline expired = Deadline.after(Duration.ZERO);
+
+        // when
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        Future<Optional<Item>> lateCall = executor.submit(withDeadline(late, () -> service.findById(1L)));
+        Future<Optional<Item>> earlyCall = executor.submit(withDeadline(early, () -> service.findById(2L)));
+        Future<Optional<Item>> expiredCall = executor.submit(withDeadline(expired, () -> service.findById(3L)));
+
+        // then - 지난 요청은 빼고, 남은 요청 중 가장 이른 마감으로 조회한다.
+        assertThat(lateCall.get(5, TimeUnit.SECONDS)).isPresent();
+        assertThat(earlyCall.get(5, TimeUnit.SECONDS)).isPresent();
+        assertThatThrownBy(() -> expiredCall.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(DeadlineExceededException.class);
+        assertThat(target.loads).hasSize(1);
+        assertThat(target.loads.get(0)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(target.deadlines).containsExactly(early);
+
+        // 조회가 끝나면 조회 스레드의 마감을 지운다.
+        assertThat(service.findById(4L)).isPresent();
+        assertThat(target.deadlines).containsExactly(early, null);
+
+        executor.shutdown();
+        service.close();
+    }
+
+    @Test
+    void addBatchStatsToEachRequest() throws Exception {
+        // given - 묶음 조회마다 SQL 한 번, 행 하나
+        DriverManagerDataSource dataSource = new DriverManagerDataSource();
+        dataSource.setDriverClassName("org.h2.Driver");
+        dataSource.setUrl("jdbc:h2:mem:batching;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("sa");
+        JdbcTemplate template = new JdbcTemplate(new StatsDataSource(dataSource));
+
+        RecordingItemService target = new RecordingItemService();
+        target.onLoad = () -> template.queryForList("select 1", Integer.class);
+        BatchingItemService service = new BatchingItemService(target, Duration.ofSeconds(1), 2, 1);
+
+        // when - 요청마다 DB 작업을 집계한다.
+        Callable<DbRequestStats> call = () -> {
+            DbRequestStats stats = DbRequestStats.start();
+            try {
+                service.findById(1L);
+                return stats;
+            } finally {
+                DbRequestStats.end();
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<DbRequestStats> first = executor.submit(call);
+        Future<DbRequestStats> second = executor.submit(call);
+
+        // then - 다른 스레드에서 실행한 묶음 조회가 두 요청 모두에 더해진다.
+        for (DbRequestStats stats : List.of(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS))) {
+            assertThat(stats.getStatements()).isEqualTo(1);
+            assertThat(stats.getRows()).isEqualTo(1);
+        }
+        assertThat(target.loads).hasSize(1);
+
+        executor.shutdown();
+        service.close();
+    }
+
+    private static <T> Callable<T> withDeadline(Deadline deadline, Callable<T> call) {
+        return () -> {
+            Deadline.set(deadline);
+            try {
+                return call.call();
+            } finally {
+                Deadline.clear();
+            }
+        };
+    }
+
+    static class RecordingItemService extends StubItemService {
+
+        private final List<List<Long>> loads = new CopyOnWriteArrayList<>();
+        private final List<Long> singleLoads = new CopyOnWriteArrayList<>();
+        private final List<Deadline> deadlines = new CopyOnWriteArrayList<>();
+        private volatile Runnable onLoad = () -> {
+        };
+
+        @Override
+        public List<Item> findAllById(Collection<Long> ids) {
+            loads.add(new ArrayList<>(ids));
+            deadlines.add(Deadline.current());
+            onLoad.run();
+            return ids.stream()
+                    .filter(id -> id > 0)
+                    .map(StubItemService::item)
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public Optional<Item> findById(Long id) {
+            singleLoads.add(id);
+            return Optional.of(item(id));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package hello.itemservice.service;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.limit.AdaptiveConcurrencyLimiter;
+import hello.itemservice.limit.ConcurrencyLimitExceededException;
+import hello.itemservice.web.ConcurrencyLimitExceptionHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class ConcurrencyLimitedItemServiceTest {
+
+    @Test
+    void writesPassWhileReadsAreSaturated() throws Exception {
+        // given - 조회 제한 1, 조회가 latch 에서 멈추는 서비스
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ItemService target = new StubItemService() {
+            @Override
+            public Optional<Item> findById(Long id) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Optional.of(item(id));
+            }
+
+            @Override
+            public Item save(Item item) {
+                item.setId(1L);
+                return item;
+            }
+        };
+        AdaptiveConcurrencyLimiter readLimiter = limiter("read");
+        AdaptiveConcurrencyLimiter writeLimiter = limiter("write");
+        ItemService service = new ConcurrencyLimitedItemService(target, readLimiter, writeLimiter);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Optional<Item>> blocked = executor.submit(() -> service.findById(1L));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when - 조회 제한이 다 찼다.
+        ConcurrencyLimitExceededException e = catchThrowableOfType(() -> service.findById(2L), ConcurrencyLimitExceededException.class);
+
+        // then - 조회는 바로 거절되고 (503, Retry-After), 변경은 자기 몫의 제한으로 처리된다.
+        assertThat(e).hasMessageContaining("limiter=read");
+        ResponseEntity<String> response = new ConcurrencyLimitExceptionHandler().limitExceeded(e);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+
+        assertThat(service.save(new Item("itemA", 10000, 10)).getId()).isEqualTo(1L);
+        assertThat(readLimiter.getRejected()).isEqualTo(1);
+        assertThat(writeLimiter.getRejected()).isZero();
+
+        release.countDown();
+        assertThat(blocked.get(5, TimeUnit.SECONDS)).isPresent();
+        assertThat(readLimiter.getInFlight()).isZero();
+        executor.shutdown();
+    }
+
+    // 제한 1 로 고정 (min = max)
+    private static AdaptiveConcurrencyLimiter limiter(String name) {
+        return new AdaptiveConcurrencyLimiter(name, 1, 1, 1, Duration.ofSeconds(10), 0.5);
+    }
+}
@@ -0,0 +1,81 @@
+package hello.itemservice.service;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.monitoring.ResourceUsageRegistry;
+import hello.itemservice.monitoring.ThreadResourceMeter;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemUpdateDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResourceAccountingItemServiceTest {
+
+    static final int ALLOCATION = 8 * 1024 * 1024;
+
+    ResourceUsageRegistry registry = new ResourceUsageRegistry(new ThreadResourceMeter());
+    AllocatingItemService target = new AllocatingItemService();
+    ItemService service = new ResourceAccountingItemService(target, registry, "memory");
+
+    @Test
+    void recordPerEngineMethod() {
+        // when - 예외로 끝난 호출도 누적한다.
+        service.findById(1L);
+        service.findById(2L);
+        assertThatThrownBy(() -> service.update(1L, new ItemUpdateDto())).isInstanceOf(IllegalStateException.class);
+
+        // then
+        assertThat(backend().keySet()).containsExactly("memory.findById", "memory.update");
+        assertThat(backend().get("memory.findById").get("calls")).isEqualTo(2L);
+        assertThat(backend().get("memory.update").get("calls")).isEqualTo(1L);
+        assertThat(backend().get("memory.findById").get("allocatedBytes")).isGreaterThan((long) ALLOCATION);
+
+        registry.clear();
+        assertThat(registry.snapshot()).isEmpty();
+    }
+
+    @Test
+    void workOnOtherThreadsIsNotRecorded() {
+        // when - 샤드 scatter 처럼 리포지토리 안에서 다른 스레드에 일을 넘긴다.
+        service.findItems(new ItemSearchCond());
+
+        // then - 호출한 스레드가 할당한 만큼만 잡힌다.
+        assertThat(target.allocated).hasSize(1);
+        assertThat(backend().get("memory.findItems").get("calls")).isEqualTo(1L);
+        assertThat(backend().get("memory.findItems").get("allocatedBytes")).isLessThan((long) ALLOCATION);
+    }
+
+    private Map<String, Map<String, Long>> backend() {
+        return registry.snapshot().get(ResourceUsageRegistry.BACKEND);
+    }
+
+    static class AllocatingItemService extends StubItemService {
+
+        // 할당이 최적화로 사라지지 않도록 보관한다.
+        private final List<byte[]> allocated = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Optional<Item> findById(Long id) {
+            allocated.add(new byte[ALLOCATION]);
+            return Optional.empty();
+        }
+
+        @Override
+        public List<Item> findItems(ItemSearchCond itemSearch) {
+            CompletableFuture.runAsync(() -> allocated.add(new byte[ALLOCATION])).join();
+            return List.of();
+        }
+
+        @Override
+        public void update(Long itemId, ItemUpdateDto updateParam) {
+            throw new IllegalStateException("update failed");
+        }
+    }
+}
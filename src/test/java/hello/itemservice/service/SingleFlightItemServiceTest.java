@@ -0,0 +1,102 @@
+package hello.itemservice.service;
+
+import hello.itemservice.domain.Item;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightItemServiceTest {
+
+    @Test
+    void coalesceConcurrentFindById() throws Exception {
+        // given - 조회가 latch 에서 멈추는 서비스
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingItemService target = new BlockingItemService(release);
+        SingleFlightItemService service = new SingleFlightItemService(target);
+
+        // when - 같은 id 를 동시에 조회
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<Optional<Item>>> futures = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            futures.add(executor.submit(() -> service.findById(1L)));
+        }
+        awaitCoalesced(service, callers - 1);
+        release.countDown();
+
+        // then - 한 번만 조회하고 모두 같은 결과를 받는다.
+        for (Future<Optional<Item>> future : futures) {
+            assertThat(future.get(5, TimeUnit.SECONDS)).get().extracting(Item::getItemName).isEqualTo("item1");
+        }
+        assertThat(target.calls.get()).isEqualTo(1);
+        executor.shutdown();
+
+        // 끝난 조회는 다시 실행한다. (캐시하지 않음)
+        service.findById(1L);
+        assertThat(target.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shareFailureWithWaitingCalls() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingItemService target = new BlockingItemService(release);
+        SingleFlightItemService service = new SingleFlightItemService(target);
+
+        // when - 실패하는 조회를 동시에
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<Optional<Item>> first = executor.submit(() -> service.findById(-1L));
+        Future<Optional<Item>> second = executor.submit(() -> service.findById(-1L));
+        awaitCoalesced(service, 1);
+        release.countDown();
+
+        // then
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(target.calls.get()).isEqualTo(1);
+        executor.shutdown();
+    }
+
+    private void awaitCoalesced(SingleFlightItemService service, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.getCoalescedCalls() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(service.getCoalescedCalls()).isEqualTo(expected);
+    }
+
+    static class BlockingItemService extends StubItemService {
+
+        private final CountDownLatch release;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        BlockingItemService(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public Optional<Item> findById(Long id) {
+            calls.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (id < 0) {
+                throw new IllegalArgumentException("id=" + id);
+            }
+            return Optional.of(item(id));
+        }
+    }
+}
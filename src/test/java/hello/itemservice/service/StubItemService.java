@@ -0,0 +1,55 @@
+package hello.itemservice.service;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemStats;
+import hello.itemservice.repository.ItemUpdateDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 데코레이터 테스트용 ItemService
+ *
+ * 모든 메서드가 UnsupportedOperationException 을 던진다. 테스트에서 사용하는 메서드만 재정의한다.
+ */
+class StubItemService implements ItemService {
+
+    @Override
+    public Item save(Item item) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Item> findItems(ItemSearchCond itemSearch) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ItemStats stats() {
+        throw new UnsupportedOperationException();
+    }
+
+    // 이름이 "item" + id, 가격 10000, 수량 10 인 상품
+    static Item item(Long id) {
+        Item item = new Item("item" + id, 10000, 10);
+        item.setId(id);
+        return item;
+    }
+}
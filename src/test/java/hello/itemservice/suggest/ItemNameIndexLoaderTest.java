@@ -0,0 +1,41 @@
+package hello.itemservice.suggest;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.service.ItemService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// local 프로필 - 시작할 때 TestDataInit 이 ItemRepository 로 itemA, itemB 를 저장한다. (이벤트 없음)
+@SpringBootTest(properties = {"spring.profiles.active=local", "item.events.enabled=true", "item.suggest.enabled=true"})
+class ItemNameIndexLoaderTest {
+
+    @Autowired
+    ItemNameIndex index;
+
+    @Autowired
+    ItemService itemService;
+
+    @Test
+    void suggestItemsSavedThroughRepositoryAtStartup() {
+        // 시작 데이터를 넣은 다음에 읽는다.
+        assertThat(index.suggest("item", 10)).contains("itemA", "itemB");
+    }
+
+    @Test
+    void suggestItemsSavedAfterLoad() throws InterruptedException {
+        // when - 읽은 뒤의 저장은 이벤트로 반영된다. (비동기)
+        itemService.save(new Item("키보드", 10000, 10));
+
+        // then
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (index.suggest("키보", 10).isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(index.suggest("키보", 10)).containsExactly("키보드");
+    }
+}
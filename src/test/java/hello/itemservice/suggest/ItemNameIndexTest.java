@@ -0,0 +1,60 @@
+package hello.itemservice.suggest;
+
+import hello.itemservice.domain.Item;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemNameIndexTest {
+
+    ItemNameIndex index = new ItemNameIndex();
+
+    @Test
+    void renameReplacesOldName() {
+        // given - 같은 이름의 상품이 둘
+        index.put(1L, "키보드");
+        index.put(2L, "키보드");
+
+        // when
+        index.put(1L, "마우스");
+
+        // then - 다른 상품이 쓰는 이름은 남는다.
+        assertThat(index.suggest("키", 10)).containsExactly("키보드");
+        assertThat(index.suggest("마", 10)).containsExactly("마우스");
+
+        // 마지막 상품까지 바뀌면 빠진다. 이름을 지워도 이전 이름은 빠진다.
+        index.put(2L, "닭갈비");
+        index.put(1L, null);
+        assertThat(index.suggest("키", 10)).isEmpty();
+        assertThat(index.suggest("마", 10)).isEmpty();
+        assertThat(index.suggest("달", 10)).containsExactly("닭갈비");
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void eventBeforeLoadWins() {
+        // given - 시작할 때 읽는 동안 수정 이벤트가 먼저 들어온다.
+        index.put(1L, "마우스");
+
+        // when - 읽은 값은 이벤트보다 오래된 값
+        index.load(List.of(item(1L, "키보드"), item(2L, "과자")));
+
+        // then
+        assertThat(index.suggest("키", 10)).isEmpty();
+        assertThat(index.suggest("마", 10)).containsExactly("마우스");
+        assertThat(index.suggest("고", 10)).containsExactly("과자");
+        assertThat(index.size()).isEqualTo(2);
+
+        // load 뒤의 이벤트는 그대로 반영된다.
+        index.put(2L, "고구마");
+        assertThat(index.suggest("고", 10)).containsExactly("고구마");
+    }
+
+    private static Item item(Long id, String itemName) {
+        Item item = new Item(itemName, 10000, 10);
+        item.setId(id);
+        return item;
+    }
+}
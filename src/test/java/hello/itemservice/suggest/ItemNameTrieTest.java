@@ -0,0 +1,50 @@
+package hello.itemservice.suggest;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemNameTrieTest {
+
+    @Test
+    void startingWith() {
+        // given
+        ItemNameTrie trie = ItemNameTrie.EMPTY
+                .add("itemB").add("itemA").add("item").add("Item").add("book");
+
+        // then - 키 순서로, 대소문자 구분 없이
+        assertThat(trie.startingWith("ite", 10)).containsExactly("Item", "item", "itemA", "itemB");
+        assertThat(trie.startingWith("ITEMA", 10)).containsExactly("itemA");
+        assertThat(trie.startingWith("ite", 2)).containsExactly("Item", "item");
+        assertThat(trie.startingWith("x", 10)).isEmpty();
+    }
+
+    @Test
+    void hangulWhileTyping() {
+        // given
+        ItemNameTrie trie = ItemNameTrie.EMPTY
+                .add("키보드").add("키보드 1").add("닭갈비").add("과자").add("고구마");
+
+        // then - 입력 중인 글자(킵 = 키 + ㅂ), 초성, 겹받침, 겹모음
+        assertThat(trie.startingWith("킵", 10)).containsExactly("키보드", "키보드 1");
+        assertThat(trie.startingWith("ㅋ", 10)).containsExactly("키보드", "키보드 1");
+        assertThat(trie.startingWith("달", 10)).containsExactly("닭갈비");
+        assertThat(trie.startingWith("고", 10)).containsExactly("고구마", "과자");
+    }
+
+    @Test
+    void removeKeepsOtherNames() {
+        // given - 같은 이름의 상품이 둘
+        ItemNameTrie trie = ItemNameTrie.EMPTY.add("키보드").add("키보드").add("키보드 1");
+
+        // when
+        ItemNameTrie removedOnce = trie.remove("키보드");
+        ItemNameTrie removedTwice = removedOnce.remove("키보드");
+
+        // then - 이전 trie 는 그대로
+        assertThat(trie.startingWith("키", 10)).containsExactly("키보드", "키보드 1");
+        assertThat(removedOnce.startingWith("키", 10)).containsExactly("키보드", "키보드 1");
+        assertThat(removedTwice.startingWith("키", 10)).containsExactly("키보드 1");
+        assertThat(removedTwice.remove("키보드 1").startingWith("키", 10)).isEmpty();
+    }
+}